@@ -0,0 +1,48 @@
+package org.example.bench;
+
+import org.example.DavoHash512;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Nachrichten/s für kurze Schlüssel (16–200 Bytes): hashBatch gegenüber der skalaren Schleife. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class BatchHashBenchmark {
+    private static final int MESSAGES = 1024;
+
+    byte[][] inputs;
+    byte[][] outputs;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(MESSAGES);
+        inputs = new byte[MESSAGES][];
+        outputs = new byte[MESSAGES][DavoHash512.DIGEST_LENGTH];
+        for (int i = 0; i < MESSAGES; i++) {
+            inputs[i] = new byte[16 + random.nextInt(185)];
+            random.nextBytes(inputs[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public byte[][] hashBatch() {
+        DavoHash512.hashBatch(inputs, outputs);
+        return outputs;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public byte[][] scalarLoop() {
+        for (int i = 0; i < MESSAGES; i++) {
+            DavoHash512.hashInto(inputs[i], 0, inputs[i].length, outputs[i], 0);
+        }
+        return outputs;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.bench;
+
+import java.util.Random;
+
+final class BenchmarkData {
+    private static final String NON_ASCII = "äöüßé€你好Ωж";
+
+    private BenchmarkData() {
+    }
+
+    static byte[] bytes(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+
+    // Jedes vierte Zeichen außerhalb von ASCII, damit die Normalisierung nicht abkürzen kann
+    static String text(int size, boolean ascii) {
+        Random random = new Random(size);
+        StringBuilder builder = new StringBuilder(size);
+        for (int i = 0; i < size; i++) {
+            if (!ascii && i % 4 == 3) {
+                builder.append(NON_ASCII.charAt(random.nextInt(NON_ASCII.length())));
+            } else {
+                builder.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        return builder.toString();
+    }
+}
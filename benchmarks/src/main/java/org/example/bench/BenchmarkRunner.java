@@ -0,0 +1,69 @@
+package org.example.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Startet die Benchmarks immer mit {@code -prof gc} und JSON-Ergebnissen, die sich zwischen Releases vergleichen
+ * lassen. Ohne eigene Auswahl auf der Kommandozeile laufen alle Benchmarks nach {@code davohash.json} und
+ * {@link ConcurrentHashBenchmark} zusätzlich für 1, 2, 4, ... bis N Threads nach {@code davohash-threads-<t>.json}.
+ * <p>
+ * Systemeigenschaften: {@code davohash.results} (Ergebnisverzeichnis, Standard {@code jmh-results}) und
+ * {@code davohash.maxThreads} (Standard: Anzahl der Prozessoren). Alle übrigen JMH-Optionen werden durchgereicht.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Path results = Files.createDirectories(Path.of(System.getProperty("davohash.results", "jmh-results")));
+
+        if (!commandLine.getIncludes().isEmpty()) {
+            new Runner(options(commandLine, results.resolve("davohash.json")).build()).run();
+            return;
+        }
+
+        new Runner(options(commandLine, results.resolve("davohash.json"))
+                .include(".*Benchmark")
+                .exclude(ConcurrentHashBenchmark.class.getSimpleName())
+                .build()).run();
+
+        for (int threads : threadCounts(Integer.getInteger("davohash.maxThreads", Runtime.getRuntime().availableProcessors()))) {
+            new Runner(options(commandLine, results.resolve("davohash-threads-" + threads + ".json"))
+                    .include(ConcurrentHashBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+
+    private static ChainedOptionsBuilder options(CommandLineOptions commandLine, Path result) {
+        return new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString());
+    }
+
+    static List<Integer> threadCounts(int maxThreads) {
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            counts.add(threads);
+        }
+        counts.add(Math.max(1, maxThreads));
+        return counts;
+    }
+}
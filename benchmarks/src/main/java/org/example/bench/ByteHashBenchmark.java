@@ -0,0 +1,55 @@
+package org.example.bench;
+
+import org.example.DavoHash512;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/** Byte-Einstiegspunkte: hash(byte[]), hashInto, direkter ByteBuffer und der inkrementelle Digest. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class ByteHashBenchmark {
+
+    @Param({"0", "64", "1024", "65536", "1048576", "67108864"})
+    int size;
+
+    byte[] input;
+    ByteBuffer direct;
+    byte[] out;
+    DavoHash512.Digest digest;
+
+    @Setup
+    public void setup() {
+        input = BenchmarkData.bytes(size);
+        direct = ByteBuffer.allocateDirect(size).put(input).flip();
+        out = new byte[DavoHash512.DIGEST_LENGTH];
+        digest = new DavoHash512.Digest();
+    }
+
+    @Benchmark
+    public byte[] hashBytes() {
+        return DavoHash512.hash(input);
+    }
+
+    @Benchmark
+    public byte[] hashInto() {
+        DavoHash512.hashInto(input, 0, input.length, out, 0);
+        return out;
+    }
+
+    @Benchmark
+    public byte[] hashDirectBuffer() {
+        return DavoHash512.hash(direct);
+    }
+
+    @Benchmark
+    public byte[] digest() {
+        digest.update(input, 0, input.length).digest(out, 0);
+        return out;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.bench;
+
+import org.example.DavoHash512;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Durchsatz von hash(String) bei mehreren Threads; die Thread-Anzahl setzt {@link BenchmarkRunner}. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class ConcurrentHashBenchmark {
+
+    @Param({"64", "1024"})
+    int size;
+
+    String input;
+
+    @Setup
+    public void setup() {
+        input = BenchmarkData.text(size, true);
+    }
+
+    @Benchmark
+    public byte[] hash() {
+        return DavoHash512.hash(input);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.bench;
+
+import org.example.DavoHash512;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kopieren mit Hash: reine Kopie ({@link Files#copy}), Kopie mit anschließendem {@code hashFile} (zweiter
+ * Lesedurchgang) und {@code copyAndHash}. Die Quelle liegt nach dem Setup im Seitencache.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class CopyHashBenchmark {
+
+    @Param({"67108864"})
+    int size;
+
+    Path source;
+    Path target;
+
+    @Setup
+    public void setup() throws IOException {
+        source = Files.createTempFile("davohash-copy", ".bin");
+        target = Files.createTempFile("davohash-copy", ".kopie");
+        Files.write(source, BenchmarkData.bytes(size));
+        DavoHash512.hashFile(source);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(source);
+        Files.deleteIfExists(target);
+    }
+
+    @Benchmark
+    public Path copy() throws IOException {
+        return Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Benchmark
+    public byte[] copyThenHashFile() throws IOException {
+        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        return DavoHash512.hashFile(source);
+    }
+
+    @Benchmark
+    public byte[] copyAndHash() {
+        return DavoHash512.copyAndHash(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
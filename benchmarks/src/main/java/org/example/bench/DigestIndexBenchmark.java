@@ -0,0 +1,98 @@
+package org.example.bench;
+
+import org.example.DavoHash512;
+import org.example.DigestIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Abfragen gegen einen eingeblendeten {@link DigestIndex}: Treffer, Fehlschläge und Stapel zu 1024 Hashes
+ * (je zur Hälfte Treffer).
+ * Der Index wird einmal je Fork in einer temporären Datei gebaut; mit {@code -p count=10000000} entsteht eine
+ * Liste in realistischer Größe (640 MB).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class DigestIndexBenchmark {
+    private static final int QUERIES = 1 << 16;
+
+    @Param({"1000000"})
+    int count;
+
+    Path file;
+    DigestIndex index;
+    byte[][] hits;
+    byte[][] misses;
+    byte[][] mixed;
+    byte[][] batch;
+    boolean[] results;
+    int next;
+
+    @Setup
+    public void setup() throws IOException {
+        file = Files.createTempFile("digestindex", ".idx");
+        byte[] digest = new byte[DavoHash512.DIGEST_LENGTH];
+        byte[] counter = new byte[Long.BYTES];
+        try (DigestIndex.Builder builder = DigestIndex.builder(file)) {
+            for (long i = 0; i < count; i++) {
+                DavoHash512.hashInto(longBytes(counter, i), 0, counter.length, digest, 0);
+                builder.add(digest);
+            }
+            builder.build();
+        }
+        index = DigestIndex.open(file);
+
+        hits = new byte[QUERIES][];
+        misses = new byte[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            hits[i] = DavoHash512.hash(longBytes(counter, (long) i * 7919 % count));
+            misses[i] = DavoHash512.hash(longBytes(counter, count + (long) i));
+        }
+        mixed = new byte[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            mixed[i] = (i & 1) == 0 ? hits[i] : misses[i];
+        }
+        batch = new byte[1024][];
+        results = new boolean[batch.length];
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        index.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public boolean containsHit() {
+        return index.contains(hits[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public boolean containsMiss() {
+        return index.contains(misses[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public int containsBatch() {
+        // Jeder Stapel nimmt die nächsten 1024 Anfragen, damit nicht immer dieselben Seiten im Cache liegen
+        System.arraycopy(mixed, next & (QUERIES - 1), batch, 0, batch.length);
+        next += batch.length;
+        return index.contains(batch, results);
+    }
+
+    private static byte[] longBytes(byte[] buffer, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            buffer[i] = (byte) (value >>> (56 - 8 * i));
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.bench;
+
+import org.example.DavoHash512;
+import org.example.DavoTreeHash;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/** hashFile und Baum-Modus auf Dateien, die nach dem Setup im Seitencache liegen. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class FileHashBenchmark {
+
+    @Param({"4096", "1048576", "67108864"})
+    int size;
+
+    Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        file = Files.createTempFile("davohash-bench", ".bin");
+        Files.write(file, BenchmarkData.bytes(size));
+        DavoHash512.hashFile(file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public byte[] hashFile() {
+        return DavoHash512.hashFile(file);
+    }
+
+    @Benchmark
+    public byte[] hashFileLegacy() {
+        return DavoHash512.hashFile(file.toFile());
+    }
+
+    @Benchmark
+    public byte[] treeHash() {
+        return DavoTreeHash.hash(file);
+    }
+}
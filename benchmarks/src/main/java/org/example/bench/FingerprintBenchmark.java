@@ -0,0 +1,52 @@
+package org.example.bench;
+
+import org.example.DavoFingerprint;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Nicht-kryptographische Fingerabdrücke: 64/128 Bit über Bytes und Text sowie long-Schlüssel. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class FingerprintBenchmark {
+
+    @Param({"8", "64", "1024", "65536", "1048576"})
+    int size;
+
+    byte[] input;
+    String text;
+    long[] out;
+    long key;
+
+    @Setup
+    public void setup() {
+        input = BenchmarkData.bytes(size);
+        text = BenchmarkData.text(size, true);
+        out = new long[2];
+    }
+
+    @Benchmark
+    public long hash64() {
+        return DavoFingerprint.hash64(input);
+    }
+
+    @Benchmark
+    public long[] hash128() {
+        DavoFingerprint.hash128(input, out);
+        return out;
+    }
+
+    @Benchmark
+    public long hash64Text() {
+        return DavoFingerprint.hash64(text);
+    }
+
+    @Benchmark
+    public long hash64Long() {
+        return DavoFingerprint.hash64(key++);
+    }
+}
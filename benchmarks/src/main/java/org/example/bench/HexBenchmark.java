@@ -0,0 +1,49 @@
+package org.example.bench;
+
+import org.example.DavoHash512;
+import org.example.DavoHashCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Umwandlung eines 64-Byte-Hashes in Hex bzw. Base64 und zurück. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class HexBenchmark {
+
+    byte[] digest;
+    String hex;
+    char[] chars;
+
+    @Setup
+    public void setup() {
+        digest = DavoHash512.hash("HexBenchmark");
+        hex = DavoHash512.bytesToHex(digest);
+        chars = new char[DavoHashCodec.HEX_DIGEST_LENGTH];
+    }
+
+    @Benchmark
+    public String bytesToHex() {
+        return DavoHash512.bytesToHex(digest);
+    }
+
+    @Benchmark
+    public byte[] hexToBytes() {
+        return DavoHash512.hexToBytes(hex);
+    }
+
+    @Benchmark
+    public char[] encodeHexInto() {
+        DavoHashCodec.encodeHex(digest, 0, digest.length, chars, 0);
+        return chars;
+    }
+
+    @Benchmark
+    public String toBase64Url() {
+        return DavoHashCodec.toBase64(digest, DavoHashCodec.Base64Alphabet.URL);
+    }
+}
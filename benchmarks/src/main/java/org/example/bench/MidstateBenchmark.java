@@ -0,0 +1,46 @@
+package org.example.bench;
+
+import org.example.DavoHash512;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Kurze Suffixe hinter einem gemeinsamen Präfix: vollständiger Stream-Hash gegenüber dem Midstate. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class MidstateBenchmark {
+
+    @Param({"64", "1024", "65536"})
+    int prefixSize;
+
+    byte[] prefix;
+    byte[] suffix;
+    byte[] out;
+    DavoHash512.Digest digest;
+    DavoHash512.Midstate midstate;
+
+    @Setup
+    public void setup() {
+        prefix = BenchmarkData.bytes(prefixSize);
+        suffix = BenchmarkData.bytes(16);
+        out = new byte[DavoHash512.DIGEST_LENGTH];
+        digest = new DavoHash512.Digest();
+        midstate = DavoHash512.prefix(prefix);
+    }
+
+    @Benchmark
+    public byte[] fullDigest() {
+        digest.update(prefix).update(suffix).digest(out, 0);
+        return out;
+    }
+
+    @Benchmark
+    public byte[] midstate() {
+        midstate.hashInto(suffix, 0, suffix.length, out, 0);
+        return out;
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.bench;
+
+import org.example.DavoHashClient;
+import org.example.DavoHashServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Lastgenerator für {@link DavoHashServer}: mehrere Verbindungen halten je bis zu depth Anfragen gleichzeitig
+ * offen und messen Anfragen/s sowie die Latenz vom Senden bis zur Antwort (p50, p99, p99.9).
+ * <p>
+ * {@code java -cp target/benchmarks.jar org.example.bench.ServerLoadGenerator [--unix PFAD | --port N]
+ * [--connections 8] [--depth 32] [--size 64] [--seconds 10]}. Ohne Adresse startet er einen Server im selben
+ * Prozess auf einem temporären Unix-Domain-Socket.
+ */
+public final class ServerLoadGenerator {
+    // Latenz-Histogramm in Mikrosekunden, darüber ein Überlauf-Bucket
+    private static final int MAX_MICROS = 100_000;
+    private static final int ID_MASK = (1 << 20) - 1;
+
+    private ServerLoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        SocketAddress address = null;
+        int connections = 8;
+        int depth = 32;
+        int size = 64;
+        int seconds = 10;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--unix" -> address = UnixDomainSocketAddress.of(Path.of(value));
+                case "--port" -> address = new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(value));
+                case "--connections" -> connections = Integer.parseInt(value);
+                case "--depth" -> depth = Integer.parseInt(value);
+                case "--size" -> size = Integer.parseInt(value);
+                case "--seconds" -> seconds = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Unbekannte Option: " + args[i]);
+            }
+        }
+
+        DavoHashServer embedded = null;
+        Path socketDirectory = null;
+        if (address == null) {
+            socketDirectory = Files.createTempDirectory("davohash");
+            embedded = DavoHashServer.start(UnixDomainSocketAddress.of(socketDirectory.resolve("server.sock")),
+                    DavoHashServer.Limits.defaults());
+            address = embedded.localAddress();
+        }
+
+        try {
+            run(address, connections, depth, BenchmarkData.bytes(size), seconds);
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+                Files.deleteIfExists(socketDirectory);
+            }
+        }
+    }
+
+    private static void run(SocketAddress address, int connections, int depth, byte[] message, int seconds) throws Exception {
+        long warmupEnd = System.nanoTime() + 2_000_000_000L;
+        long end = warmupEnd + seconds * 1_000_000_000L;
+        List<Future<long[]>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(connections)) {
+            for (int c = 0; c < connections; c++) {
+                results.add(executor.submit(() -> drive(address, depth, message, warmupEnd, end)));
+            }
+            long[] histogram = new long[MAX_MICROS + 1];
+            for (Future<long[]> result : results) {
+                long[] part = result.get();
+                for (int i = 0; i < histogram.length; i++) histogram[i] += part[i];
+            }
+            report(address, connections, depth, message.length, seconds, histogram);
+        }
+    }
+
+    // Eine Verbindung: hält depth Anfragen offen, misst nach der Aufwärmphase
+    private static long[] drive(SocketAddress address, int depth, byte[] message, long warmupEnd, long end) throws IOException {
+        long[] histogram = new long[MAX_MICROS + 1];
+        long[] sentAt = new long[ID_MASK + 1];
+        try (DavoHashClient client = DavoHashClient.connect(address)) {
+            int outstanding = 0;
+            while (true) {
+                long now = System.nanoTime();
+                boolean sending = now < end;
+                while (sending && outstanding < depth) {
+                    sentAt[client.sendHash(message) & ID_MASK] = now;
+                    outstanding++;
+                }
+                if (outstanding == 0) break;
+
+                DavoHashClient.Response response = client.receive();
+                outstanding--;
+                if (!response.ok()) throw new IOException("Server meldet: " + response.error());
+                long received = System.nanoTime();
+                long sent = sentAt[response.id() & ID_MASK];
+                if (sent >= warmupEnd && sent < end) {
+                    histogram[(int) Math.min((received - sent) / 1000, MAX_MICROS)]++;
+                }
+            }
+        }
+        return histogram;
+    }
+
+    private static void report(SocketAddress address, int connections, int depth, int size, int seconds, long[] histogram) {
+        long total = 0;
+        for (long count : histogram) total += count;
+        System.out.printf("%s, %d Verbindungen, Tiefe %d, %d Bytes je Anfrage%n", address, connections, depth, size);
+        System.out.printf("%d Anfragen in %d s: %.0f Anfragen/s, %.1f MB/s%n",
+                total, seconds, total / (double) seconds, total * (double) size / seconds / 1e6);
+        System.out.printf("Latenz p50 %s, p99 %s, p99.9 %s%n",
+                percentile(histogram, total, 0.50), percentile(histogram, total, 0.99), percentile(histogram, total, 0.999));
+    }
+
+    private static String percentile(long[] histogram, long total, double quantile) {
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int micros = 0; micros < histogram.length; micros++) {
+            seen += histogram[micros];
+            if (seen >= rank && seen > 0) {
+                return micros == MAX_MICROS ? "> " + MAX_MICROS / 1000 + " ms" : micros + " us";
+            }
+        }
+        return "-";
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.bench;
+
+import org.example.DavoHash512;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** hash(String) über Eingabegrößen von 0 B bis 64 MiB (in Zeichen), reine ASCII- und gemischte Eingaben. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class StringHashBenchmark {
+
+    @Param({"0", "64", "1024", "65536", "1048576", "67108864"})
+    int size;
+
+    @Param({"ASCII", "NON_ASCII"})
+    String charset;
+
+    String input;
+
+    @Setup
+    public void setup() {
+        input = BenchmarkData.text(size, charset.equals("ASCII"));
+    }
+
+    @Benchmark
+    public byte[] hash() {
+        return DavoHash512.hash(input);
+    }
+}
@@ -0,0 +1,288 @@
+package org.example;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.example.DavoHash512.*;
+
+/**
+ * Implementierung von {@link DavoHash512#hashAsync(Path)}: liest die Datei über einen
+ * {@link AsynchronousFileChannel} mit zwei Puffern (während einer gehasht wird, füllt sich der andere) und
+ * hasht im Datei-Modus, das Ergebnis entspricht also {@link DavoHash512#hashFile(Path)}.
+ * <p>
+ * Lesen und Hashen laufen auf einem kleinen gemeinsamen Thread-Pool, sodass auch tausende gleichzeitige
+ * Dateien keine eigenen Threads belegen. Höchstens {@value #MAX_ACTIVE} Dateien werden gleichzeitig gelesen,
+ * weitere warten in einer Warteschlange und öffnen ihre Datei erst, wenn sie an der Reihe sind. Damit sind
+ * Direktpuffer (je Datei zwei, aus einem Pool wiederverwendet) und offene Dateien begrenzt, egal wie viele
+ * Aufrufe gleichzeitig anstehen.
+ */
+final class DavoAsyncFileHash implements CompletionHandler<Integer, ByteBuffer> {
+    static final int CHUNK_SIZE = 128 * 1024;
+    private static final int BUFFERS_PER_FILE = 2;
+    private static final int MAX_POOLED_BUFFERS = 64;
+    static final int MAX_ACTIVE = MAX_POOLED_BUFFERS / BUFFERS_PER_FILE;
+
+    private static final ConcurrentLinkedQueue<ByteBuffer> BUFFER_POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED = new AtomicInteger();
+    private static final ExecutorService IO_POOL = Executors.newFixedThreadPool(
+            Math.max(4, Runtime.getRuntime().availableProcessors()), daemonThreads());
+
+    // Geschützt durch WAITING
+    private static final ArrayDeque<DavoAsyncFileHash> WAITING = new ArrayDeque<>();
+    private static int active;
+
+    private final Path path;
+    private final ExecutorService executor;
+    private final DavoHashMetrics.Timing start;
+    private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+    private final long[] state = new long[STATE_SIZE];
+    private final long[] workspace = new long[WORKSPACE_SIZE];
+
+    // Erst in begin() gesetzt, danach nur gelesen
+    private AsynchronousFileChannel channel;
+    private long length;
+
+    // Geschützt durch this
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>(BUFFERS_PER_FILE);
+    private final ArrayDeque<ByteBuffer> filled = new ArrayDeque<>(BUFFERS_PER_FILE);
+    private long readPosition;
+    private long hashed;
+    private boolean reading;
+    private boolean hashing;
+    private boolean done;
+
+    private DavoAsyncFileHash(Path path, ExecutorService executor, DavoHashMetrics.Timing start) {
+        this.path = path;
+        this.executor = executor;
+        this.start = start;
+    }
+
+    static CompletableFuture<byte[]> hash(Path path, ExecutorService executor) {
+        DavoAsyncFileHash operation = new DavoAsyncFileHash(path, executor, DavoHashMetrics.start());
+        boolean run;
+        synchronized (WAITING) {
+            run = active < MAX_ACTIVE;
+            if (run) {
+                active++;
+            } else {
+                WAITING.add(operation);
+            }
+        }
+        if (run) operation.begin();
+        return operation.result;
+    }
+
+    static CompletableFuture<byte[]> hash(Path path) {
+        return hash(path, IO_POOL);
+    }
+
+    // Öffnet die Datei erst, wenn die Operation einen Platz hat
+    private void begin() {
+        try {
+            channel = AsynchronousFileChannel.open(path, Set.of(StandardOpenOption.READ), executor);
+            length = channel.size();
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+            return;
+        }
+        initializeState(state, length);
+        if (length == 0) {
+            finish();
+            return;
+        }
+        synchronized (this) {
+            for (int i = 0; i < BUFFERS_PER_FILE; i++) {
+                free.add(acquireBuffer());
+            }
+        }
+        readNext();
+    }
+
+    // Gibt den Platz einer abgeschlossenen Operation an die nächste wartende weiter, auf deren Executor
+    private static void release() {
+        while (true) {
+            DavoAsyncFileHash next;
+            synchronized (WAITING) {
+                next = WAITING.poll();
+                if (next == null) {
+                    active--;
+                    return;
+                }
+            }
+            try {
+                next.executor.execute(next::begin);
+                return;
+            } catch (RejectedExecutionException e) {
+                // Nie begonnen, also nichts zu schließen; der Platz geht an die übernächste
+                next.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    // Startet den nächsten Lesevorgang, falls ein Puffer frei ist und noch Daten ausstehen
+    private void readNext() {
+        ByteBuffer buffer;
+        long position;
+        synchronized (this) {
+            if (done || reading || readPosition >= length || free.isEmpty()) return;
+            reading = true;
+            buffer = free.poll();
+            position = readPosition;
+        }
+        buffer.clear().limit((int) Math.min(CHUNK_SIZE, length - position));
+        read(buffer, position);
+    }
+
+    private void read(ByteBuffer buffer, long position) {
+        try {
+            channel.read(buffer, position, buffer, this);
+        } catch (RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public void completed(Integer count, ByteBuffer buffer) {
+        long chunkStart;
+        synchronized (this) {
+            chunkStart = readPosition;
+        }
+        if (count < 0) {
+            fail(new EOFException("Datei wurde während des Hashens verkürzt"));
+            return;
+        }
+        if (buffer.hasRemaining()) {
+            // Kurzer Lesevorgang: den Rest desselben Abschnitts nachlesen
+            read(buffer, chunkStart + buffer.position());
+            return;
+        }
+
+        synchronized (this) {
+            readPosition += buffer.limit();
+            reading = false;
+            filled.add(buffer.flip());
+        }
+        readNext();
+        drain();
+    }
+
+    @Override
+    public void failed(Throwable exc, ByteBuffer buffer) {
+        fail(exc);
+    }
+
+    // Hasht gefüllte Puffer in Reihenfolge; immer nur ein Thread gleichzeitig
+    private void drain() {
+        while (true) {
+            ByteBuffer buffer;
+            synchronized (this) {
+                if (hashing || done) return;
+                buffer = filled.poll();
+                if (buffer == null) return;
+                hashing = true;
+            }
+
+            int limit = buffer.limit();
+            int index = 0;
+            for (; limit - index >= BLOCK_SIZE; index += BLOCK_SIZE) {
+                loadBytes(buffer, index, BLOCK_SIZE, workspace);
+                processBlock(state, workspace, BLOCK_WORDS);
+            }
+            // Nur der letzte Abschnitt kann einen Teilblock enthalten (CHUNK_SIZE ist ein Vielfaches der Blockgröße)
+            if (index < limit) {
+                int remaining = limit - index;
+                loadBytes(buffer, index, remaining, workspace);
+                processBlock(state, workspace, padBlock(workspace, remaining, remaining * 8L));
+            }
+
+            boolean last;
+            synchronized (this) {
+                hashed += limit;
+                // Nach dem letzten Puffer bleibt der Platz belegt, sodass nur dieser Thread finish() aufruft
+                last = hashed == length;
+                hashing = last;
+                free.add(buffer);
+            }
+            if (last) {
+                finish();
+                return;
+            }
+            readNext();
+        }
+    }
+
+    private void finish() {
+        doubleFinalization(state);
+        byte[] hashBytes = new byte[DIGEST_LENGTH];
+        writeHashBytes(state, hashBytes, 0);
+        DavoHashMetrics.record(DavoHashMetrics.Source.FILE, length, (length + BLOCK_SIZE - 1) / BLOCK_SIZE, start);
+        if (close(null)) result.complete(hashBytes);
+    }
+
+    private void fail(Throwable failure) {
+        if (close(failure)) result.completeExceptionally(failure);
+    }
+
+    // Schließt Kanal und gibt Puffer zurück, genau einmal; liefert false, wenn bereits abgeschlossen
+    private boolean close(Throwable failure) {
+        synchronized (this) {
+            if (done) return false;
+            done = true;
+            // Ein laufender Lese- oder Hash-Vorgang gibt seinen Puffer nicht mehr zurück, er wird verworfen
+            free.forEach(DavoAsyncFileHash::releaseBuffer);
+            free.clear();
+            filled.clear();
+        }
+        try {
+            if (channel != null) channel.close();
+        } catch (IOException e) {
+            if (failure != null) {
+                failure.addSuppressed(e);
+            } else {
+                result.completeExceptionally(e);
+                return false;
+            }
+        } finally {
+            release();
+        }
+        return true;
+    }
+
+    private static ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = BUFFER_POOL.poll();
+        if (buffer == null) return ByteBuffer.allocateDirect(CHUNK_SIZE);
+        POOLED.decrementAndGet();
+        return buffer;
+    }
+
+    private static void releaseBuffer(ByteBuffer buffer) {
+        if (POOLED.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+            BUFFER_POOL.add(buffer.clear());
+        } else {
+            POOLED.decrementAndGet();
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "davohash-async-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
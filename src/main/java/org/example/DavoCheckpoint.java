@@ -0,0 +1,169 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Fortsetzbares Hashen wachsender Dateien (Append-only-Logs, laufende Uploads) über eine Checkpoint-Datei
+ * neben der Datei ({@code name.davock}). Sie enthält den mit {@link DavoHash512.Digest#exportState()}
+ * exportierten Zwischenstand bis zu einer Position; ist die Datei seitdem nur gewachsen, werden ab dort nur die
+ * neuen Bytes gelesen, die Prüfung kostet also O(angehängte Bytes) statt O(Dateigröße).
+ * <p>
+ * Ob die Datei wirklich nur gewachsen ist, wird günstig an zwei Stichproben geprüft: den ersten und den letzten
+ * {@link #SAMPLE_SIZE} Bytes vor der Checkpoint-Position, deren {@link DavoFingerprint#hash128} im Checkpoint
+ * steht. Passen sie nicht, ist die Datei kürzer als der Checkpoint oder ist der Checkpoint beschädigt, wird von
+ * vorn gehasht. Änderungen mitten im bereits gehashten Teil erkennt das nicht; dafür bleibt
+ * {@link DavoHash512#hashFile(Path)} zuständig.
+ * <p>
+ * Das Ergebnis ist der Stream-Modus ({@code new Digest().update(inhalt).digest()}), da nur dessen Zustand
+ * unabhängig von der Gesamtlänge ist. Bei langen Läufen wird alle {@link #CHECKPOINT_INTERVAL} Bytes ein
+ * Zwischenstand geschrieben, die Checkpoint-Datei wird jeweils atomar ersetzt.
+ */
+public final class DavoCheckpoint {
+    public static final String SIDECAR_SUFFIX = ".davock";
+    public static final int SAMPLE_SIZE = 4096;
+    public static final long CHECKPOINT_INTERVAL = 256L * 1024 * 1024;
+
+    private static final byte[] MAGIC = "DAVOCK01".getBytes(StandardCharsets.US_ASCII);
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    /** Hash der Datei bis length; resumedFrom ist die Position, ab der tatsächlich gelesen wurde. */
+    public record Result(byte[] digest, long length, long resumedFrom) {
+        public long bytesRead() {
+            return length - resumedFrom;
+        }
+
+        public boolean resumed() {
+            return resumedFrom > 0;
+        }
+    }
+
+    private DavoCheckpoint() {
+    }
+
+    public static Path sidecar(Path file) {
+        return file.resolveSibling(file.getFileName() + SIDECAR_SUFFIX);
+    }
+
+    public static Result hash(Path file) {
+        return hash(file, sidecar(file));
+    }
+
+    /** Hasht die Datei ab dem Checkpoint in sidecar, falls er noch passt, und schreibt den neuen Stand dorthin. */
+    public static Result hash(Path file, Path sidecar) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            DavoHash512.Digest digest = load(sidecar, channel, length);
+            if (digest == null) {
+                digest = new DavoHash512.Digest();
+            }
+            long resumedFrom = digest.length();
+
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long position = resumedFrom;
+            long nextCheckpoint = position + CHECKPOINT_INTERVAL;
+            while (position < length) {
+                buffer.clear().limit((int) Math.min(BUFFER_SIZE, length - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("Datei wurde während des Hashens gekürzt: " + file);
+                }
+                position += read;
+                digest.update(buffer.flip());
+                if (position >= nextCheckpoint) {
+                    save(sidecar, channel, digest);
+                    nextCheckpoint = position + CHECKPOINT_INTERVAL;
+                }
+            }
+            if (resumedFrom < length || resumedFrom == 0) {
+                save(sidecar, channel, digest);
+            }
+            return new Result(digest.copy().digest(), length, resumedFrom);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Liefert den Digest aus dem Checkpoint oder null, wenn keiner existiert oder er nicht mehr zur Datei passt
+    private static DavoHash512.Digest load(Path sidecar, FileChannel channel, long length) throws IOException {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(sidecar);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        int fixed = MAGIC.length + 4 * Long.BYTES + Integer.BYTES;
+        if (content.length < fixed + Integer.BYTES || content.length > fixed + DavoHash512.Digest.MAX_STATE_LENGTH + Integer.BYTES
+                || !Arrays.equals(content, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(content, 0, content.length - Integer.BYTES);
+        ByteBuffer in = ByteBuffer.wrap(content);
+        if ((int) crc.getValue() != in.getInt(content.length - Integer.BYTES)) {
+            return null;
+        }
+
+        in.position(MAGIC.length);
+        long[] samples = {in.getLong(), in.getLong(), in.getLong(), in.getLong()};
+        byte[] state = new byte[in.getInt()];
+        if (state.length != in.remaining() - Integer.BYTES) {
+            return null;
+        }
+        in.get(state);
+        DavoHash512.Digest digest;
+        try {
+            digest = DavoHash512.Digest.restoreState(state);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (digest.length() > length || !Arrays.equals(samples, samples(channel, digest.length()))) {
+            return null;
+        }
+        return digest;
+    }
+
+    private static void save(Path sidecar, FileChannel channel, DavoHash512.Digest digest) throws IOException {
+        byte[] state = digest.exportState();
+        ByteBuffer out = ByteBuffer.allocate(MAGIC.length + 4 * Long.BYTES + Integer.BYTES + state.length + Integer.BYTES);
+        out.put(MAGIC);
+        for (long sample : samples(channel, digest.length())) {
+            out.putLong(sample);
+        }
+        out.putInt(state.length).put(state);
+        CRC32C crc = new CRC32C();
+        crc.update(out.array(), 0, out.position());
+        out.putInt((int) crc.getValue());
+
+        DavoFiles.replaceAtomically(sidecar, temp -> Files.write(temp, out.array()));
+    }
+
+    // Fingerabdrücke der ersten und der letzten SAMPLE_SIZE Bytes vor end
+    private static long[] samples(FileChannel channel, long end) throws IOException {
+        long[] samples = new long[4];
+        int headLength = (int) Math.min(SAMPLE_SIZE, end);
+        DavoFingerprint.hash128(read(channel, 0, headLength), samples);
+        byte[] tail = read(channel, end - headLength, headLength);
+        DavoFingerprint.hash128(tail, 0, tail.length, DavoFingerprint.DEFAULT_SEED, samples, 2);
+        return samples;
+    }
+
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Datei endet vor Position " + (position + length));
+            }
+        }
+        return buffer.array();
+    }
+}
@@ -0,0 +1,378 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lokaler Chunk-Speicher zur Deduplizierung: Chunks aus {@link DavoChunker} werden unter ihrem
+ * {@link DavoHash512}-Hash abgelegt, und nur bisher unbekannte Chunks landen auf der Platte.
+ * <p>
+ * Ein Verzeichnis enthält zwei Dateien: {@code chunks.pack}, an das die Chunkdaten nur angehängt werden, und
+ * {@code chunks.idx}, eine eingeblendete Open-Addressing-Tabelle (Hash, Position und Länge je Platz, lineares
+ * Sondieren, Füllgrad höchstens 1/2). Wird die Tabelle zu voll, wird sie in doppelter Größe neu aufgebaut und
+ * atomar ersetzt. Der Kopf der Tabelle hält die bestätigte Länge des Packs; beim Öffnen werden danach
+ * angehängte Daten abgeschnitten und Plätze, die darüber hinaus zeigen, verworfen, sodass ein Absturz des
+ * Prozesses höchstens die letzten Chunks kostet. Gegen Stromausfall schützt erst {@link #flush()}.
+ * <p>
+ * Alle Methoden sind threadsicher; Schreiben und Lesen sind über den Speicher serialisiert, das Zerlegen und
+ * Hashen in {@link #add(Path, DavoChunker, int)} läuft parallel davor.
+ */
+public final class DavoChunkStore implements Closeable {
+    private static final byte[] PACK_MAGIC = "DAVOCP01".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INDEX_MAGIC = "DAVOCI01".getBytes(StandardCharsets.US_ASCII);
+
+    // Kopf: Magic, Plätze, Einträge, bestätigte Pack-Länge, logische Bytes aller add-Aufrufe
+    private static final long SLOTS_FIELD = 8;
+    private static final long ENTRIES_FIELD = 16;
+    private static final long PACK_LENGTH_FIELD = 24;
+    private static final long LOGICAL_FIELD = 32;
+    private static final long HEADER_SIZE = 64;
+
+    // Platz: Hash, Position im Pack plus 1 (0 = frei), Länge
+    private static final long SLOT_SIZE = DavoHash512.DIGEST_LENGTH + 16;
+    private static final long OFFSET_FIELD = DavoHash512.DIGEST_LENGTH;
+    private static final long LENGTH_FIELD = DavoHash512.DIGEST_LENGTH + 8;
+    private static final long INITIAL_SLOTS = 4096;
+
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    /** Ergebnis von {@link #add}: die Chunks der Datei (zum Wiederherstellen) und was davon neu war. */
+    public record Backup(List<DavoChunker.Chunk> chunks, long bytes, long newChunks, long newBytes, Duration elapsed) {
+        /** Logische Bytes je neu geschriebenem Byte; unendlich, wenn nichts Neues geschrieben wurde. */
+        public double dedupRatio() {
+            return ratio(bytes, newBytes);
+        }
+
+        public double bytesPerSecond() {
+            return bytes / (Math.max(elapsed.toNanos(), 1) / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d Chunks (%d neu), %d Bytes (%d neu geschrieben) in %.3f s (%.1f MB/s), Dedup-Faktor %.2f",
+                    chunks.size(), newChunks, bytes, newBytes, elapsed.toNanos() / 1e9, bytesPerSecond() / 1e6, dedupRatio());
+        }
+    }
+
+    /** Zustand des ganzen Speichers über alle bisherigen {@link #add}-Aufrufe. */
+    public record Stats(long chunks, long storedBytes, long logicalBytes) {
+        public double dedupRatio() {
+            return ratio(logicalBytes, storedBytes);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d Chunks, %d Bytes gespeichert für %d logische Bytes, Dedup-Faktor %.2f",
+                    chunks, storedBytes, logicalBytes, dedupRatio());
+        }
+    }
+
+    private final Path indexFile;
+    private final FileChannel pack;
+    private FileChannel indexChannel;
+    private Arena arena;
+    private MemorySegment index;
+    private long slots;
+
+    private DavoChunkStore(Path indexFile, FileChannel pack) {
+        this.indexFile = indexFile;
+        this.pack = pack;
+    }
+
+    /** Öffnet den Speicher im Verzeichnis und legt ihn bei Bedarf an. */
+    public static DavoChunkStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path packFile = directory.resolve("chunks.pack");
+        Path indexFile = directory.resolve("chunks.idx");
+        if (!Files.exists(indexFile)) {
+            if (Files.exists(packFile) && Files.size(packFile) > PACK_MAGIC.length) {
+                throw new IOException("Chunk-Index fehlt zum vorhandenen Pack: " + indexFile);
+            }
+            createIndex(indexFile, INITIAL_SLOTS);
+        }
+        FileChannel pack = FileChannel.open(packFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (pack.size() == 0) {
+                writeFully(pack, ByteBuffer.wrap(PACK_MAGIC), 0);
+            }
+            checkMagic(pack, PACK_MAGIC, packFile);
+            DavoChunkStore store = new DavoChunkStore(indexFile, pack);
+            store.map();
+            store.recover();
+            return store;
+        } catch (IOException | RuntimeException e) {
+            pack.close();
+            throw e;
+        }
+    }
+
+    public synchronized boolean contains(byte[] digest) {
+        checkDigest(digest);
+        return slotOffset(find(digest)) != 0;
+    }
+
+    /** Liefert den Inhalt des Chunks oder null, wenn der Hash unbekannt ist. */
+    public synchronized byte[] get(byte[] digest) throws IOException {
+        checkDigest(digest);
+        long slot = find(digest);
+        long offset = slotOffset(slot);
+        if (offset == 0) return null;
+        ByteBuffer data = ByteBuffer.allocate(index.get(INT, slot + LENGTH_FIELD));
+        readFully(offset - 1, data);
+        return data.array();
+    }
+
+    /**
+     * Legt den Chunk ab, falls sein Hash noch unbekannt ist, und liefert true, wenn er neu geschrieben wurde.
+     * Der Hash muss {@link DavoHash512#hash(byte[], int, int)} der Daten sein; das wird nicht nachgerechnet.
+     */
+    public synchronized boolean put(byte[] digest, ByteBuffer data) throws IOException {
+        checkDigest(digest);
+        long slot = find(digest);
+        if (slotOffset(slot) != 0) return false;
+
+        long offset = index.get(LONG, PACK_LENGTH_FIELD);
+        int length = data.remaining();
+        writeFully(pack, data.duplicate(), offset);
+        MemorySegment.copy(digest, 0, index, ValueLayout.JAVA_BYTE, slot, digest.length);
+        index.set(INT, slot + LENGTH_FIELD, length);
+        index.set(LONG, slot + OFFSET_FIELD, offset + 1);
+        index.set(LONG, ENTRIES_FIELD, index.get(LONG, ENTRIES_FIELD) + 1);
+        // Die Pack-Länge zuletzt: erst damit gilt der Chunk als bestätigt
+        index.set(LONG, PACK_LENGTH_FIELD, offset + length);
+        if (2 * index.get(LONG, ENTRIES_FIELD) > slots) {
+            rebuild(2 * slots);
+        }
+        return true;
+    }
+
+    /** Zerlegt die Datei, hasht die Chunks parallel und schreibt nur die unbekannten in den Speicher. */
+    public Backup add(Path file, DavoChunker chunker, int parallelism) throws IOException {
+        long start = System.nanoTime();
+        List<DavoChunker.Chunk> chunks = new ArrayList<>();
+        long[] counters = new long[3];
+        chunker.chunk(file, parallelism, (chunk, data) -> {
+            chunks.add(chunk);
+            counters[0] += chunk.length();
+            if (put(chunk.digest(), data)) {
+                counters[1]++;
+                counters[2] += chunk.length();
+            }
+        });
+        synchronized (this) {
+            index.set(LONG, LOGICAL_FIELD, index.get(LONG, LOGICAL_FIELD) + counters[0]);
+        }
+        return new Backup(List.copyOf(chunks), counters[0], counters[1], counters[2], Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    public Backup add(Path file) throws IOException {
+        return add(file, DavoChunker.defaults(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Schreibt die Chunks in Reihenfolge nach out und prüft dabei jeden Chunk gegen seinen Hash. */
+    public void restore(List<DavoChunker.Chunk> chunks, WritableByteChannel out) throws IOException {
+        for (DavoChunker.Chunk chunk : chunks) {
+            byte[] data = get(chunk.digest());
+            if (data == null) {
+                throw new IOException("Chunk fehlt im Speicher: " + DavoHashCodec.toHex(chunk.digest()));
+            }
+            if (data.length != chunk.length() || !Arrays.equals(DavoHash512.hash(data), chunk.digest())) {
+                throw new IOException("Chunk beschädigt: " + DavoHashCodec.toHex(chunk.digest()));
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(index.get(LONG, ENTRIES_FIELD), index.get(LONG, PACK_LENGTH_FIELD) - PACK_MAGIC.length,
+                index.get(LONG, LOGICAL_FIELD));
+    }
+
+    /** Erzwingt das Schreiben von Pack und Index auf die Platte. */
+    public synchronized void flush() throws IOException {
+        pack.force(false);
+        index.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!pack.isOpen()) return;
+        try {
+            flush();
+        } finally {
+            unmap();
+            pack.close();
+        }
+    }
+
+    // --- Tabelle ---
+
+    private long find(byte[] digest) {
+        MemorySegment key = MemorySegment.ofArray(digest);
+        long mask = slots - 1;
+        long i = key.get(LONG, 0) & mask;
+        while (true) {
+            long slot = HEADER_SIZE + i * SLOT_SIZE;
+            if (slotOffset(slot) == 0
+                    || MemorySegment.mismatch(index, slot, slot + DavoHash512.DIGEST_LENGTH, key, 0, DavoHash512.DIGEST_LENGTH) < 0) {
+                return slot;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private long slotOffset(long slot) {
+        return index.get(LONG, slot + OFFSET_FIELD);
+    }
+
+    private void map() throws IOException {
+        indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        checkMagic(indexChannel, INDEX_MAGIC, indexFile);
+        arena = Arena.ofShared();
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexChannel.size(), arena);
+        slots = index.get(LONG, SLOTS_FIELD);
+        if (Long.bitCount(slots) != 1 || HEADER_SIZE + slots * SLOT_SIZE != index.byteSize()) {
+            throw new IOException("Beschädigter Chunk-Index: " + indexFile);
+        }
+    }
+
+    private void unmap() throws IOException {
+        arena.close();
+        indexChannel.close();
+    }
+
+    // Nach einem Absturz: unbestätigte Pack-Daten abschneiden, Plätze jenseits der bestätigten Länge verwerfen
+    private void recover() throws IOException {
+        long committed = index.get(LONG, PACK_LENGTH_FIELD);
+        if (pack.size() < committed) {
+            throw new IOException("Chunk-Pack kürzer als im Index vermerkt: " + pack.size() + " < " + committed);
+        }
+        if (pack.size() > committed) {
+            pack.truncate(committed);
+            pack.force(true);
+        }
+        long live = 0;
+        boolean dangling = false;
+        for (long i = 0; i < slots; i++) {
+            long slot = HEADER_SIZE + i * SLOT_SIZE;
+            long offset = slotOffset(slot);
+            if (offset == 0) continue;
+            if (offset - 1 + index.get(INT, slot + LENGTH_FIELD) > committed) dangling = true;
+            else live++;
+        }
+        if (dangling || live != index.get(LONG, ENTRIES_FIELD)) {
+            rebuild(slots);
+        }
+    }
+
+    // Baut die Tabelle mit newSlots Plätzen in einer neuen Datei auf und ersetzt die alte atomar
+    private void rebuild(long newSlots) throws IOException {
+        long committed = index.get(LONG, PACK_LENGTH_FIELD);
+        try {
+            DavoFiles.replaceAtomically(indexFile, temp -> writeIndex(temp, newSlots, committed), () -> {
+                // Pack-Daten vor dem neuen Index auf die Platte, damit dieser nie auf fehlende Daten zeigt
+                pack.force(false);
+                unmap();
+            });
+        } finally {
+            // Nach dem Verschieben der neue Index, scheitert es, wieder der alte: der Speicher bleibt benutzbar
+            if (!indexChannel.isOpen()) map();
+        }
+    }
+
+    // Überträgt die bestätigten Plätze in eine neue Tabelle in temp und liefert ihre Anzahl
+    private long writeIndex(Path temp, long newSlots, long committed) throws IOException {
+        createIndex(temp, newSlots);
+        long entries = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             Arena tempArena = Arena.ofConfined()) {
+            MemorySegment target = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size(), tempArena);
+            long mask = newSlots - 1;
+            for (long i = 0; i < slots; i++) {
+                long slot = HEADER_SIZE + i * SLOT_SIZE;
+                long offset = slotOffset(slot);
+                if (offset == 0 || offset - 1 + index.get(INT, slot + LENGTH_FIELD) > committed) continue;
+                long j = index.get(LONG, slot) & mask;
+                while (target.get(LONG, HEADER_SIZE + j * SLOT_SIZE + OFFSET_FIELD) != 0) {
+                    j = (j + 1) & mask;
+                }
+                MemorySegment.copy(index, slot, target, HEADER_SIZE + j * SLOT_SIZE, SLOT_SIZE);
+                entries++;
+            }
+            target.set(LONG, ENTRIES_FIELD, entries);
+            target.set(LONG, PACK_LENGTH_FIELD, committed);
+            target.set(LONG, LOGICAL_FIELD, index.get(LONG, LOGICAL_FIELD));
+            target.force();
+        }
+        return entries;
+    }
+
+    private static void createIndex(Path file, long slots) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate((int) HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(INDEX_MAGIC).putLong(slots).putLong(0).putLong(PACK_MAGIC.length).putLong(0);
+            writeFully(channel, header.clear(), 0);
+            // Dünn besetzte Datei: die Plätze sind Nullen, also frei
+            channel.truncate(HEADER_SIZE);
+            writeFully(channel, ByteBuffer.allocate(1), HEADER_SIZE + slots * SLOT_SIZE - 1);
+            channel.force(true);
+        }
+    }
+
+    private static void checkMagic(FileChannel channel, byte[] magic, Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(magic.length);
+        if (channel.size() >= magic.length) {
+            while (buffer.hasRemaining()) {
+                channel.read(buffer, buffer.position());
+            }
+        }
+        if (!Arrays.equals(buffer.array(), magic)) {
+            throw new IOException("Keine Datei des Chunk-Speichers: " + file);
+        }
+    }
+
+    private static void checkDigest(byte[] digest) {
+        if (digest.length != DavoHash512.DIGEST_LENGTH) {
+            throw new IllegalArgumentException("Hash muss " + DavoHash512.DIGEST_LENGTH + " Bytes lang sein: " + digest.length);
+        }
+    }
+
+    private void readFully(long position, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (pack.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Chunk-Pack endet unerwartet bei " + (position + buffer.position()));
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static double ratio(long logical, long stored) {
+        if (stored == 0) return logical == 0 ? 1 : Double.POSITIVE_INFINITY;
+        return logical / (double) stored;
+    }
+}
@@ -0,0 +1,208 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Inhaltsdefiniertes Zerlegen (Content-Defined Chunking) von Dateien. Ein Gear-Rollhash über die letzten
+ * 64 Bytes bestimmt die Schnittstellen, sodass eingefügte oder gelöschte Bytes nur die benachbarten Chunks
+ * verändern und alle übrigen Chunks (und damit ihre Hashes) gleich bleiben. Jeder Chunk wird mit
+ * {@link DavoHash512#hash(byte[], int, int)} identifiziert.
+ * <p>
+ * Die Schnitte folgen dem normalisierten Verfahren von FastCDC: die ersten min Bytes eines Chunks werden
+ * übersprungen, bis zur Durchschnittsgröße gilt eine strengere Maske, danach eine lockerere, und bei max Bytes
+ * wird hart geschnitten. Das hält die Chunkgrößen eng um den Durchschnitt.
+ * <p>
+ * Die Datei wird über einen {@link FileChannel} in großen Segmenten gelesen; die Schnittsuche läuft im
+ * aufrufenden Thread, das Hashen der Chunks parallel, und der {@link ChunkSink} bekommt die Chunks in
+ * Dateireihenfolge. Instanzen sind unveränderlich und threadsicher.
+ */
+public final class DavoChunker {
+    public static final int DEFAULT_MIN = 4 * 1024;
+    public static final int DEFAULT_AVERAGE = 16 * 1024;
+    public static final int DEFAULT_MAX = 64 * 1024;
+    public static final int MAX_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    // Zufällige, aber fest vorgegebene Gear-Tabelle: jede Änderung verschiebt alle Schnittstellen
+    private static final long[] GEAR = new long[256];
+    private static final int MIN_SEGMENT_SIZE = 4 * 1024 * 1024;
+    private static final int WINDOW_PER_THREAD = 16;
+
+    static {
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = DavoHash512.avalancheMix((i + 1) * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    /** Ein Chunk der Datei: Position, Länge und {@link DavoHash512#hash(byte[], int, int)} seines Inhalts. */
+    public record Chunk(long offset, int length, byte[] digest) {
+    }
+
+    /** Empfängt die Chunks in Dateireihenfolge; data enthält genau den Inhalt des Chunks und ist nur lesbar. */
+    @FunctionalInterface
+    public interface ChunkSink {
+        void accept(Chunk chunk, ByteBuffer data) throws IOException;
+    }
+
+    private final int min;
+    private final int average;
+    private final int max;
+    private final long strictMask;
+    private final long looseMask;
+
+    /**
+     * @param min     kleinste Chunkgröße (außer am Dateiende), mindestens 64
+     * @param average angestrebte Durchschnittsgröße, eine Zweierpotenz zwischen min und max
+     * @param max     größte Chunkgröße, höchstens {@link #MAX_CHUNK_SIZE}
+     */
+    public DavoChunker(int min, int average, int max) {
+        if (min < 64 || average <= min || max <= average || max > MAX_CHUNK_SIZE || Integer.bitCount(average) != 1) {
+            throw new IllegalArgumentException("Ungültige Chunkgrößen (min " + min + ", Durchschnitt " + average
+                    + ", max " + max + "): erwartet 64 <= min < Durchschnitt < max <= " + MAX_CHUNK_SIZE
+                    + ", Durchschnitt als Zweierpotenz");
+        }
+        this.min = min;
+        this.average = average;
+        this.max = max;
+        int bits = Integer.numberOfTrailingZeros(average);
+        // Obere Bits: in sie fließen alle 64 Bytes des Fensters ein
+        this.strictMask = -1L << (64 - Math.min(bits + 2, 63));
+        this.looseMask = -1L << (64 - Math.max(bits - 2, 1));
+    }
+
+    public static DavoChunker defaults() {
+        return new DavoChunker(DEFAULT_MIN, DEFAULT_AVERAGE, DEFAULT_MAX);
+    }
+
+    public int min() {
+        return min;
+    }
+
+    public int average() {
+        return average;
+    }
+
+    public int max() {
+        return max;
+    }
+
+    /**
+     * Länge des nächsten Chunks ab from in {@code data[from, end)}, oder -1, wenn ohne weitere Daten noch keine
+     * Schnittstelle feststeht. Am Dateiende (eof) wird der Rest als letzter Chunk geliefert.
+     */
+    int cut(byte[] data, int from, int end, boolean eof) {
+        int available = end - from;
+        if (available <= min) {
+            return eof ? available : -1;
+        }
+        int limit = Math.min(available, max);
+        int normal = Math.min(limit, average);
+        long hash = 0;
+        int i = from + min;
+        for (; i < from + normal; i++) {
+            hash = (hash << 1) + GEAR[data[i] & 0xFF];
+            if ((hash & strictMask) == 0) return i + 1 - from;
+        }
+        for (; i < from + limit; i++) {
+            hash = (hash << 1) + GEAR[data[i] & 0xFF];
+            if ((hash & looseMask) == 0) return i + 1 - from;
+        }
+        return limit == max || eof ? limit : -1;
+    }
+
+    /** Zerlegt die Datei mit einem Hash-Thread je Prozessor und liefert alle Chunks. */
+    public List<Chunk> chunks(Path file) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        chunk(file, Runtime.getRuntime().availableProcessors(), (chunk, data) -> chunks.add(chunk));
+        return chunks;
+    }
+
+    /**
+     * Zerlegt die Datei und übergibt jeden Chunk in Dateireihenfolge an sink. Bei parallelism größer 1 hashen
+     * so viele Threads die Chunks, während weitergelesen und geschnitten wird; höchstens
+     * {@code parallelism * 16} Chunks sind gleichzeitig unterwegs.
+     */
+    public void chunk(Path file, int parallelism, ChunkSink sink) throws IOException {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelität muss positiv sein: " + parallelism);
+        }
+        ExecutorService hashers = parallelism == 1 ? null : Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "davohash-chunker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Deque<Pending> window = new ArrayDeque<>();
+            int maxInFlight = parallelism * WINDOW_PER_THREAD;
+            int segmentSize = Math.max(MIN_SEGMENT_SIZE, 4 * max);
+            byte[] segment = new byte[segmentSize];
+            long segmentOffset = 0;
+            int filled = 0;
+            int position = 0;
+            boolean eof = false;
+
+            while (true) {
+                while (!eof && filled < segment.length) {
+                    int read = channel.read(ByteBuffer.wrap(segment, filled, segment.length - filled));
+                    if (read < 0) eof = true;
+                    else filled += read;
+                }
+                int length;
+                while ((length = cut(segment, position, filled, eof)) > 0) {
+                    if (window.size() >= maxInFlight) deliver(window.poll(), sink);
+                    window.add(submit(hashers, segment, segmentOffset, position, length));
+                    position += length;
+                }
+                if (eof) break;
+                // Angefangenen Chunk in ein neues Segment übernehmen; das alte gehört noch den ausstehenden Chunks
+                byte[] next = new byte[segmentSize];
+                System.arraycopy(segment, position, next, 0, filled - position);
+                segmentOffset += position;
+                filled -= position;
+                position = 0;
+                segment = next;
+            }
+            while (!window.isEmpty()) {
+                deliver(window.poll(), sink);
+            }
+        } finally {
+            if (hashers != null) hashers.shutdownNow();
+        }
+    }
+
+    private static Pending submit(ExecutorService hashers, byte[] segment, long segmentOffset, int start, int length) {
+        Future<byte[]> digest = hashers == null
+                ? CompletableFuture.completedFuture(DavoHash512.hash(segment, start, length))
+                : hashers.submit(() -> DavoHash512.hash(segment, start, length));
+        return new Pending(segment, start, segmentOffset + start, length, digest);
+    }
+
+    private static void deliver(Pending pending, ChunkSink sink) throws IOException {
+        byte[] digest;
+        try {
+            digest = pending.digest.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Unterbrochen beim Warten auf einen Chunk-Hash", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        Chunk chunk = new Chunk(pending.offset, pending.length, digest);
+        sink.accept(chunk, ByteBuffer.wrap(pending.segment, pending.start, pending.length).slice().asReadOnlyBuffer());
+    }
+
+    private record Pending(byte[] segment, int start, long offset, int length, Future<byte[]> digest) {
+    }
+}
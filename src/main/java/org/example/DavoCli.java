@@ -0,0 +1,371 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Kommandozeilenwerkzeug {@code davohash} im Stil von {@code sha512sum}: eine Zeile {@code hex  name} je Datei,
+ * {@code -} oder keine Datei steht für die Standardeingabe. Mit {@code --check} werden solche Zeilen aus
+ * Summendateien geprüft.
+ * <p>
+ * Dateien werden wie {@link DavoHash512#hashFile(Path)} gehasht, mit {@code --tree} wie
+ * {@link DavoTreeHash#hash(Path)}. Die Standardeingabe hat keine vorab bekannte Länge und wird deshalb im
+ * Stream-Modus ({@link DavoHash512.Digest}) gelesen; {@code --stream} hasht auch Dateien so, damit
+ * {@code davohash --stream datei} und {@code cat datei | davohash} übereinstimmen. Beim Prüfen müssen dieselben
+ * Modus-Optionen angegeben werden wie beim Erzeugen.
+ * <p>
+ * Mit {@code --jobs N} werden bis zu N Dateien gleichzeitig gehasht, die Ausgabe bleibt in Argumentreihenfolge.
+ * Ohne {@code --jobs} entsteht kein Thread-Pool, damit kurze Aufrufe (z. B. in Shell-Schleifen) schnell starten.
+ */
+public final class DavoCli {
+    static final String STDIN = "-";
+    private static final String SEPARATOR = "  ";
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    // Ausstehende Ergebnisse je Job, damit die Ausgabe nicht auf die langsamste Datei wartet
+    private static final int WINDOW_PER_JOB = 4;
+
+    static final String USAGE = """
+            Aufruf: davohash [OPTION]... [DATEI]...
+            Gibt DavoHash512-Prüfsummen (512 Bit, hex) aus. Ohne DATEI oder mit - wird die Standardeingabe gelesen.
+
+              -c, --check      Prüfsummen aus den DATEIen lesen und prüfen
+              -j, --jobs N     bis zu N Dateien gleichzeitig hashen (Standard 1)
+                  --tree       Baum-Modus (DavoTreeHash), große Dateien parallel hashen
+                  --stream     Dateien im Stream-Modus hashen, wie die Standardeingabe
+              -s, --stats      Anzahl, Bytes und Durchsatz auf stderr ausgeben
+              -q, --quiet      beim Prüfen nur Fehler ausgeben
+              -h, --help       diese Hilfe anzeigen
+            """;
+
+    private enum Mode {FILE, TREE, STREAM}
+
+    private final InputStream in;
+    private final PrintStream out;
+    private final PrintStream err;
+    private Mode mode = Mode.FILE;
+    private int jobs = 1;
+    private boolean check;
+    private boolean stats;
+    private boolean quiet;
+    private long files;
+    private long bytes;
+    private final List<String> problems = new ArrayList<>();
+
+    private DavoCli(InputStream in, PrintStream out, PrintStream err) {
+        this.in = in;
+        this.out = out;
+        this.err = err;
+    }
+
+    /** Führt das Werkzeug aus und liefert den Exit-Code: 0 bei Erfolg, 1 bei Fehlern oder Abweichungen, 2 bei falschem Aufruf. */
+    public static int run(String[] args, InputStream in, PrintStream out, PrintStream err) {
+        DavoCli cli = new DavoCli(in, out, err);
+        List<String> operands;
+        try {
+            operands = cli.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println("davohash: " + e.getMessage());
+            err.print(USAGE);
+            return 2;
+        }
+        if (operands == null) {
+            out.print(USAGE);
+            return 0;
+        }
+        if (operands.isEmpty()) operands = List.of(STDIN);
+
+        long start = System.nanoTime();
+        int status = cli.check ? cli.checkAll(operands) : cli.hashAll(operands);
+        out.flush();
+        if (cli.stats) {
+            err.println("davohash: " + new DavoManifest.Report(cli.files, cli.bytes,
+                    Duration.ofNanos(System.nanoTime() - start), cli.problems));
+        }
+        return status;
+    }
+
+    // Liefert die Operanden, null für --help
+    private List<String> parse(String[] args) {
+        List<String> operands = new ArrayList<>();
+        boolean options = true;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!options || arg.equals(STDIN) || !arg.startsWith("-")) {
+                operands.add(arg);
+                continue;
+            }
+            switch (arg) {
+                case "--" -> options = false;
+                case "-c", "--check" -> check = true;
+                case "--tree" -> mode = Mode.TREE;
+                case "--stream" -> mode = Mode.STREAM;
+                case "-s", "--stats" -> stats = true;
+                case "-q", "--quiet" -> quiet = true;
+                case "-h", "--help" -> {
+                    return null;
+                }
+                case "-j", "--jobs" -> {
+                    if (++i == args.length) throw new IllegalArgumentException("Option " + arg + " erwartet eine Zahl");
+                    jobs = parseJobs(args[i]);
+                }
+                default -> {
+                    if (arg.startsWith("--jobs=")) {
+                        jobs = parseJobs(arg.substring("--jobs=".length()));
+                    } else {
+                        throw new IllegalArgumentException("Unbekannte Option: " + arg);
+                    }
+                }
+            }
+        }
+        return operands;
+    }
+
+    private static int parseJobs(String value) {
+        int parsed;
+        try {
+            parsed = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Ungültige Anzahl Jobs: " + value);
+        }
+        if (parsed <= 0) throw new IllegalArgumentException("Anzahl Jobs muss positiv sein: " + value);
+        return parsed;
+    }
+
+    private int hashAll(List<String> operands) {
+        List<Callable<Result>> tasks = new ArrayList<>(operands.size());
+        for (String name : operands) {
+            tasks.add(() -> hash(name));
+        }
+        int[] status = {0};
+        runOrdered(tasks, result -> {
+            if (result.error != null) {
+                report(result.name + ": " + result.error);
+                status[0] = 1;
+                return;
+            }
+            files++;
+            bytes += result.size;
+            out.println(formatLine(result.digest, result.name));
+        });
+        return status[0];
+    }
+
+    private int checkAll(List<String> sumFiles) {
+        List<Callable<Result>> tasks = new ArrayList<>();
+        int invalid = 0;
+        for (String sumFile : sumFiles) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    sumFile.equals(STDIN) ? in : Files.newInputStream(Path.of(sumFile)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Entry entry = parseLine(line);
+                    if (entry == null) {
+                        if (!line.isBlank()) invalid++;
+                        continue;
+                    }
+                    tasks.add(() -> hash(entry.name).expecting(entry.digest));
+                }
+            } catch (IOException | UncheckedIOException e) {
+                report(sumFile + ": " + message(e));
+                return 1;
+            }
+        }
+
+        int[] counts = new int[2]; // abweichend, nicht lesbar
+        runOrdered(tasks, result -> {
+            if (result.error != null) {
+                counts[1]++;
+                out.println(result.name + ": FEHLER beim Lesen");
+                report(result.name + ": " + result.error);
+                return;
+            }
+            files++;
+            bytes += result.size;
+            if (!Arrays.equals(result.digest, result.expected)) {
+                counts[0]++;
+                out.println(result.name + ": FEHLER");
+                problems.add("Hash weicht ab: " + result.name);
+            } else if (!quiet) {
+                out.println(result.name + ": OK");
+            }
+        });
+
+        if (invalid > 0) report("WARNUNG: " + invalid + " Zeile(n) ungültig formatiert");
+        if (counts[1] > 0) report("WARNUNG: " + counts[1] + " Datei(en) nicht lesbar");
+        if (counts[0] > 0) report("WARNUNG: " + counts[0] + " Prüfsumme(n) stimmen NICHT überein");
+        if (tasks.isEmpty()) {
+            report("keine gültigen Prüfsummenzeilen gefunden");
+            return 1;
+        }
+        return invalid + counts[0] + counts[1] > 0 ? 1 : 0;
+    }
+
+    /**
+     * Führt die Aufgaben aus und übergibt die Ergebnisse in Aufgabenreihenfolge. Mit mehreren Jobs sind
+     * höchstens {@code jobs * WINDOW_PER_JOB} Ergebnisse gleichzeitig ausstehend.
+     */
+    private void runOrdered(List<Callable<Result>> tasks, Consumer<Result> sink) {
+        if (jobs == 1 || tasks.size() <= 1) {
+            for (Callable<Result> task : tasks) {
+                sink.accept(call(task));
+            }
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(jobs, runnable -> {
+            Thread thread = new Thread(runnable, "davohash-cli");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Deque<Future<Result>> window = new ArrayDeque<>();
+            int maxInFlight = jobs * WINDOW_PER_JOB;
+            for (Callable<Result> task : tasks) {
+                if (window.size() >= maxInFlight) sink.accept(await(window.poll()));
+                window.add(executor.submit(() -> call(task)));
+            }
+            while (!window.isEmpty()) {
+                sink.accept(await(window.poll()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Result call(Callable<Result> task) {
+        try {
+            return task.call();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Result await(Future<Result> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Unterbrochen beim Warten auf einen Datei-Hash", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Fehler beim Lesen landen im Ergebnis, damit die übrigen Dateien weiter verarbeitet werden
+    private Result hash(String name) {
+        try {
+            if (name.equals(STDIN)) {
+                return hashStream(name, in);
+            }
+            Path path = Path.of(name);
+            if (Files.isDirectory(path)) {
+                return Result.failed(name, "Ist ein Verzeichnis");
+            }
+            return switch (mode) {
+                case FILE -> new Result(name, DavoHash512.hashFile(path), Files.size(path), null, null);
+                case TREE -> new Result(name, DavoTreeHash.hash(path), Files.size(path), null, null);
+                case STREAM -> {
+                    try (InputStream input = Files.newInputStream(path)) {
+                        yield hashStream(name, input);
+                    }
+                }
+            };
+        } catch (IOException | UncheckedIOException | InvalidPathException e) {
+            return Result.failed(name, message(e));
+        }
+    }
+
+    private static Result hashStream(String name, InputStream input) throws IOException {
+        DavoHash512.Digest digest = new DavoHash512.Digest();
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        long size = 0;
+        int read;
+        while ((read = input.read(buffer)) >= 0) {
+            digest.update(buffer, 0, read);
+            size += read;
+        }
+        return new Result(name, digest.digest(), size, null, null);
+    }
+
+    private void report(String message) {
+        problems.add(message);
+        err.println("davohash: " + message);
+    }
+
+    private static String message(Exception e) {
+        Throwable cause = e instanceof UncheckedIOException unchecked ? unchecked.getCause() : e;
+        if (cause instanceof NoSuchFileException) return "Datei nicht gefunden";
+        if (cause instanceof AccessDeniedException) return "Zugriff verweigert";
+        return cause.getMessage() != null ? cause.getMessage() : cause.toString();
+    }
+
+    /**
+     * Formatiert eine Summenzeile. Namen mit Zeilenumbruch oder Backslash werden wie bei {@code sha512sum}
+     * maskiert und die Zeile mit einem Backslash eingeleitet.
+     */
+    static String formatLine(byte[] digest, String name) {
+        String hex = DavoHashCodec.toHex(digest);
+        if (!DavoHashCodec.needsEscaping(name)) {
+            return hex + SEPARATOR + name;
+        }
+        StringBuilder line = new StringBuilder(hex.length() + name.length() + 8).append('\\').append(hex).append(SEPARATOR);
+        return DavoHashCodec.appendEscaped(name, line).toString();
+    }
+
+    // Liest "hex  name" bzw. "hex *name" (Binärmarkierung von sha512sum); null bei ungültiger Zeile
+    static Entry parseLine(String line) {
+        boolean escaped = line.startsWith("\\");
+        int hexStart = escaped ? 1 : 0;
+        int hexEnd = hexStart + DavoHashCodec.HEX_DIGEST_LENGTH;
+        if (line.length() < hexEnd + 3 || line.charAt(hexEnd) != ' ' || (line.charAt(hexEnd + 1) != ' ' && line.charAt(hexEnd + 1) != '*')) {
+            return null;
+        }
+        byte[] digest;
+        try {
+            digest = DavoHashCodec.fromHex(line.substring(hexStart, hexEnd));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        String name = line.substring(hexEnd + 2);
+        if (escaped) {
+            name = DavoHashCodec.unescape(name);
+            if (name == null) return null;
+        }
+        return new Entry(name, digest);
+    }
+
+    record Entry(String name, byte[] digest) {
+    }
+
+    private record Result(String name, byte[] digest, long size, byte[] expected, String error) {
+        static Result failed(String name, String error) {
+            return new Result(name, null, 0, null, error);
+        }
+
+        Result expecting(byte[] expectedDigest) {
+            return new Result(name, digest, size, expectedDigest, error);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.example;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.CopyOption;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementierung von {@link DavoHash512#copyAndHash(Path, Path, CopyOption...)}: kopiert eine Datei über zwei
+ * große Direktpuffer und hasht dieselben Puffer im Datei-Modus, die Quelle wird also nur einmal gelesen.
+ * <p>
+ * Während der aufrufende Thread einen Puffer schreibt und den anderen füllt, hasht ein Hintergrund-Thread den
+ * zuletzt gelesenen Puffer; ein Puffer wird erst wieder befüllt, wenn sein Hash fertig ist. Schreiben und Hashen
+ * lesen denselben Puffer nur, über eigene Duplikate. Kleine Dateien passen in einen Puffer und werden ohne
+ * Hintergrund-Thread kopiert.
+ */
+final class DavoCopyHash {
+    static final int BUFFER_SIZE = 1 << 20;
+
+    private static final ExecutorService HASH_POOL = Executors.newCachedThreadPool(daemonThreads());
+
+    private DavoCopyHash() {
+    }
+
+    static byte[] copy(Path source, Path target, CopyOption... options) throws IOException {
+        Set<OpenOption> openOptions = Set.of(StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
+        for (CopyOption option : options) {
+            if (option != StandardCopyOption.REPLACE_EXISTING) {
+                throw new UnsupportedOperationException("Nicht unterstützte Kopieroption: " + option);
+            }
+            openOptions = Set.of(StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        // Wie Files.copy: Quelle und Ziel sind dieselbe Datei, es wird nur gehasht
+        if (Files.exists(target) && Files.isSameFile(source, target)) {
+            return DavoHash512.hashFile(source);
+        }
+
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            long length = in.size();
+            DavoHash512.Digest digest = DavoHash512.Digest.forFile(length);
+            // Außerhalb des try-Blocks, damit ein bereits vorhandenes Ziel nicht gelöscht wird
+            FileChannel out = FileChannel.open(target, openOptions);
+            try (out) {
+                if (length <= BUFFER_SIZE) {
+                    copySmall(in, out, (int) length, digest);
+                } else {
+                    copyLarge(in, out, length, digest);
+                }
+            } catch (IOException | RuntimeException e) {
+                // Eine halb geschriebene Kopie ist wertlos
+                try {
+                    Files.deleteIfExists(target);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+            return digest.digest();
+        }
+    }
+
+    private static void copySmall(FileChannel in, FileChannel out, int length, DavoHash512.Digest digest) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        fill(in, buffer, 0);
+        digest.update(buffer.duplicate());
+        drain(out, buffer);
+    }
+
+    private static void copyLarge(FileChannel in, FileChannel out, long length, DavoHash512.Digest digest) throws IOException {
+        ByteBuffer[] buffers = {ByteBuffer.allocateDirect(BUFFER_SIZE), ByteBuffer.allocateDirect(BUFFER_SIZE)};
+        // Je Puffer der Hash seines letzten Inhalts; die Kette hält die Reihenfolge der Abschnitte ein
+        CompletableFuture<?>[] hashed = new CompletableFuture<?>[buffers.length];
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        try {
+            long position = 0;
+            for (int i = 0; position < length; i = (i + 1) % buffers.length) {
+                ByteBuffer buffer = buffers[i];
+                if (hashed[i] != null) hashed[i].join();
+
+                buffer.clear().limit((int) Math.min(BUFFER_SIZE, length - position));
+                fill(in, buffer, position);
+                ByteBuffer chunk = buffer.duplicate();
+                chain = chain.thenRunAsync(() -> digest.update(chunk), HASH_POOL);
+                hashed[i] = chain;
+
+                drain(out, buffer);
+                position += buffer.limit();
+            }
+            chain.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        } finally {
+            // Kein Hintergrund-Thread darf noch auf den Puffern arbeiten, wenn der Aufruf zurückkehrt
+            chain.exceptionally(failure -> null).join();
+        }
+    }
+
+    // Liest ab position, bis der Puffer voll ist, und dreht ihn zum Lesen um
+    private static void fill(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Datei wurde während des Kopierens verkürzt");
+            }
+        }
+        buffer.flip();
+    }
+
+    private static void drain(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "davohash-copy-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,169 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * {@link Flow.Processor}, der durchlaufende Puffer im Stream-Modus ({@link DavoHash512.Digest}) hasht und
+ * unverändert weitergibt. {@link #digest()} wird mit dem Hash abgeschlossen, sobald die Quelle fertig ist.
+ * <p>
+ * Nachfrage des Abnehmers wird eins zu eins an die Quelle weitergereicht, der Processor puffert also nichts.
+ * Jeder Puffer wird zwischen Position und Limit gehasht, bevor er weitergegeben wird; Position und Limit
+ * bleiben dabei unverändert, danach gehört der Puffer dem Abnehmer. Es gibt höchstens einen Abnehmer.
+ * Ohne Abnehmer hasht {@link #hash(Flow.Publisher)} eine Quelle mit begrenzter Nachfrage.
+ */
+public final class DavoDigestProcessor implements Flow.Processor<ByteBuffer, ByteBuffer> {
+    static final int DEFAULT_PREFETCH = 16;
+
+    private final DavoHash512.Digest digest = new DavoHash512.Digest();
+    private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+    private final Object lock = new Object();
+    private Flow.Subscription upstream;
+    private Flow.Subscriber<? super ByteBuffer> downstream;
+    private long pendingDemand;
+    private boolean cancelled;
+
+    /** Hash aller Puffer der Quelle; schlägt fehl, wenn die Quelle einen Fehler meldet oder abgebrochen wird. */
+    public CompletableFuture<byte[]> digest() {
+        return result;
+    }
+
+    /** Hasht alle Puffer der Quelle ohne Abnehmer, mit höchstens prefetch angeforderten Puffern gleichzeitig. */
+    public static CompletableFuture<byte[]> hash(Flow.Publisher<ByteBuffer> publisher) {
+        DavoDigestProcessor processor = new DavoDigestProcessor();
+        processor.subscribe(new Drain());
+        publisher.subscribe(processor);
+        return processor.digest();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        Objects.requireNonNull(subscriber);
+        synchronized (lock) {
+            if (downstream != null) {
+                rejectSubscriber(subscriber);
+                return;
+            }
+            downstream = subscriber;
+        }
+        subscriber.onSubscribe(new Relay());
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        long demand;
+        synchronized (lock) {
+            if (upstream != null || cancelled) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            demand = pendingDemand;
+            pendingDemand = 0;
+        }
+        if (demand > 0) subscription.request(demand);
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+        digest.update(item.duplicate());
+        Flow.Subscriber<? super ByteBuffer> subscriber = downstream;
+        if (subscriber != null) subscriber.onNext(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+        Flow.Subscriber<? super ByteBuffer> subscriber = downstream;
+        if (subscriber != null) subscriber.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        result.complete(digest.digest());
+        Flow.Subscriber<? super ByteBuffer> subscriber = downstream;
+        if (subscriber != null) subscriber.onComplete();
+    }
+
+    private static void rejectSubscriber(Flow.Subscriber<?> subscriber) {
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        subscriber.onError(new IllegalStateException("DavoDigestProcessor erlaubt nur einen Abnehmer"));
+    }
+
+    // Reicht Nachfrage und Abbruch des Abnehmers an die Quelle weiter, auch bevor diese verbunden ist
+    private final class Relay implements Flow.Subscription {
+        @Override
+        public void request(long n) {
+            Flow.Subscription subscription;
+            synchronized (lock) {
+                if (cancelled) return;
+                subscription = upstream;
+                if (subscription == null) {
+                    if (n <= 0) {
+                        cancelled = true;
+                    } else {
+                        pendingDemand = pendingDemand + n < 0 ? Long.MAX_VALUE : pendingDemand + n;
+                        return;
+                    }
+                }
+            }
+            if (subscription != null) {
+                // Ungültige Werte meldet die Quelle selbst per onError (Regel 3.9)
+                subscription.request(n);
+            } else {
+                onError(new IllegalArgumentException("Nachfrage muss positiv sein: " + n));
+            }
+        }
+
+        @Override
+        public void cancel() {
+            Flow.Subscription subscription;
+            synchronized (lock) {
+                if (cancelled) return;
+                cancelled = true;
+                subscription = upstream;
+            }
+            if (subscription != null) subscription.cancel();
+            result.completeExceptionally(new CancellationException("Vom Abnehmer abgebrochen"));
+        }
+    }
+
+    // Abnehmer für hash(Publisher): fordert prefetch Puffer an und füllt nach, wenn die Hälfte verbraucht ist
+    private static final class Drain implements Flow.Subscriber<ByteBuffer> {
+        private Flow.Subscription subscription;
+        private int received;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(DEFAULT_PREFETCH);
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            if (++received == DEFAULT_PREFETCH / 2) {
+                received = 0;
+                subscription.request(DEFAULT_PREFETCH / 2);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Atomares Ersetzen von Index- und Zustandsdateien: geschrieben wird in eine eindeutige Zwischendatei im
+ * Verzeichnis des Ziels ({@link Files#createTempFile(Path, String, String)}), die erst vollständig per
+ * {@link StandardCopyOption#ATOMIC_MOVE} an ihre Stelle tritt. Gleichzeitige Schreiber kommen sich so nicht in die
+ * Quere, und scheitert ein Schritt, wird die Zwischendatei gelöscht.
+ */
+final class DavoFiles {
+
+    /** Schreibt den neuen Inhalt in die übergebene, bereits angelegte und leere Zwischendatei. */
+    interface TempWriter<T> {
+        T write(Path temp) throws IOException;
+    }
+
+    /** Schritt unmittelbar vor dem Verschieben, z. B. um Einblendungen oder Kanäle auf das Ziel zu schließen. */
+    interface BeforeMove {
+        void run() throws IOException;
+    }
+
+    private DavoFiles() {
+    }
+
+    static <T> T replaceAtomically(Path target, TempWriter<T> writer) throws IOException {
+        return replaceAtomically(target, writer, () -> {
+        });
+    }
+
+    /**
+     * Wie {@link #replaceAtomically(Path, TempWriter)}, ruft aber beforeMove zwischen Schreiben und Verschieben auf.
+     * Scheitert das Verschieben, bleibt das alte Ziel unverändert; was beforeMove geschlossen hat, muss der Aufrufer
+     * wieder öffnen.
+     */
+    static <T> T replaceAtomically(Path target, TempWriter<T> writer, BeforeMove beforeMove) throws IOException {
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName() + ".", ".tmp");
+        try {
+            T result = writer.write(temp);
+            beforeMove.run();
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+}
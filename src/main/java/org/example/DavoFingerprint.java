@@ -0,0 +1,214 @@
+package org.example;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * Schnelle 64- und 128-Bit-Fingerabdrücke für Hashtabellen, Sharding, Bloom-Filter und Deduplizierung.
+ * <p>
+ * <b>Nicht kryptographisch:</b> Die Funktionen sind gut gemischt, aber nicht gegen gezielt konstruierte
+ * Kollisionen gehärtet und ersetzen {@link DavoHash512} nicht, wo Angreifer die Eingaben wählen können.
+ * <p>
+ * Die Eingabe läuft in 32-Byte-Blöcken durch vier unabhängige Bahnen (Multiplikation und Rotation je
+ * 64-Bit-Wort), jede Bahn wird am Ende mit {@link DavoHash512#avalancheMix(long)} durchmischt und die Länge
+ * eingerechnet. {@link #hash64(byte[])} ist die untere Hälfte von {@link #hash128(byte[], long[])}. Es wird
+ * nichts allokiert; 128-Bit-Ergebnisse landen in einem {@code long[]} des Aufrufers.
+ * <p>
+ * {@code CharSequence}-Varianten hashen die UTF-16-Codeeinheiten so, als wären sie in UTF-16LE kodiert, ohne
+ * sie zu kopieren: {@code hash64(s) == hash64(s.getBytes(UTF_16LE))}. Für {@code long}- und {@code int}-Schlüssel
+ * gibt es eigene Überladungen, die nur aus einem Mischschritt bestehen und bijektiv sind, also für verschiedene
+ * Schlüssel nie kollidieren (für {@code long} auch mit 128 Bit); {@link #index(long, int)} bildet einen Hash ohne Division auf einen Tabellenplatz ab.
+ */
+public final class DavoFingerprint {
+    public static final long DEFAULT_SEED = 0x2545F4914F6CDD1DL;
+
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    // Multiplikatoren der Bahnen (ungerade, gut verteilte Bits)
+    private static final long P1 = 0x9E3779B185EBCA87L;
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long P3 = 0x165667B19E3779F9L;
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private static final int LANE_BLOCK = 32;
+
+    private DavoFingerprint() {
+    }
+
+    // --- 64 Bit ---
+
+    public static long hash64(byte[] input) {
+        return hash64(input, 0, input.length, DEFAULT_SEED);
+    }
+
+    public static long hash64(byte[] input, int offset, int length) {
+        return hash64(input, offset, length, DEFAULT_SEED);
+    }
+
+    public static long hash64(byte[] input, int offset, int length, long seed) {
+        Objects.checkFromIndexSize(offset, length, input.length);
+        return absorb(input, offset, length, seed, null, 0);
+    }
+
+    public static long hash64(CharSequence input) {
+        return hash64(input, DEFAULT_SEED);
+    }
+
+    public static long hash64(CharSequence input, long seed) {
+        return absorb(input, seed, null, 0);
+    }
+
+    /** Bijektiver Fingerabdruck eines {@code long}-Schlüssels, z. B. für Open-Addressing-Tabellen. */
+    public static long hash64(long key) {
+        return DavoHash512.avalancheMix(key + DEFAULT_SEED);
+    }
+
+    public static long hash64(long key, long seed) {
+        return DavoHash512.avalancheMix(key + seed);
+    }
+
+    /** Wie {@link #hash64(long)}; {@code hash64(int)} und {@code hash64((long) key)} sind gleich. */
+    public static long hash64(int key) {
+        return hash64((long) key);
+    }
+
+    /**
+     * Bildet einen Hash gleichmäßig auf {@code [0, size)} ab (obere Bits mal Größe, keine Division), passend zu
+     * Tabellengrößen, die keine Zweierpotenz sind.
+     */
+    public static int index(long hash, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size muss positiv sein: " + size);
+        }
+        return (int) (((hash >>> 32) * size) >>> 32);
+    }
+
+    // --- 128 Bit ---
+
+    /** Schreibt den 128-Bit-Fingerabdruck nach {@code out[0]} (untere Hälfte, = hash64) und {@code out[1]}. */
+    public static void hash128(byte[] input, long[] out) {
+        hash128(input, 0, input.length, DEFAULT_SEED, out, 0);
+    }
+
+    public static void hash128(byte[] input, int offset, int length, long seed, long[] out, int outOffset) {
+        Objects.checkFromIndexSize(offset, length, input.length);
+        Objects.checkFromIndexSize(outOffset, 2, out.length);
+        absorb(input, offset, length, seed, out, outOffset);
+    }
+
+    public static void hash128(CharSequence input, long[] out) {
+        hash128(input, DEFAULT_SEED, out, 0);
+    }
+
+    public static void hash128(CharSequence input, long seed, long[] out, int outOffset) {
+        Objects.checkFromIndexSize(outOffset, 2, out.length);
+        absorb(input, seed, out, outOffset);
+    }
+
+    /** 128 Bit zu einem {@code long}-Schlüssel; {@code out[0]} ist {@link #hash64(long)}, beide Hälften bijektiv. */
+    public static void hash128(long key, long[] out) {
+        hash128(key, DEFAULT_SEED, out, 0);
+    }
+
+    public static void hash128(long key, long seed, long[] out, int outOffset) {
+        Objects.checkFromIndexSize(outOffset, 2, out.length);
+        out[outOffset] = hash64(key, seed);
+        out[outOffset + 1] = DavoHash512.avalancheMix(Long.rotateLeft(key, 32) + seed + GOLDEN);
+    }
+
+    // --- Bausteine ---
+
+    // Vier Bahnen über die Bytes, volle 32-Byte-Blöcke und danach der Rest; out == null nur für die untere Hälfte
+    private static long absorb(byte[] input, int offset, int length, long seed, long[] out, int outOffset) {
+        long a = seed + P1 + P2;
+        long b = seed + P2;
+        long c = seed;
+        long d = seed - P1;
+        int end = offset + length;
+        int i = offset;
+        for (; i + LANE_BLOCK <= end; i += LANE_BLOCK) {
+            a = round(a, (long) LONG_LE.get(input, i));
+            b = round(b, (long) LONG_LE.get(input, i + 8));
+            c = round(c, (long) LONG_LE.get(input, i + 16));
+            d = round(d, (long) LONG_LE.get(input, i + 24));
+        }
+        // Rest: volle Wörter der Reihe nach auf die Bahnen, das angebrochene Wort mit Nullen aufgefüllt
+        if (i + 8 <= end) { a = round(a, (long) LONG_LE.get(input, i)); i += 8; }
+        if (i + 8 <= end) { b = round(b, (long) LONG_LE.get(input, i)); i += 8; }
+        if (i + 8 <= end) { c = round(c, (long) LONG_LE.get(input, i)); i += 8; }
+        if (i < end) {
+            d = round(d, tail(input, i, end - i));
+        }
+        return finish(a, b, c, d, length, out, outOffset);
+    }
+
+    // Dieselben Bahnen über die UTF-16-Codeeinheiten, vier je Wort
+    private static long absorb(CharSequence input, long seed, long[] out, int outOffset) {
+        long a = seed + P1 + P2;
+        long b = seed + P2;
+        long c = seed;
+        long d = seed - P1;
+        int end = input.length();
+        int i = 0;
+        for (; i + LANE_BLOCK / 2 <= end; i += LANE_BLOCK / 2) {
+            a = round(a, word(input, i));
+            b = round(b, word(input, i + 4));
+            c = round(c, word(input, i + 8));
+            d = round(d, word(input, i + 12));
+        }
+        if (i + 4 <= end) { a = round(a, word(input, i)); i += 4; }
+        if (i + 4 <= end) { b = round(b, word(input, i)); i += 4; }
+        if (i + 4 <= end) { c = round(c, word(input, i)); i += 4; }
+        if (i < end) {
+            d = round(d, tail(input, i, end - i));
+        }
+        return finish(a, b, c, d, 2L * end, out, outOffset);
+    }
+
+    private static long round(long lane, long word) {
+        return Long.rotateLeft(lane + word * P2, 31) * P1;
+    }
+
+    // Untere Hälfte: Summe der einzeln durchmischten Bahnen, die Länge trennt Eingaben, die sich nur in
+    // aufgefüllten Nullbytes unterscheiden. Mit out wird zusätzlich die obere Hälfte geschrieben.
+    private static long finish(long a, long b, long c, long d, long length, long[] out, int outOffset) {
+        long ma = DavoHash512.avalancheMix(a + length * P3);
+        long mb = DavoHash512.avalancheMix(b);
+        long mc = DavoHash512.avalancheMix(c);
+        long md = DavoHash512.avalancheMix(d);
+        long low = DavoHash512.avalancheMix(ma + mb + mc + md);
+        if (out != null) {
+            out[outOffset] = low;
+            // Obere Hälfte: andere Verknüpfung derselben Bahnen, damit beide Hälften unabhängig wirken
+            out[outOffset + 1] = DavoHash512.avalancheMix(
+                    (ma ^ Long.rotateLeft(mb, 16) ^ Long.rotateLeft(mc, 32) ^ Long.rotateLeft(md, 48)) + GOLDEN);
+        }
+        return low;
+    }
+
+    // Vier UTF-16-Codeeinheiten als Little-Endian-Wort, wie die Bytes von UTF-16LE
+    private static long word(CharSequence input, int index) {
+        return input.charAt(index)
+                | (long) input.charAt(index + 1) << 16
+                | (long) input.charAt(index + 2) << 32
+                | (long) input.charAt(index + 3) << 48;
+    }
+
+    private static long tail(byte[] input, int offset, int count) {
+        long word = 0;
+        for (int k = 0; k < count; k++) {
+            word |= (input[offset + k] & 0xFFL) << (8 * k);
+        }
+        return word;
+    }
+
+    private static long tail(CharSequence input, int index, int count) {
+        long word = 0;
+        for (int k = 0; k < count; k++) {
+            word |= (long) input.charAt(index + k) << (16 * k);
+        }
+        return word;
+    }
+}
@@ -1,13 +1,35 @@
 package org.example;
 
 import java.io.*;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.CopyOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.CRC32C;
 
 public class DavoHash512 {
-    private static final int STATE_SIZE = 8;
-    private static final int BLOCK_SIZE = 64;
+    static final int STATE_SIZE = 8;
+    static final int BLOCK_SIZE = 64;
     private static final int WORD_SIZE = 64;
-    private static final int BASE_ROUNDS = 80;
+    static final int BASE_ROUNDS = 80;
+    public static final int DIGEST_LENGTH = STATE_SIZE * 8;
+    static final int BLOCK_WORDS = BLOCK_SIZE / 8;
+    static final int MAX_BLOCK_WORDS = 2 * BLOCK_WORDS;
+
+    // Arbeitsbereich für processBlock: Blockwörter, S-Box-Wörter und Kopie des Zustands
+    static final int WORKSPACE_SIZE = 2 * MAX_BLOCK_WORDS + STATE_SIZE;
 
     // Verbesserte S-Box mit komplexen und extremen Werten
     private static final int[] S_BOX = {
@@ -58,141 +80,434 @@ public class DavoHash512 {
             0x5BE0CD19137E2179L, 0x983E5152EE66DFABL, 0x3C6EF372FE94F82BL, 0xA54FF53A2DE92C6FL
     };
 
-    private static final long[] ROUND_CONSTANTS = {
+    static final long[] ROUND_CONSTANTS = {
             0x428A2F98D728AE22L, 0x7137449123EF65CDL, 0xB5C0FBCFEC4D3B2FL, 0xE9B5DBA58189DBBCL,
             0x3956C25BF348B538L, 0x59F111F1B605D019L, 0x923F82A4AF194F9BL, 0xAB1C5ED5DA6D8118L,
             0xD807AA9812008DEEL, 0xA30302427F537C2CL, 0xC6E00BF33DA88F83L, 0x06CA6351E003826FL,
             0x142929670A0E6E70L, 0x27B70A8546D22FFCL, 0x2E1B21385C26C926L, 0x4D2C6DFC5AC42AEDL
     };
 
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfLong LONG_BE_UNALIGNED = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    // Dateien ab MAP_THRESHOLD werden in Fenstern von MAP_WINDOW_SIZE eingeblendet, kleinere gelesen
+    private static final long MAP_WINDOW_SIZE = 64L << 20;
+    private static final long MAP_THRESHOLD = 1L << 20;
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+
+    // S-Box je Byteposition als long-Tabelle: S_BOX_TABLE[pos * 256 + b] = S_BOX[b] an Position pos
+    private static final long[] S_BOX_TABLE = buildSBoxTable();
+
+    // Dynamische P-Box der Runden 0, 10, ..., 70 einmalig vorberechnet und zu einer Abbildung zusammengesetzt
+    private static final int[][] P_BOX_ROUNDS = buildPBoxRounds();
+    static final int[] P_BOX_COMPOSITE = composePBoxRounds(P_BOX_ROUNDS);
+    static final boolean P_BOX_REVERSE = (P_BOX_ROUNDS.length & 1) == 1;
+
+    private static final boolean VECTOR_BATCH = vectorBatchAvailable();
+
+    // Zustand und Arbeitsbereich der Text-Eingaben je Thread, damit kurze Eingaben nur das Ergebnis allokieren
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    // Unterhalb von U+0300 gibt es weder Zerlegungen noch kombinierende Zeichen, solche Strings sind bereits NFC
+    private static final char FIRST_NON_TRIVIAL_NFC = '\u0300';
+
+    /**
+     * Hasht den String in Normalform C. Bereits normalisierte Eingaben (erkannt über einen Zeichenscan bzw.
+     * {@link Normalizer#isNormalized}) werden ohne Kopie direkt aus dem String gelesen.
+     */
     public static byte[] hash(String input) {
         if (input == null) input = "";
 
-        String normalized = Normalizer.normalize(input, Normalizer.Form.NFC);
-        long[] state = initializeState(normalized.length());
+        DavoHashMetrics.Timing start = DavoHashMetrics.start();
+        String normalized = isNormalized(input) ? input : Normalizer.normalize(input, Normalizer.Form.NFC);
+        int length = normalized.length();
+        Scratch scratch = SCRATCH.get();
+        long[] state = scratch.state;
+        long[] workspace = scratch.workspace;
+        initializeState(state, length);
+        for (int done = 0; done < length; done += BLOCK_SIZE) {
+            int count = Math.min(BLOCK_SIZE, length - done);
+            loadChars(normalized, done, count, workspace);
+            processBlock(state, workspace, padBlock(workspace, count, count * 8L));
+        }
+
+        byte[] hashBytes = new byte[DIGEST_LENGTH];
+        finishText(state, workspace, hashBytes, 0, DavoHashMetrics.Source.STRING, length, start);
+        return hashBytes;
+    }
+
+    private static boolean isNormalized(String input) {
+        for (int i = 0, length = input.length(); i < length; i++) {
+            if (input.charAt(i) >= FIRST_NON_TRIVIAL_NFC) {
+                return Normalizer.isNormalized(input, Normalizer.Form.NFC);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hasht Bytes wie {@link #hash(String)} einen String aus Zeichen 0..255 hashen würde, d. h.
+     * {@code hash(bytes)} entspricht {@code hash(new String(bytes, ISO_8859_1))}, ohne diese Umwandlung.
+     */
+    public static byte[] hash(byte[] input) {
+        return hash(input, 0, input.length);
+    }
+
+    public static byte[] hash(byte[] input, int offset, int length) {
+        byte[] hashBytes = new byte[DIGEST_LENGTH];
+        hashInto(input, offset, length, hashBytes, 0);
+        return hashBytes;
+    }
 
-        try (StringReader reader = new StringReader(normalized)) {
-            processStream(reader, state);
-        } catch (Exception e) {
-            System.err.println("Error: " + e.getMessage());
+    /** Wie {@link #hash(byte[], int, int)}, schreibt den Hash aber nach out ab outOffset und liefert dessen Länge. */
+    public static int hashInto(byte[] input, int offset, int length, byte[] out, int outOffset) {
+        Objects.checkFromIndexSize(offset, length, input.length);
+        Objects.checkFromIndexSize(outOffset, DIGEST_LENGTH, out.length);
+
+        DavoHashMetrics.Timing start = DavoHashMetrics.start();
+        Scratch scratch = SCRATCH.get();
+        long[] state = scratch.state;
+        long[] workspace = scratch.workspace;
+        initializeState(state, length);
+        for (int done = 0; done < length; done += BLOCK_SIZE) {
+            int count = Math.min(BLOCK_SIZE, length - done);
+            loadBytes(input, offset + done, count, workspace);
+            processBlock(state, workspace, padBlock(workspace, count, count * 8L));
         }
+        return finishText(state, workspace, out, outOffset, DavoHashMetrics.Source.BYTES, length, start);
+    }
 
-        doubleFinalization(state);
-        return buildHashBytes(state);
+    /** Hasht die Bytes zwischen Position und Limit direkt aus dem Puffer; Position und Limit bleiben unverändert. */
+    public static byte[] hash(ByteBuffer input) {
+        byte[] hashBytes = new byte[DIGEST_LENGTH];
+        hashInto(input, hashBytes, 0);
+        return hashBytes;
+    }
+
+    public static int hashInto(ByteBuffer input, byte[] out, int outOffset) {
+        Objects.checkFromIndexSize(outOffset, DIGEST_LENGTH, out.length);
+
+        DavoHashMetrics.Timing start = DavoHashMetrics.start();
+        int position = input.position();
+        int length = input.remaining();
+        Scratch scratch = SCRATCH.get();
+        long[] state = scratch.state;
+        long[] workspace = scratch.workspace;
+        initializeState(state, length);
+        for (int done = 0; done < length; done += BLOCK_SIZE) {
+            int count = Math.min(BLOCK_SIZE, length - done);
+            loadBytes(input, position + done, count, workspace);
+            processBlock(state, workspace, padBlock(workspace, count, count * 8L));
+        }
+        return finishText(state, workspace, out, outOffset, DavoHashMetrics.Source.BUFFER, length, start);
+    }
+
+    /** Hasht den gesamten Inhalt eines Segments (Heap oder Off-Heap), die Länge wird als long geführt. */
+    public static byte[] hash(MemorySegment input) {
+        byte[] hashBytes = new byte[DIGEST_LENGTH];
+        hashInto(input, hashBytes, 0);
+        return hashBytes;
+    }
+
+    public static int hashInto(MemorySegment input, byte[] out, int outOffset) {
+        Objects.checkFromIndexSize(outOffset, DIGEST_LENGTH, out.length);
+
+        DavoHashMetrics.Timing start = DavoHashMetrics.start();
+        long length = input.byteSize();
+        Scratch scratch = SCRATCH.get();
+        long[] state = scratch.state;
+        long[] workspace = scratch.workspace;
+        initializeState(state, length);
+        for (long done = 0; done < length; done += BLOCK_SIZE) {
+            int count = (int) Math.min(BLOCK_SIZE, length - done);
+            loadBytes(input, done, count, workspace);
+            processBlock(state, workspace, padBlock(workspace, count, count * 8L));
+        }
+        return finishText(state, workspace, out, outOffset, DavoHashMetrics.Source.SEGMENT, length, start);
+    }
+
+    /**
+     * Hasht viele kurze Nachrichten wie {@link #hash(byte[])}. Ist das Modul {@code jdk.incubator.vector}
+     * geladen, laufen Nachrichten gleicher Blockstruktur in parallelen Spuren, sonst skalar.
+     * Fehlt outputs[i], wird ein neues Array angelegt.
+     */
+    public static void hashBatch(byte[][] inputs, byte[][] outputs) {
+        if (outputs.length < inputs.length) {
+            throw new IllegalArgumentException("Zu wenige Ausgaben: " + outputs.length + " für " + inputs.length + " Eingaben");
+        }
+
+        if (VECTOR_BATCH && inputs.length >= 2) {
+            DavoVectorBatch.hashBatch(inputs, outputs);
+            return;
+        }
+        for (int i = 0; i < inputs.length; i++) {
+            if (outputs[i] == null) outputs[i] = new byte[DIGEST_LENGTH];
+            hashInto(inputs[i], 0, inputs[i].length, outputs[i], 0);
+        }
+    }
+
+    /** Gibt an, ob {@link #hashBatch(byte[][], byte[][])} die Vector API nutzt. */
+    public static boolean isVectorBatchAvailable() {
+        return VECTOR_BATCH;
+    }
+
+    private static boolean vectorBatchAvailable() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return false;
+        try {
+            return DavoVectorBatch.LANES >= 2;
+        } catch (LinkageError e) {
+            return false;
+        }
     }
 
     public static byte[] hashFile(File file)  {
-        long[] state = initializeState((int) file.length());
-
-        try (FileInputStream fis = new FileInputStream(file)) {
-            byte[] buffer = new byte[BLOCK_SIZE];
-            int bytesRead;
-
-            while ((bytesRead = fis.read(buffer)) != -1) {
-                // Wenn es der letzte Block ist, müssen wir padInput aufrufen
-                if (bytesRead < BLOCK_SIZE) {
-                    processBlock(toLongArray(padInput(buffer, bytesRead)), state);
-                } else {
-                    // Volle Blöcke ohne Padding verarbeiten
-                    processBlock(toLongArray(buffer), state);
-                }
+        return hashFile(file.toPath());
+    }
+
+    /**
+     * Hasht eine Datei über einen {@link FileChannel}. Große reguläre Dateien werden fensterweise als
+     * {@link MemorySegment} eingeblendet und ohne Kopie blockweise gelesen, kleine Dateien über einen Lesepuffer.
+     * Scheitert das Einblenden (z. B. bei Dateisystemen ohne {@link FileChannel#map}), wird der Rest ebenfalls
+     * gelesen. Die Länge wird als long geführt.
+     */
+    public static byte[] hashFile(Path path) {
+        DavoHashMetrics.Timing start = DavoHashMetrics.start();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            long[] state = new long[STATE_SIZE];
+            long[] workspace = new long[WORKSPACE_SIZE];
+            initializeState(state, length);
+
+            if (length >= MAP_THRESHOLD) {
+                processMapped(channel, length, state, workspace);
+            } else {
+                processChannel(channel, length, state, workspace);
             }
+
+            doubleFinalization(state);
+            DavoHashMetrics.record(DavoHashMetrics.Source.FILE, length, (length + BLOCK_SIZE - 1) / BLOCK_SIZE, start);
+            return buildHashBytes(state);
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            throw new UncheckedIOException(e);
         }
+    }
 
-        doubleFinalization(state);
-        return buildHashBytes(state);
+    /**
+     * Hasht eine Datei asynchron über einen {@link java.nio.channels.AsynchronousFileChannel}, ohne einen
+     * Thread für die Dauer des Lesens zu blockieren. Das Ergebnis entspricht {@link #hashFile(Path)};
+     * Lese- und Hash-Arbeit laufen auf einem kleinen gemeinsamen Pool mit wiederverwendeten Direktpuffern.
+     * Nur eine feste Zahl von Dateien wird gleichzeitig gelesen; weitere Aufrufe warten und öffnen ihre Datei
+     * erst, wenn sie an der Reihe sind, sodass Pufferspeicher und offene Dateien begrenzt bleiben.
+     * Ein-/Ausgabefehler schließen das Future mit der {@link IOException} ab.
+     */
+    public static CompletableFuture<byte[]> hashAsync(Path path) {
+        return DavoAsyncFileHash.hash(path);
     }
 
-    public static String bytesToHex(byte[] hashBytes) {
-        StringBuilder hexString = new StringBuilder(hashBytes.length * 2);
-        for (byte b : hashBytes) {
-            hexString.append(String.format("%02x", b));
+    /** Wie {@link #hashAsync(Path)}, Lesen und Hashen laufen aber auf dem übergebenen Executor. */
+    public static CompletableFuture<byte[]> hashAsync(Path path, ExecutorService executor) {
+        return DavoAsyncFileHash.hash(path, executor);
+    }
+
+    /**
+     * Kopiert source nach target und liefert dabei den Hash von source wie {@link #hashFile(Path)}, ohne die Datei
+     * ein zweites Mal zu lesen. Gehasht wird in denselben großen Direktpuffern, mit denen kopiert wird; ein
+     * Hintergrund-Thread hasht einen Puffer, während der andere gelesen und geschrieben wird. Als Option wird nur
+     * {@link java.nio.file.StandardCopyOption#REPLACE_EXISTING} unterstützt, ohne sie darf target nicht existieren.
+     * Bei einem Fehler wird die angefangene Kopie gelöscht. Verweisen source und target auf dieselbe Datei, wird wie
+     * bei {@link java.nio.file.Files#copy(Path, Path, CopyOption...)} nichts kopiert und nur der Hash geliefert.
+     */
+    public static byte[] copyAndHash(Path source, Path target, CopyOption... options) {
+        try {
+            return DavoCopyHash.copy(source, target, options);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return hexString.toString();
     }
 
-    public static byte[] hexToBytes(String hex) {
-        int length = hex.length();
-        byte[] bytes = new byte[length / 2];
-        for (int i = 0; i < length; i += 2) {
-            bytes[i / 2] = (byte) ((Character.digit(hex.charAt(i), 16) << 4)
-                    + Character.digit(hex.charAt(i + 1), 16));
+    private static void processMapped(FileChannel channel, long length, long[] state, long[] workspace) throws IOException {
+        for (long position = 0; position < length; position += MAP_WINDOW_SIZE) {
+            long windowLength = Math.min(MAP_WINDOW_SIZE, length - position);
+            try (Arena arena = Arena.ofConfined()) {
+                MemorySegment window;
+                try {
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowLength, arena);
+                } catch (IOException | UnsupportedOperationException e) {
+                    // Nicht einblendbar (z. B. Kanal eines Zip-Dateisystems): Rest ab hier über den Lesepuffer,
+                    // Fenstergrenzen liegen auf Blockgrenzen
+                    processChannel(channel.position(position), length - position, state, workspace);
+                    return;
+                }
+                processFileBlocks(window, windowLength, state, workspace);
+            }
         }
-        return bytes;
     }
 
-    private static void processStream(StringReader reader, long[] state) throws Exception {
-        char[] charBuffer = new char[BLOCK_SIZE];
-        byte[] byteBuffer = new byte[BLOCK_SIZE];
-        int charsRead;
+    // Volle Blöcke ohne Padding, nur ein abschließender Teilblock wird aufgefüllt (wie bisher bei hashFile)
+    private static void processFileBlocks(MemorySegment segment, long length, long[] state, long[] workspace) {
+        long offset = 0;
+        for (; offset + BLOCK_SIZE <= length; offset += BLOCK_SIZE) {
+            loadBytes(segment, offset, BLOCK_SIZE, workspace);
+            processBlock(state, workspace, BLOCK_WORDS);
+        }
+        int remaining = (int) (length - offset);
+        if (remaining > 0) {
+            loadBytes(segment, offset, remaining, workspace);
+            processBlock(state, workspace, padBlock(workspace, remaining, remaining * 8L));
+        }
+    }
 
-        while ((charsRead = reader.read(charBuffer)) != -1) {
-            for (int i = 0; i < BLOCK_SIZE; i++) {
-                byteBuffer[i] = (i < charsRead) ? (byte) charBuffer[i] : 0;
+    // Liest bis zum Dateiende; Teilblöcke zwischen zwei Lesevorgängen werden im Puffer nach vorn geschoben
+    private static void processChannel(FileChannel channel, long length, long[] state, long[] workspace) throws IOException {
+        int capacity = (int) Math.min(READ_BUFFER_SIZE, (length / BLOCK_SIZE + 1) * BLOCK_SIZE);
+        ByteBuffer buffer = capacity == READ_BUFFER_SIZE ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+
+        boolean endOfFile = false;
+        while (!endOfFile) {
+            endOfFile = channel.read(buffer) == -1;
+            buffer.flip();
+
+            int index = 0;
+            int limit = buffer.limit();
+            for (; limit - index >= BLOCK_SIZE; index += BLOCK_SIZE) {
+                loadBytes(buffer, index, BLOCK_SIZE, workspace);
+                processBlock(state, workspace, BLOCK_WORDS);
+            }
+            if (endOfFile && index < limit) {
+                int remaining = limit - index;
+                loadBytes(buffer, index, remaining, workspace);
+                processBlock(state, workspace, padBlock(workspace, remaining, remaining * 8L));
             }
-            processBlock(toLongArray(padInput(byteBuffer, charsRead)), state);
+
+            buffer.position(index);
+            buffer.compact();
         }
+    }
 
-        processBlock(toLongArray(padInput(new byte[0], 0)), state);
+    /** Kleingeschriebene Hex-Darstellung, siehe {@link DavoHashCodec#toHex(byte[])}. */
+    public static String bytesToHex(byte[] hashBytes) {
+        return DavoHashCodec.toHex(hashBytes);
     }
 
-    private static long[] toLongArray(byte[] bytes) {
-        int length = (bytes.length + 7) / 8;
-        long[] longs = new long[length];
-        for (int i = 0; i < length; i++) {
-            longs[i] = getLongFromBytes(bytes, i * 8);
-        }
-        return longs;
+    /** Wirft eine {@link IllegalArgumentException} bei ungerader Länge oder Zeichen außerhalb von 0-9, a-f, A-F. */
+    public static byte[] hexToBytes(String hex) {
+        return DavoHashCodec.fromHex(hex);
     }
 
-    private static long getLongFromBytes(byte[] bytes, int offset) {
-        long value = 0;
-        for (int i = 0; i < 8; i++) {
-            if (offset + i < bytes.length) {
-                value |= ((long) (bytes[offset + i] & 0xFF)) << ((7 - i) * 8);
+    // Abschlussblock der Text-Eingaben, danach Finalisierung direkt in das Zielarray
+    private static int finishText(long[] state, long[] workspace, byte[] out, int outOffset,
+                                  DavoHashMetrics.Source source, long length, DavoHashMetrics.Timing start) {
+        processBlock(state, workspace, padBlock(workspace, 0, 0));
+        doubleFinalization(state);
+        writeHashBytes(state, out, outOffset);
+        DavoHashMetrics.record(source, length, DavoHashMetrics.textBlocks(length), start);
+        return DIGEST_LENGTH;
+    }
+
+    // Legt das niederwertige Byte von count Zeichen ab offset big-endian in die Blockwörter
+    private static void loadChars(String chars, int offset, int count, long[] block) {
+        int i = 0;
+        for (; i + 8 <= count; i += 8) {
+            int c = offset + i;
+            block[i >>> 3] = (long) (chars.charAt(c) & 0xFF) << 56 | (long) (chars.charAt(c + 1) & 0xFF) << 48
+                    | (long) (chars.charAt(c + 2) & 0xFF) << 40 | (long) (chars.charAt(c + 3) & 0xFF) << 32
+                    | (long) (chars.charAt(c + 4) & 0xFF) << 24 | (long) (chars.charAt(c + 5) & 0xFF) << 16
+                    | (long) (chars.charAt(c + 6) & 0xFF) << 8 | (long) (chars.charAt(c + 7) & 0xFF);
+        }
+        if (i < count) {
+            long value = 0;
+            for (int j = 0; i + j < count; j++) {
+                value |= (long) (chars.charAt(offset + i + j) & 0xFF) << (56 - j * 8);
             }
+            block[i >>> 3] = value;
         }
-        return value;
     }
 
-    private static byte[] padInput(byte[] input, int length) {
-        int paddingLength = BLOCK_SIZE - ((length + 16) % BLOCK_SIZE);
-        byte[] padded = new byte[length + paddingLength + 16];
+    // Legt count Bytes ab offset big-endian in die Blockwörter, ein angebrochenes Wort wird mit Nullen aufgefüllt
+    static void loadBytes(byte[] bytes, int offset, int count, long[] block) {
+        int i = 0;
+        for (; i + 8 <= count; i += 8) {
+            block[i >>> 3] = (long) LONG_BE.get(bytes, offset + i);
+        }
+        if (i < count) {
+            long value = 0;
+            for (int j = 0; i + j < count; j++) {
+                value |= (long) (bytes[offset + i + j] & 0xFF) << (56 - j * 8);
+            }
+            block[i >>> 3] = value;
+        }
+    }
 
-        System.arraycopy(input, 0, padded, 0, length);
-        padded[length] = (byte) 0x80;
+    // Wie loadBytes, liest aber absolut ab index aus dem Puffer (Heap, direkt oder read-only) ohne Kopie
+    static void loadBytes(ByteBuffer buffer, int index, int count, long[] block) {
+        boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        int i = 0;
+        for (; i + 8 <= count; i += 8) {
+            long value = buffer.getLong(index + i);
+            block[i >>> 3] = bigEndian ? value : Long.reverseBytes(value);
+        }
+        if (i < count) {
+            long value = 0;
+            for (int j = 0; i + j < count; j++) {
+                value |= (long) (buffer.get(index + i + j) & 0xFF) << (56 - j * 8);
+            }
+            block[i >>> 3] = value;
+        }
+    }
 
-        long bitLength = length * 8L;
-        for (int i = 0; i < 8; i++) {
-            padded[padded.length - 16 + i] = (byte) (bitLength >>> (i * 8));
-            padded[padded.length - 8 + i] = (byte) ~(bitLength >>> ((7 - i) * 8));
+    static void loadBytes(MemorySegment segment, long offset, int count, long[] block) {
+        int i = 0;
+        for (; i + 8 <= count; i += 8) {
+            block[i >>> 3] = segment.get(LONG_BE_UNALIGNED, offset + i);
+        }
+        if (i < count) {
+            long value = 0;
+            for (int j = 0; i + j < count; j++) {
+                value |= (long) (segment.get(ValueLayout.JAVA_BYTE, offset + i + j) & 0xFF) << (56 - j * 8);
+            }
+            block[i >>> 3] = value;
         }
+    }
+
+    // Padding direkt auf den Blockwörtern: 0x80-Marker, Nullen, Bitlänge little-endian und invertiert big-endian.
+    // Erwartet die ersten length Bytes in block, liefert die Anzahl der Blockwörter (8 oder 16).
+    static int padBlock(long[] block, int length, long bitLength) {
+        int words = length + 16 < BLOCK_SIZE ? BLOCK_WORDS : MAX_BLOCK_WORDS;
+        int markerWord = length >>> 3;
+        int markerShift = 56 - ((length & 7) << 3);
 
-        return padded;
+        block[markerWord] = ((length & 7) == 0 ? 0 : block[markerWord]) | (0x80L << markerShift);
+        for (int i = markerWord + 1; i < words - 2; i++) {
+            block[i] = 0;
+        }
+        block[words - 2] = Long.reverseBytes(bitLength);
+        block[words - 1] = ~bitLength;
+        return words;
     }
 
-    private static long[] initializeState(int inputLength) {
-        long[] state = new long[STATE_SIZE];
+    static void initializeState(long[] state, long inputLength) {
         for (int i = 0; i < STATE_SIZE; i++) {
-            state[i] = INITIAL_VALUES[i] ^ ((long) inputLength * 0x1B + i * 0x7F);
+            state[i] = INITIAL_VALUES[i] ^ (inputLength * 0x1B + i * 0x7F);
         }
-        return state;
     }
 
-    private static void processBlock(long[] block, long[] state) {
+    // Verarbeitet die ersten words Wörter von workspace als einen Block; workspace hat WORKSPACE_SIZE Einträge
+    static void processBlock(long[] state, long[] workspace, int words) {
+        for (int i = 0; i < words; i++) {
+            workspace[MAX_BLOCK_WORDS + i] = applySBoxToLong(workspace[i]);
+        }
+
         long a = state[0], b = state[1], c = state[2], d = state[3];
         long e = state[4], f = state[5], g = state[6], h = state[7];
 
-        for (int r = 0; r < BASE_ROUNDS; r++) {
-            long k = ROUND_CONSTANTS[r % ROUND_CONSTANTS.length] ^ block[r % block.length];
+        for (int r = 0, i = 0; r < BASE_ROUNDS; r++) {
+            long k = ROUND_CONSTANTS[r % ROUND_CONSTANTS.length] ^ workspace[i];
             long ch = (e & f) ^ (~e & g);
             long maj = (a & b) ^ (a & c) ^ (b & c);
             long sigma0 = rotateRight(a, 28) ^ rotateRight(a, 34) ^ rotateRight(a, 39);
             long sigma1 = rotateRight(e, 14) ^ rotateRight(e, 18) ^ rotateRight(e, 41);
 
-            long t1 = h + sigma1 + ch + k + applySBoxToLong(block[r % block.length]);
+            long t1 = h + sigma1 + ch + k + workspace[MAX_BLOCK_WORDS + i];
             long t2 = sigma0 + maj;
 
             h = g;
@@ -204,53 +519,70 @@ public class DavoHash512 {
             b = a;
             a = t1 + t2;
 
-            if (r % 10 == 0) applyDynamicPBox(state, r);
             // Dummy-Operationen für Timing-Konsistenz
             a ^= (a + r) & 0xFF;
+            if (++i == words) i = 0;
         }
 
+        // Die P-Box-Runden wirken nur auf das Zustandsarray, nicht auf a..h, und werden daher in einem Schritt angewendet
+        int copy = 2 * MAX_BLOCK_WORDS;
+        System.arraycopy(state, 0, workspace, copy, STATE_SIZE);
+        long mix = avalancheMix(a + b + c + d + e + f + g + h);
         for (int i = 0; i < STATE_SIZE; i++) {
-            state[i] ^= avalancheMix(a + b + c + d + e + f + g + h);
+            long value = workspace[copy + P_BOX_COMPOSITE[i]];
+            state[i] = (P_BOX_REVERSE ? Long.reverse(value) : value) ^ mix;
         }
     }
 
-    private static void applyDynamicPBox(long[] state, int round) {
-        int[] dynamicPBox = new int[P_BOX.length];
-        for (int i = 0; i < P_BOX.length; i++) {
-            dynamicPBox[i] = (P_BOX[i] + round * 3) % STATE_SIZE;
-        }
-
-        long[] temp = state.clone();
-        for (int i = 0; i < STATE_SIZE; i++) {
-            state[i] = Long.reverse(temp[dynamicPBox[i]]);
-        }
+    static long applySBoxToLong(long value) {
+        return S_BOX_TABLE[(int) (value >>> 56)]
+                | S_BOX_TABLE[256 | (int) (value >>> 48) & 0xFF]
+                | S_BOX_TABLE[512 | (int) (value >>> 40) & 0xFF]
+                | S_BOX_TABLE[768 | (int) (value >>> 32) & 0xFF]
+                | S_BOX_TABLE[1024 | (int) (value >>> 24) & 0xFF]
+                | S_BOX_TABLE[1280 | (int) (value >>> 16) & 0xFF]
+                | S_BOX_TABLE[1536 | (int) (value >>> 8) & 0xFF]
+                | S_BOX_TABLE[1792 | (int) value & 0xFF];
     }
 
-    private static long applySBoxToLong(long value) {
-        byte[] bytes = longToBytes(value);
-        for (int i = 0; i < bytes.length; i++) {
-            int index = bytes[i] & 0xFF;
-            bytes[i] = (byte) S_BOX[index % S_BOX.length];
+    private static long[] buildSBoxTable() {
+        long[] table = new long[8 * 256];
+        for (int position = 0; position < 8; position++) {
+            for (int index = 0; index < 256; index++) {
+                table[position * 256 + index] = (long) S_BOX[index % S_BOX.length] << ((7 - position) * 8);
+            }
         }
-        return bytesToLong(bytes);
+        return table;
     }
 
-    private static byte[] longToBytes(long value) {
-        return new byte[]{
-                (byte) (value >> 56), (byte) (value >> 48), (byte) (value >> 40), (byte) (value >> 32),
-                (byte) (value >> 24), (byte) (value >> 16), (byte) (value >> 8), (byte) value
-        };
+    private static int[][] buildPBoxRounds() {
+        int[][] rounds = new int[(BASE_ROUNDS + 9) / 10][STATE_SIZE];
+        for (int n = 0; n < rounds.length; n++) {
+            int round = n * 10;
+            for (int i = 0; i < STATE_SIZE; i++) {
+                rounds[n][i] = (P_BOX[i] + round * 3) % STATE_SIZE;
+            }
+        }
+        return rounds;
     }
 
-    private static long bytesToLong(byte[] bytes) {
-        long value = 0;
-        for (int i = 0; i < bytes.length; i++) {
-            value |= ((long) (bytes[i] & 0xFF)) << ((7 - i) * 8);
+    // state'[i] = state[dynamicPBox[i]] nacheinander angewendet ergibt state[composite[i]]
+    private static int[] composePBoxRounds(int[][] rounds) {
+        int[] composite = new int[STATE_SIZE];
+        for (int i = 0; i < STATE_SIZE; i++) {
+            composite[i] = i;
+        }
+        for (int[] dynamicPBox : rounds) {
+            int[] next = new int[STATE_SIZE];
+            for (int i = 0; i < STATE_SIZE; i++) {
+                next[i] = composite[dynamicPBox[i]];
+            }
+            composite = next;
         }
-        return value;
+        return composite;
     }
 
-    private static void doubleFinalization(long[] state) {
+    static void doubleFinalization(long[] state) {
         for (int round = 0; round < 24; round++) {
             for (int i = 0; i < STATE_SIZE; i++) {
                 long value = state[i];
@@ -262,7 +594,7 @@ public class DavoHash512 {
         }
     }
 
-    private static long avalancheMix(long x) {
+    static long avalancheMix(long x) {
         x ^= x >>> 29;
         x *= 0xBF58476D1CE4E5B9L;
         x ^= x >>> 27;
@@ -275,14 +607,325 @@ public class DavoHash512 {
         return (value >>> bits) | (value << (WORD_SIZE - bits));
     }
 
+    private static final class Scratch {
+        final long[] state = new long[STATE_SIZE];
+        final long[] workspace = new long[WORKSPACE_SIZE];
+    }
+
     private static byte[] buildHashBytes(long[] state) {
-        byte[] hashBytes = new byte[STATE_SIZE * 8];
-        for (int i = 0; i < state.length; i++) {
-            long value = state[i];
-            for (int j = 0; j < 8; j++) {
-                hashBytes[i * 8 + j] = (byte) (value >> (56 - j * 8));
+        byte[] hashBytes = new byte[DIGEST_LENGTH];
+        writeHashBytes(state, hashBytes, 0);
+        return hashBytes;
+    }
+
+    static void writeHashBytes(long[] state, byte[] out, int offset) {
+        for (int i = 0; i < STATE_SIZE; i++) {
+            LONG_BE.set(out, offset + i * 8, state[i]);
+        }
+    }
+
+    /**
+     * Zwischenstand des Stream-Modus nach prefix, von dem aus beliebig viele Suffixe gehasht werden können.
+     * {@code prefix(p).hash(s)} entspricht {@code new Digest().update(p).update(s).digest()}.
+     */
+    public static Midstate prefix(byte[] prefix) {
+        return prefix(prefix, 0, prefix.length);
+    }
+
+    public static Midstate prefix(byte[] prefix, int offset, int length) {
+        return new Midstate(new Digest().update(prefix, offset, length));
+    }
+
+    /**
+     * Inkrementeller DavoHash512 für Daten beliebiger Größe mit konstantem Speicherbedarf.
+     * <p>
+     * Da die Gesamtlänge beim Start nicht bekannt ist, startet der Zustand mit Länge 0 und die
+     * Gesamtlänge wird im abschließenden Padding-Block kodiert. Das Ergebnis unterscheidet sich daher
+     * von {@link #hash(String)} und {@link #hashFile(File)}, deren Startzustand von der Eingabelänge abhängt.
+     * Ist die Länge vorab bekannt, hasht ein mit {@link #forFile(long)} angelegter Digest stattdessen im Datei-Modus.
+     * Nach {@link #digest()} ist das Objekt zurückgesetzt und kann ohne neue Allokation wiederverwendet werden.
+     * Instanzen sind nicht threadsicher.
+     */
+    public static final class Digest {
+        private static final byte[] STATE_MAGIC = {'D', 'V', 'S'};
+        private static final byte STATE_VERSION = 1;
+        // Magic, Version, Gesamtlänge, Zustandswörter, Länge des angefangenen Blocks
+        private static final int STATE_HEADER = 3 + 1 + Long.BYTES + STATE_SIZE * Long.BYTES + 1;
+
+        /** Größte Länge von {@link #exportState()}: Kopf, angefangener Block und Prüfsumme. */
+        public static final int MAX_STATE_LENGTH = STATE_HEADER + BLOCK_SIZE - 1 + Integer.BYTES;
+
+        private final long[] state = new long[STATE_SIZE];
+        private final long[] workspace = new long[WORKSPACE_SIZE];
+        private final byte[] buffer = new byte[BLOCK_SIZE];
+        private int bufferLength;
+        private long totalLength;
+        // Angekündigte Länge im Datei-Modus, -1 im Stream-Modus
+        private long fileLength = -1;
+
+        public Digest() {
+            reset();
+        }
+
+        /**
+         * Digest im Datei-Modus für genau length Bytes: Das Ergebnis entspricht {@link #hashFile(Path)} einer Datei
+         * mit diesem Inhalt, sodass z. B. beim Kopieren oder Hochladen kein zweiter Lesedurchgang nötig ist.
+         * {@link #digest()} wirft eine {@link IllegalStateException}, wenn nicht genau length Bytes übergeben wurden.
+         */
+        public static Digest forFile(long length) {
+            if (length < 0) {
+                throw new IllegalArgumentException("Negative Dateilänge: " + length);
             }
+            Digest digest = new Digest();
+            digest.fileLength = length;
+            digest.reset();
+            return digest;
+        }
+
+        private Digest(Digest other) {
+            copyFrom(other);
+        }
+
+        /** Übernimmt den Zwischenstand von other in dieses Objekt, ohne Arrays anzulegen. */
+        Digest copyFrom(Digest other) {
+            System.arraycopy(other.state, 0, state, 0, STATE_SIZE);
+            System.arraycopy(other.buffer, 0, buffer, 0, other.bufferLength);
+            bufferLength = other.bufferLength;
+            totalLength = other.totalLength;
+            fileLength = other.fileLength;
+            return this;
+        }
+
+        public Digest update(byte input) {
+            buffer[bufferLength++] = input;
+            totalLength++;
+            if (bufferLength == BLOCK_SIZE) {
+                flushBuffer();
+            }
+            return this;
+        }
+
+        public Digest update(byte[] input) {
+            return update(input, 0, input.length);
+        }
+
+        public Digest update(byte[] input, int offset, int length) {
+            Objects.checkFromIndexSize(offset, length, input.length);
+            totalLength += length;
+
+            if (bufferLength > 0) {
+                int take = Math.min(length, BLOCK_SIZE - bufferLength);
+                System.arraycopy(input, offset, buffer, bufferLength, take);
+                bufferLength += take;
+                offset += take;
+                length -= take;
+                if (bufferLength < BLOCK_SIZE) return this;
+                flushBuffer();
+            }
+
+            // Volle Blöcke direkt aus der Eingabe verarbeiten
+            while (length >= BLOCK_SIZE) {
+                loadBytes(input, offset, BLOCK_SIZE, workspace);
+                processBlock(state, workspace, BLOCK_WORDS);
+                offset += BLOCK_SIZE;
+                length -= BLOCK_SIZE;
+            }
+
+            System.arraycopy(input, offset, buffer, 0, length);
+            bufferLength = length;
+            return this;
+        }
+
+        /** Verarbeitet alle verbleibenden Bytes des Puffers; die Position steht danach auf dem Limit. */
+        public Digest update(ByteBuffer input) {
+            if (input.hasArray()) {
+                int position = input.position();
+                update(input.array(), input.arrayOffset() + position, input.remaining());
+                input.position(input.limit());
+                return this;
+            }
+
+            int index = input.position();
+            int limit = input.limit();
+            totalLength += limit - index;
+
+            while (bufferLength > 0 && index < limit) {
+                buffer[bufferLength++] = input.get(index++);
+                if (bufferLength == BLOCK_SIZE) flushBuffer();
+            }
+            while (limit - index >= BLOCK_SIZE) {
+                loadBytes(input, index, BLOCK_SIZE, workspace);
+                processBlock(state, workspace, BLOCK_WORDS);
+                index += BLOCK_SIZE;
+            }
+            while (index < limit) {
+                buffer[bufferLength++] = input.get(index++);
+            }
+
+            input.position(limit);
+            return this;
+        }
+
+        public byte[] digest() {
+            byte[] out = new byte[DIGEST_LENGTH];
+            digest(out, 0);
+            return out;
+        }
+
+        /** Schreibt den Hash nach out ab offset, setzt den Digest zurück und liefert {@link #DIGEST_LENGTH}. */
+        public int digest(byte[] out, int offset) {
+            Objects.checkFromIndexSize(offset, DIGEST_LENGTH, out.length);
+
+            if (fileLength < 0) {
+                loadBytes(buffer, 0, bufferLength, workspace);
+                processBlock(state, workspace, padBlock(workspace, bufferLength, totalLength * 8));
+                DavoHashMetrics.record(DavoHashMetrics.Source.STREAM, totalLength, totalLength / BLOCK_SIZE + 1);
+            } else {
+                if (totalLength != fileLength) {
+                    throw new IllegalStateException("Datei-Modus erwartet " + fileLength + " Bytes, erhalten " + totalLength);
+                }
+                // Wie hashFile: nur ein angefangener letzter Block wird aufgefüllt
+                if (bufferLength > 0) {
+                    loadBytes(buffer, 0, bufferLength, workspace);
+                    processBlock(state, workspace, padBlock(workspace, bufferLength, bufferLength * 8L));
+                }
+                DavoHashMetrics.record(DavoHashMetrics.Source.FILE, totalLength, (totalLength + BLOCK_SIZE - 1) / BLOCK_SIZE);
+            }
+            doubleFinalization(state);
+            writeHashBytes(state, out, offset);
+
+            reset();
+            return DIGEST_LENGTH;
+        }
+
+        public void reset() {
+            initializeState(state, Math.max(fileLength, 0));
+            bufferLength = 0;
+            totalLength = 0;
+        }
+
+        /** Unabhängige Kopie des aktuellen Zwischenstands, z. B. für gemeinsame Präfixe. */
+        public Digest copy() {
+            return new Digest(this);
+        }
+
+        public long length() {
+            return totalLength;
+        }
+
+        /**
+         * Exportiert den Zwischenstand (Gesamtlänge, 8 Zustandswörter, angefangener Block) in eine kompakte,
+         * versionierte Form mit CRC32C, aus der {@link #restoreState(byte[])} den Digest auch in einem anderen
+         * Prozess wiederherstellt. Höchstens {@link #MAX_STATE_LENGTH} Bytes; der Digest bleibt unverändert.
+         * Nur im Stream-Modus möglich.
+         */
+        public byte[] exportState() {
+            if (fileLength >= 0) {
+                throw new IllegalStateException("Zwischenstände im Datei-Modus lassen sich nicht exportieren");
+            }
+            ByteBuffer out = ByteBuffer.allocate(STATE_HEADER + bufferLength + Integer.BYTES);
+            out.put(STATE_MAGIC).put(STATE_VERSION).putLong(totalLength);
+            for (long word : state) {
+                out.putLong(word);
+            }
+            out.put((byte) bufferLength).put(buffer, 0, bufferLength);
+            CRC32C crc = new CRC32C();
+            crc.update(out.array(), 0, out.position());
+            out.putInt((int) crc.getValue());
+            return out.array();
+        }
+
+        /** Stellt einen mit {@link #exportState()} exportierten Digest wieder her. */
+        public static Digest restoreState(byte[] exported) {
+            if (exported.length < STATE_HEADER + Integer.BYTES || exported.length > MAX_STATE_LENGTH) {
+                throw new IllegalArgumentException("Ungültige Länge des Digest-Zustands: " + exported.length);
+            }
+            ByteBuffer in = ByteBuffer.wrap(exported);
+            byte[] magic = new byte[STATE_MAGIC.length];
+            in.get(magic);
+            if (!Arrays.equals(magic, STATE_MAGIC)) {
+                throw new IllegalArgumentException("Kein exportierter Digest-Zustand");
+            }
+            byte version = in.get();
+            if (version != STATE_VERSION) {
+                throw new IllegalArgumentException("Nicht unterstützte Version des Digest-Zustands: " + version);
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(exported, 0, exported.length - Integer.BYTES);
+            if ((int) crc.getValue() != ByteBuffer.wrap(exported, exported.length - Integer.BYTES, Integer.BYTES).getInt()) {
+                throw new IllegalArgumentException("Prüfsumme des Digest-Zustands stimmt nicht");
+            }
+
+            Digest digest = new Digest();
+            digest.totalLength = in.getLong();
+            for (int i = 0; i < STATE_SIZE; i++) {
+                digest.state[i] = in.getLong();
+            }
+            int bufferLength = in.get() & 0xFF;
+            if (digest.totalLength < 0 || bufferLength != digest.totalLength % BLOCK_SIZE
+                    || exported.length != STATE_HEADER + bufferLength + Integer.BYTES) {
+                throw new IllegalArgumentException("Inkonsistenter Digest-Zustand: Länge " + digest.totalLength
+                        + ", angefangener Block " + bufferLength);
+            }
+            in.get(digest.buffer, 0, bufferLength);
+            digest.bufferLength = bufferLength;
+            return digest;
+        }
+
+        private void flushBuffer() {
+            loadBytes(buffer, 0, BLOCK_SIZE, workspace);
+            processBlock(state, workspace, BLOCK_WORDS);
+            bufferLength = 0;
+        }
+    }
+
+    /**
+     * Unveränderlicher Zwischenstand des Stream-Modus nach einem gemeinsamen Präfix (siehe {@link #prefix(byte[])}).
+     * Die vollen Präfixblöcke sind bereits verarbeitet, gehasht werden nur noch der Präfixrest (unter 64 Bytes),
+     * das Suffix und der Abschlussblock. Instanzen sind threadsicher und können z. B. in einem
+     * {@link MidstateCache} geteilt werden.
+     */
+    public static final class Midstate {
+        private static final ThreadLocal<Digest> SCRATCH = ThreadLocal.withInitial(Digest::new);
+
+        private final Digest snapshot;
+
+        private Midstate(Digest snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        public byte[] hash(byte[] suffix) {
+            return hash(suffix, 0, suffix.length);
+        }
+
+        public byte[] hash(byte[] suffix, int offset, int length) {
+            byte[] hashBytes = new byte[DIGEST_LENGTH];
+            hashInto(suffix, offset, length, hashBytes, 0);
+            return hashBytes;
+        }
+
+        public int hashInto(byte[] suffix, int offset, int length, byte[] out, int outOffset) {
+            return SCRATCH.get().copyFrom(snapshot).update(suffix, offset, length).digest(out, outOffset);
+        }
+
+        /** Verarbeitet die Bytes zwischen Position und Limit, die Position steht danach auf dem Limit. */
+        public byte[] hash(ByteBuffer suffix) {
+            return SCRATCH.get().copyFrom(snapshot).update(suffix).digest();
+        }
+
+        /** Neuer Midstate für ein längeres Präfix. */
+        public Midstate extend(byte[] more) {
+            return new Midstate(snapshot.copy().update(more));
+        }
+
+        /** Digest, der beim Präfix fortsetzt, z. B. für Suffixe aus mehreren Teilen. */
+        public Digest newDigest() {
+            return snapshot.copy();
+        }
+
+        /** Länge des Präfixes in Bytes. */
+        public long length() {
+            return snapshot.length();
         }
-        return hashBytes;
     }
 }
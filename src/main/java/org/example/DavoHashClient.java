@@ -0,0 +1,178 @@
+package org.example;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Blockierender Client für {@link DavoHashServer}. Anfragen werden gepuffert und erst bei {@link #flush()} oder
+ * {@link #receive()} gesendet, sodass sich beliebig viele Anfragen ohne Warten hintereinander senden lassen;
+ * {@link #receive()} liefert die Antworten in Eingangsreihenfolge mit der ID der Anfrage. Nicht threadsicher,
+ * für parallele Last eine Verbindung je Thread verwenden.
+ * <p>
+ * Bei erreichten Grenzen liest der Server nicht weiter; wer sehr viel mehr als
+ * {@link DavoHashServer.Limits#maxPendingPerConnection()} Anfragen sendet, ohne Antworten abzuholen, blockiert
+ * deshalb irgendwann beim Schreiben.
+ */
+public final class DavoHashClient implements AutoCloseable {
+    /** Größe der Stream-Abschnitte, passend zur Standard-Rahmengrenze des Servers. */
+    public static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Antwort auf eine Anfrage: entweder ein Hash oder eine Fehlermeldung des Servers. */
+    public record Response(int id, byte[] digest, String error) {
+        public boolean ok() {
+            return error == null;
+        }
+    }
+
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE).flip();
+    private final ByteBuffer header = ByteBuffer.allocate(DavoHashProtocol.HEADER_SIZE);
+    private int nextId;
+
+    private DavoHashClient(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    public static DavoHashClient connect(SocketAddress address) throws IOException {
+        SocketChannel channel = address instanceof UnixDomainSocketAddress
+                ? SocketChannel.open(StandardProtocolFamily.UNIX)
+                : SocketChannel.open();
+        try {
+            channel.connect(address);
+            if (!(address instanceof UnixDomainSocketAddress)) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new DavoHashClient(channel);
+    }
+
+    /** Reiht eine Anfrage für {@link DavoHash512#hash(byte[])} ein und liefert ihre ID. */
+    public int sendHash(byte[] message) throws IOException {
+        return sendHash(message, 0, message.length);
+    }
+
+    public int sendHash(byte[] message, int offset, int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, message.length);
+        int id = nextId++;
+        writeFrame(DavoHashProtocol.HASH, id, ByteBuffer.wrap(message, offset, length));
+        return id;
+    }
+
+    /**
+     * Sendet den ganzen Inhalt von source in Abschnitten von chunkSize Bytes; die Antwort ist der Stream-Modus
+     * ({@code new Digest().update(inhalt).digest()}). Liefert die ID der Anfrage.
+     */
+    public int sendStream(ReadableByteChannel source, int chunkSize) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize muss positiv sein: " + chunkSize);
+        }
+        int id = nextId++;
+        ByteBuffer chunk = ByteBuffer.allocate(chunkSize);
+        boolean end = false;
+        while (!end) {
+            chunk.clear();
+            while (chunk.hasRemaining()) {
+                if (source.read(chunk) < 0) {
+                    end = true;
+                    break;
+                }
+            }
+            writeFrame(end ? DavoHashProtocol.STREAM_END : DavoHashProtocol.STREAM, id, chunk.flip());
+        }
+        return id;
+    }
+
+    public int sendStream(ReadableByteChannel source) throws IOException {
+        return sendStream(source, DEFAULT_CHUNK_SIZE);
+    }
+
+    /** Sendet alle gepufferten Anfragen. */
+    public void flush() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /** Sendet ausstehende Anfragen und wartet auf die nächste Antwort. */
+    public Response receive() throws IOException {
+        if (out.position() > 0) flush();
+        fill(DavoHashProtocol.HEADER_SIZE);
+        byte status = in.get();
+        int id = in.getInt();
+        int length = in.getInt();
+        if (length < 0 || (status == DavoHashProtocol.OK && length != DavoHash512.DIGEST_LENGTH) || length > BUFFER_SIZE) {
+            throw new IOException("Ungültige Antwort: Status " + status + ", Länge " + length);
+        }
+        fill(length);
+        byte[] body = new byte[length];
+        in.get(body);
+        return status == DavoHashProtocol.OK
+                ? new Response(id, body, null)
+                : new Response(id, null, new String(body, StandardCharsets.UTF_8));
+    }
+
+    /** Hasht eine einzelne Nachricht synchron; es dürfen keine anderen Anfragen ausstehen. */
+    public byte[] hash(byte[] message) throws IOException {
+        int id = sendHash(message);
+        Response response = receive();
+        if (response.id() != id) {
+            throw new IllegalStateException("Antwort auf Anfrage " + response.id() + " statt " + id + ", es standen noch Anfragen aus");
+        }
+        if (!response.ok()) {
+            throw new IOException("Server meldet: " + response.error());
+        }
+        return response.digest();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void writeFrame(byte type, int id, ByteBuffer payload) throws IOException {
+        if (out.remaining() < DavoHashProtocol.HEADER_SIZE) flush();
+        header.clear();
+        DavoHashProtocol.putHeader(header, type, id, payload.remaining());
+        out.put(header.flip());
+        if (payload.remaining() <= out.remaining()) {
+            out.put(payload);
+            return;
+        }
+        // Große Nutzdaten direkt schreiben statt sie durch den Puffer zu kopieren
+        flush();
+        while (payload.hasRemaining()) {
+            channel.write(payload);
+        }
+    }
+
+    // Stellt sicher, dass mindestens count Bytes gelesen im Puffer liegen
+    private void fill(int count) throws IOException {
+        if (in.remaining() >= count) return;
+        in.compact();
+        try {
+            while (in.position() < count) {
+                if (channel.read(in) < 0) {
+                    throw new EOFException("Verbindung vom Server geschlossen");
+                }
+            }
+        } finally {
+            in.flip();
+        }
+    }
+}
@@ -0,0 +1,489 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * Hex- und Base64-Kodierung für Hashwerte über Nachschlagetabellen. Die Encoder schreiben direkt in
+ * {@code char[]}, {@code byte[]} (ASCII), {@link StringBuilder} oder {@link ByteBuffer} des Aufrufers, ohne
+ * Zwischenobjekte. Die Decoder prüfen jedes Zeichen und werfen bei ungültiger Eingabe eine
+ * {@link IllegalArgumentException}; der Inhalt des Zielbereichs ist in diesem Fall undefiniert.
+ * <p>
+ * Hex wird klein geschrieben ausgegeben, beim Dekodieren sind beide Schreibweisen erlaubt. Base64 folgt
+ * RFC 4648: {@link Base64Alphabet#STANDARD} mit Padding, {@link Base64Alphabet#URL} ohne Padding.
+ */
+public final class DavoHashCodec {
+    public static final int HEX_DIGEST_LENGTH = 2 * DavoHash512.DIGEST_LENGTH;
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    // Wert eines ASCII-Zeichens, -1 für ungültige Zeichen; Zeichen >= 128 werden vor dem Zugriff ausmaskiert
+    private static final byte[] HEX_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(HEX_VALUES, (byte) -1);
+        for (int i = 0; i < 16; i++) {
+            HEX_VALUES[HEX_DIGITS[i]] = (byte) i;
+            HEX_VALUES[Character.toUpperCase(HEX_DIGITS[i])] = (byte) i;
+        }
+    }
+
+    public enum Base64Alphabet {
+        STANDARD("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/", true),
+        URL("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_", false);
+
+        private final byte[] digits;
+        private final byte[] values = new byte[128];
+        private final boolean padded;
+
+        Base64Alphabet(String digits, boolean padded) {
+            this.digits = digits.getBytes(StandardCharsets.US_ASCII);
+            this.padded = padded;
+            Arrays.fill(values, (byte) -1);
+            for (int i = 0; i < 64; i++) {
+                values[this.digits[i]] = (byte) i;
+            }
+        }
+
+        public boolean padded() {
+            return padded;
+        }
+
+        /** Anzahl der Zeichen für length Bytes. */
+        public int encodedLength(int length) {
+            return padded ? (length + 2) / 3 * 4 : (length * 4 + 2) / 3;
+        }
+
+        // Vier Zeichen für bis zu drei Bytes, gepackt als c0 << 24 | c1 << 16 | c2 << 8 | c3
+        private int quad(int bits) {
+            return digits[bits >>> 18 & 63] << 24 | digits[bits >>> 12 & 63] << 16
+                    | digits[bits >>> 6 & 63] << 8 | digits[bits & 63];
+        }
+
+        // Wert eines Zeichens oder eine negative Zahl
+        private int value(int c) {
+            return values[c & 0x7F] | (0x7F - c) >> 31;
+        }
+    }
+
+    private DavoHashCodec() {
+    }
+
+    public static String toHex(byte[] bytes) {
+        byte[] ascii = new byte[2 * bytes.length];
+        encodeHex(bytes, 0, bytes.length, ascii, 0);
+        return new String(ascii, StandardCharsets.ISO_8859_1);
+    }
+
+    /** Schreibt 2 * length Zeichen nach dst ab dstOffset und liefert deren Anzahl. */
+    public static int encodeHex(byte[] src, int offset, int length, char[] dst, int dstOffset) {
+        Objects.checkFromIndexSize(offset, length, src.length);
+        Objects.checkFromIndexSize(dstOffset, 2 * length, dst.length);
+        for (int i = 0; i < length; i++) {
+            int b = src[offset + i];
+            dst[dstOffset++] = (char) HEX_DIGITS[b >> 4 & 15];
+            dst[dstOffset++] = (char) HEX_DIGITS[b & 15];
+        }
+        return 2 * length;
+    }
+
+    /** Wie {@link #encodeHex(byte[], int, int, char[], int)}, aber als ASCII-Bytes. */
+    public static int encodeHex(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        Objects.checkFromIndexSize(offset, length, src.length);
+        Objects.checkFromIndexSize(dstOffset, 2 * length, dst.length);
+        for (int i = 0; i < length; i++) {
+            int b = src[offset + i];
+            dst[dstOffset++] = HEX_DIGITS[b >> 4 & 15];
+            dst[dstOffset++] = HEX_DIGITS[b & 15];
+        }
+        return 2 * length;
+    }
+
+    /** Schreibt die ASCII-Zeichen ab der Position des Puffers und rückt sie vor. */
+    public static int encodeHex(byte[] src, int offset, int length, ByteBuffer dst) {
+        Objects.checkFromIndexSize(offset, length, src.length);
+        if (dst.remaining() < 2 * length) {
+            throw new IllegalArgumentException("Zu wenig Platz im Puffer: " + dst.remaining() + " für " + 2 * length + " Zeichen");
+        }
+        for (int i = 0; i < length; i++) {
+            int b = src[offset + i];
+            dst.put(HEX_DIGITS[b >> 4 & 15]).put(HEX_DIGITS[b & 15]);
+        }
+        return 2 * length;
+    }
+
+    public static StringBuilder appendHex(byte[] src, int offset, int length, StringBuilder dst) {
+        Objects.checkFromIndexSize(offset, length, src.length);
+        dst.ensureCapacity(dst.length() + 2 * length);
+        for (int i = 0; i < length; i++) {
+            int b = src[offset + i];
+            dst.append((char) HEX_DIGITS[b >> 4 & 15]).append((char) HEX_DIGITS[b & 15]);
+        }
+        return dst;
+    }
+
+    public static byte[] fromHex(CharSequence hex) {
+        if ((hex.length() & 1) != 0) {
+            throw new IllegalArgumentException("Hex-Zeichenkette mit ungerader Länge: " + hex.length());
+        }
+        byte[] bytes = new byte[hex.length() / 2];
+        decodeHex(hex, 0, hex.length(), bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Dekodiert length Hex-Zeichen ab offset nach dst ab dstOffset und liefert die Anzahl der Bytes.
+     * Ungültige Zeichen werden in der Schleife nur aufgesammelt, die Fehlerposition erst danach gesucht.
+     */
+    public static int decodeHex(CharSequence hex, int offset, int length, byte[] dst, int dstOffset) {
+        Objects.checkFromIndexSize(offset, length, hex.length());
+        if ((length & 1) != 0) {
+            throw new IllegalArgumentException("Hex-Zeichenkette mit ungerader Länge: " + length);
+        }
+        Objects.checkFromIndexSize(dstOffset, length / 2, dst.length);
+
+        int invalid = 0;
+        for (int i = offset, end = offset + length; i < end; i += 2) {
+            int high = hexValue(hex.charAt(i));
+            int low = hexValue(hex.charAt(i + 1));
+            invalid |= high | low;
+            dst[dstOffset++] = (byte) (high << 4 | low);
+        }
+        if (invalid < 0) {
+            throw invalidCharacter(hex, offset, length, "Hex", c -> hexValue(c) < 0);
+        }
+        return length / 2;
+    }
+
+    private static int hexValue(int c) {
+        return HEX_VALUES[c & 0x7F] | (0x7F - c) >> 31;
+    }
+
+    public static String toBase64(byte[] bytes, Base64Alphabet alphabet) {
+        byte[] ascii = new byte[alphabet.encodedLength(bytes.length)];
+        encodeBase64(bytes, 0, bytes.length, ascii, 0, alphabet);
+        return new String(ascii, StandardCharsets.ISO_8859_1);
+    }
+
+    /** Schreibt {@link Base64Alphabet#encodedLength(int)} Zeichen nach dst ab dstOffset und liefert deren Anzahl. */
+    public static int encodeBase64(byte[] src, int offset, int length, char[] dst, int dstOffset, Base64Alphabet alphabet) {
+        int encoded = alphabet.encodedLength(length);
+        Objects.checkFromIndexSize(offset, length, src.length);
+        Objects.checkFromIndexSize(dstOffset, encoded, dst.length);
+
+        int end = offset + length - length % 3;
+        for (int i = offset; i < end; i += 3) {
+            int quad = alphabet.quad(triple(src, i, 3));
+            dst[dstOffset++] = (char) (quad >>> 24);
+            dst[dstOffset++] = (char) (quad >>> 16 & 0xFF);
+            dst[dstOffset++] = (char) (quad >>> 8 & 0xFF);
+            dst[dstOffset++] = (char) (quad & 0xFF);
+        }
+        int rest = length % 3;
+        if (rest > 0) {
+            int quad = alphabet.quad(triple(src, end, rest));
+            int chars = tailChars(rest, alphabet);
+            for (int shift = 24, j = 0; j < chars; j++, shift -= 8) {
+                dst[dstOffset++] = j <= rest ? (char) (quad >>> shift & 0xFF) : '=';
+            }
+        }
+        return encoded;
+    }
+
+    /** Wie {@link #encodeBase64(byte[], int, int, char[], int, Base64Alphabet)}, aber als ASCII-Bytes. */
+    public static int encodeBase64(byte[] src, int offset, int length, byte[] dst, int dstOffset, Base64Alphabet alphabet) {
+        int encoded = alphabet.encodedLength(length);
+        Objects.checkFromIndexSize(offset, length, src.length);
+        Objects.checkFromIndexSize(dstOffset, encoded, dst.length);
+
+        int end = offset + length - length % 3;
+        for (int i = offset; i < end; i += 3) {
+            int quad = alphabet.quad(triple(src, i, 3));
+            dst[dstOffset++] = (byte) (quad >>> 24);
+            dst[dstOffset++] = (byte) (quad >>> 16);
+            dst[dstOffset++] = (byte) (quad >>> 8);
+            dst[dstOffset++] = (byte) quad;
+        }
+        int rest = length % 3;
+        if (rest > 0) {
+            int quad = alphabet.quad(triple(src, end, rest));
+            int chars = tailChars(rest, alphabet);
+            for (int shift = 24, j = 0; j < chars; j++, shift -= 8) {
+                dst[dstOffset++] = j <= rest ? (byte) (quad >>> shift) : (byte) '=';
+            }
+        }
+        return encoded;
+    }
+
+    /** Schreibt die ASCII-Zeichen ab der Position des Puffers und rückt sie vor. */
+    public static int encodeBase64(byte[] src, int offset, int length, ByteBuffer dst, Base64Alphabet alphabet) {
+        int encoded = alphabet.encodedLength(length);
+        Objects.checkFromIndexSize(offset, length, src.length);
+        if (dst.remaining() < encoded) {
+            throw new IllegalArgumentException("Zu wenig Platz im Puffer: " + dst.remaining() + " für " + encoded + " Zeichen");
+        }
+
+        int end = offset + length - length % 3;
+        for (int i = offset; i < end; i += 3) {
+            dst.putInt(alphabet.quad(triple(src, i, 3)));
+        }
+        int rest = length % 3;
+        if (rest > 0) {
+            int quad = alphabet.quad(triple(src, end, rest));
+            int chars = tailChars(rest, alphabet);
+            for (int shift = 24, j = 0; j < chars; j++, shift -= 8) {
+                dst.put(j <= rest ? (byte) (quad >>> shift) : (byte) '=');
+            }
+        }
+        return encoded;
+    }
+
+    public static StringBuilder appendBase64(byte[] src, int offset, int length, StringBuilder dst, Base64Alphabet alphabet) {
+        Objects.checkFromIndexSize(offset, length, src.length);
+        dst.ensureCapacity(dst.length() + alphabet.encodedLength(length));
+
+        int end = offset + length - length % 3;
+        for (int i = offset; i < end; i += 3) {
+            int quad = alphabet.quad(triple(src, i, 3));
+            dst.append((char) (quad >>> 24)).append((char) (quad >>> 16 & 0xFF))
+                    .append((char) (quad >>> 8 & 0xFF)).append((char) (quad & 0xFF));
+        }
+        int rest = length % 3;
+        if (rest > 0) {
+            int quad = alphabet.quad(triple(src, end, rest));
+            int chars = tailChars(rest, alphabet);
+            for (int shift = 24, j = 0; j < chars; j++, shift -= 8) {
+                dst.append(j <= rest ? (char) (quad >>> shift & 0xFF) : '=');
+            }
+        }
+        return dst;
+    }
+
+    public static byte[] fromBase64(CharSequence base64, Base64Alphabet alphabet) {
+        byte[] bytes = new byte[decodedBase64Length(base64, 0, base64.length(), alphabet)];
+        decodeBase64(base64, 0, base64.length(), bytes, 0, alphabet);
+        return bytes;
+    }
+
+    /** Anzahl der Bytes, die length Zeichen ab offset ergeben; prüft Länge und Padding, nicht aber die Zeichen. */
+    public static int decodedBase64Length(CharSequence base64, int offset, int length, Base64Alphabet alphabet) {
+        int chars = dataChars(base64, offset, length, alphabet);
+        return chars / 4 * 3 + Math.max(0, chars % 4 - 1);
+    }
+
+    // Zeichen ohne Padding
+    private static int dataChars(CharSequence base64, int offset, int length, Base64Alphabet alphabet) {
+        Objects.checkFromIndexSize(offset, length, base64.length());
+        if (!alphabet.padded) {
+            if (length % 4 == 1) {
+                throw new IllegalArgumentException("Ungültige Base64-Länge: " + length);
+            }
+            return length;
+        }
+        if (length % 4 != 0) {
+            throw new IllegalArgumentException("Base64-Länge ist kein Vielfaches von 4: " + length);
+        }
+        int padding = 0;
+        while (padding < 2 && padding < length && base64.charAt(offset + length - 1 - padding) == '=') {
+            padding++;
+        }
+        return length - padding;
+    }
+
+    /**
+     * Dekodiert length Base64-Zeichen ab offset nach dst ab dstOffset und liefert die Anzahl der Bytes.
+     * Abgelehnt werden fremde Zeichen, Padding an falscher Stelle und nicht kanonische Endbits.
+     */
+    public static int decodeBase64(CharSequence base64, int offset, int length, byte[] dst, int dstOffset, Base64Alphabet alphabet) {
+        int chars = dataChars(base64, offset, length, alphabet);
+        int decoded = chars / 4 * 3 + Math.max(0, chars % 4 - 1);
+        Objects.checkFromIndexSize(dstOffset, decoded, dst.length);
+
+        int fullEnd = offset + chars - chars % 4;
+        int invalid = 0;
+        for (int i = offset; i < fullEnd; i += 4) {
+            int a = alphabet.value(base64.charAt(i));
+            int b = alphabet.value(base64.charAt(i + 1));
+            int c = alphabet.value(base64.charAt(i + 2));
+            int d = alphabet.value(base64.charAt(i + 3));
+            invalid |= a | b | c | d;
+            int bits = a << 18 | b << 12 | c << 6 | d;
+            dst[dstOffset++] = (byte) (bits >> 16);
+            dst[dstOffset++] = (byte) (bits >> 8);
+            dst[dstOffset++] = (byte) bits;
+        }
+
+        int tail = chars % 4;
+        if (tail > 0) {
+            int bits = 0;
+            for (int j = 0; j < tail; j++) {
+                int value = alphabet.value(base64.charAt(fullEnd + j));
+                invalid |= value;
+                bits |= value << 18 - 6 * j;
+            }
+            // Zwei Zeichen tragen ein Byte (4 Restbits), drei Zeichen zwei Bytes (2 Restbits)
+            if (invalid >= 0 && (bits & (tail == 2 ? 0xFFFF : 0xFF)) != 0) {
+                throw new IllegalArgumentException("Nicht kanonische Base64-Endbits an Position " + (fullEnd + tail - 1));
+            }
+            dst[dstOffset++] = (byte) (bits >> 16);
+            if (tail == 3) dst[dstOffset] = (byte) (bits >> 8);
+        }
+
+        if (invalid < 0) {
+            throw invalidCharacter(base64, offset, chars, "Base64", c -> alphabet.value(c) < 0);
+        }
+        return decoded;
+    }
+
+    private static int triple(byte[] src, int offset, int count) {
+        int bits = (src[offset] & 0xFF) << 16;
+        if (count > 1) bits |= (src[offset + 1] & 0xFF) << 8;
+        if (count > 2) bits |= src[offset + 2] & 0xFF;
+        return bits;
+    }
+
+    // Zeichen für einen Rest von einem oder zwei Bytes, mit Padding immer vier
+    private static int tailChars(int rest, Base64Alphabet alphabet) {
+        return alphabet.padded ? 4 : rest + 1;
+    }
+
+    private static IllegalArgumentException invalidCharacter(CharSequence text, int offset, int length, String format, IntPredicate invalid) {
+        for (int i = offset; i < offset + length; i++) {
+            if (invalid.test(text.charAt(i))) {
+                return new IllegalArgumentException("Ungültiges " + format + "-Zeichen '" + text.charAt(i) + "' an Position " + i);
+            }
+        }
+        return new IllegalArgumentException("Ungültige " + format + "-Zeichenkette");
+    }
+
+    // Dateinamen mit Backslash oder Zeilenumbruch werden wie bei sha512sum maskiert, die Zeile beginnt dann mit "\"
+    static boolean needsEscaping(String name) {
+        return name.indexOf('\\') >= 0 || name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0;
+    }
+
+    static StringBuilder appendEscaped(String name, StringBuilder dst) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            switch (c) {
+                case '\\' -> dst.append("\\\\");
+                case '\n' -> dst.append("\\n");
+                case '\r' -> dst.append("\\r");
+                default -> dst.append(c);
+            }
+        }
+        return dst;
+    }
+
+    // Umkehrung von appendEscaped; null bei ungültiger Maskierung
+    static String unescape(String name) {
+        StringBuilder unescaped = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c != '\\') {
+                unescaped.append(c);
+                continue;
+            }
+            if (++i == name.length()) return null;
+            switch (name.charAt(i)) {
+                case '\\' -> unescaped.append('\\');
+                case 'n' -> unescaped.append('\n');
+                case 'r' -> unescaped.append('\r');
+                default -> {
+                    return null;
+                }
+            }
+        }
+        return unescaped.toString();
+    }
+
+    /**
+     * Schreibt Manifestzeilen {@code pfad  hex} direkt in einen {@link WritableByteChannel}. Pfad (UTF-8) und
+     * Hex-Ziffern werden in einen wiederverwendeten Direktpuffer kodiert, der nur bei Bedarf geleert wird.
+     * Pfade mit Backslash oder Zeilenumbruch werden wie bei {@code sha512sum} maskiert ({@code \\}, {@code \n},
+     * {@code \r}) und die Zeile mit einem Backslash eingeleitet. Nicht threadsicher.
+     */
+    public static final class ManifestWriter implements Flushable, Closeable {
+        public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+        private static final byte[] SEPARATOR = {' ', ' '};
+
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        public ManifestWriter(WritableByteChannel channel) {
+            this(channel, DEFAULT_BUFFER_SIZE);
+        }
+
+        public ManifestWriter(WritableByteChannel channel, int bufferSize) {
+            if (bufferSize < HEX_DIGEST_LENGTH + SEPARATOR.length + 1) {
+                throw new IllegalArgumentException("Puffer zu klein für eine Hex-Zeile: " + bufferSize);
+            }
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        public void write(String path, byte[] digest) throws IOException {
+            int hexLength = 2 * digest.length;
+            if (hexLength + SEPARATOR.length + 1 > buffer.capacity()) {
+                throw new IllegalArgumentException("Hash zu lang für den Puffer: " + digest.length + " Bytes");
+            }
+
+            CharBuffer chars;
+            if (needsEscaping(path)) {
+                if (!buffer.hasRemaining()) drain();
+                buffer.put((byte) '\\');
+                chars = CharBuffer.wrap(appendEscaped(path, new StringBuilder(path.length() + 8)));
+            } else {
+                chars = CharBuffer.wrap(path);
+            }
+            encoder.reset();
+            while (encoder.encode(chars, buffer, true).isOverflow()) {
+                drain();
+            }
+            while (encoder.flush(buffer).isOverflow()) {
+                drain();
+            }
+
+            if (buffer.remaining() < hexLength + SEPARATOR.length + 1) {
+                drain();
+            }
+            buffer.put(SEPARATOR);
+            encodeHex(digest, 0, digest.length, buffer);
+            buffer.put((byte) '\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            drain();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                channel.close();
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-Ereignis je Hash-Aufruf, nur bei eingeschalteten {@link DavoHashMetrics}. Die Dauer ist die des Ereignisses
+ * selbst, daher filtert der Schwellwert ({@code threshold}) kurze Aufrufe aus; Stream-Digests haben die Dauer 0.
+ * Der Stacktrace ist standardmäßig aus und lässt sich je Aufzeichnung einschalten ({@code stackTrace=true}).
+ * Aufzeichnung z. B. mit {@code -XX:StartFlightRecording} und {@code jfr print --events org.example.DavoHash}.
+ */
+@Name("org.example.DavoHash")
+@Label("DavoHash512")
+@Category("DavoHash")
+@Description("Ein Aufruf von DavoHash512 mit Eingabegröße, verarbeiteten Blöcken und Dauer")
+@StackTrace(false)
+final class DavoHashEvent extends jdk.jfr.Event {
+    @Label("Quelle")
+    String source;
+
+    @Label("Eingabegröße")
+    @DataAmount
+    long inputSize;
+
+    @Label("Blöcke")
+    long blocks;
+}
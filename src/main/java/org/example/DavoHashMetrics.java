@@ -0,0 +1,281 @@
+package org.example;
+
+import jdk.jfr.EventType;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Zähler und Histogramme für die Hash-Einstiegspunkte, eingeschaltet mit {@code -Ddavohash.metrics=true}.
+ * <p>
+ * {@link #ENABLED} ist eine statische Konstante: ist sie aus, faltet der JIT die Aufrufe von {@link #start()}
+ * und {@link #record} zu nichts, es wird weder allokiert noch die Uhr gelesen. Ist sie an, zählt jeder Aufruf
+ * in {@link LongAdder}n je {@link Source} (gestreift, daher ohne Konkurrenz zwischen Threads), trägt Größe und
+ * Dauer in log2-Histogramme ein und erzeugt ein {@link DavoHashEvent} für JFR, dessen Dauer JFR selbst misst. Die Blockzahl wird aus der
+ * Eingabelänge berechnet, die Blockschleife selbst bleibt unverändert. Beim Einschalten wird außerdem
+ * {@link DavoHashMetricsMXBean} unter {@value #OBJECT_NAME} registriert.
+ */
+public final class DavoHashMetrics {
+    public static final boolean ENABLED = Boolean.getBoolean("davohash.metrics");
+    public static final String OBJECT_NAME = "org.example:type=DavoHashMetrics";
+
+    // Bucket 0 für 0, Bucket i für [2^(i-1), 2^i)
+    static final int BUCKETS = 65;
+
+    /** Art des Einstiegspunkts. */
+    public enum Source {
+        STRING, BYTES, BUFFER, SEGMENT, BATCH, FILE, TREE, STREAM;
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder blocks = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder[] sizes = adders();
+        private final LongAdder[] latencies = adders();
+
+        public long calls() {
+            return calls.sum();
+        }
+
+        public long bytes() {
+            return bytes.sum();
+        }
+
+        public long blocks() {
+            return blocks.sum();
+        }
+
+        /** Summierte Dauer der gemessenen Aufrufe; Stream-Digests haben keinen Startzeitpunkt und fehlen hier. */
+        public long nanos() {
+            return nanos.sum();
+        }
+
+        public long[] sizeHistogram() {
+            return sums(sizes);
+        }
+
+        public long[] latencyHistogram() {
+            return sums(latencies);
+        }
+
+        private void reset() {
+            calls.reset();
+            bytes.reset();
+            blocks.reset();
+            nanos.reset();
+            for (int i = 0; i < BUCKETS; i++) {
+                sizes[i].reset();
+                latencies[i].reset();
+            }
+        }
+    }
+
+    static {
+        if (ENABLED) registerMBean();
+    }
+
+    private DavoHashMetrics() {
+    }
+
+    /**
+     * Startzeitpunkt für {@link #record}, {@code null} wenn ausgeschaltet. Fordert eine laufende Aufzeichnung das
+     * {@link DavoHashEvent} an, wird es hier begonnen, damit JFR die Dauer selbst misst und der Schwellwert greift.
+     */
+    static Timing start() {
+        return ENABLED ? new Timing() : null;
+    }
+
+    /** Ein gemessener Aufruf. */
+    static void record(Source source, long bytes, long blocks, Timing timing) {
+        if (!ENABLED) return;
+        record(source, 1, bytes, blocks, timing);
+    }
+
+    /** messages gemeinsam gehashte Nachrichten; Histogramme erhalten Durchschnittsgröße und -dauer. */
+    static void record(Source source, int messages, long bytes, long blocks, Timing timing) {
+        if (!ENABLED) return;
+        long nanos = System.nanoTime() - timing.startNanos;
+        count(source, messages, bytes, blocks);
+        source.nanos.add(nanos);
+        source.latencies[bucket(nanos / messages)].add(messages);
+        commit(timing.event, source, bytes, blocks);
+    }
+
+    /** Ein Aufruf ohne Startzeitpunkt (Stream-Modus): gezählt, aber ohne Dauer. */
+    static void record(Source source, long bytes, long blocks) {
+        if (!ENABLED) return;
+        count(source, 1, bytes, blocks);
+        commit(Jfr.TYPE.isEnabled() ? new DavoHashEvent() : null, source, bytes, blocks);
+    }
+
+    private static void count(Source source, int messages, long bytes, long blocks) {
+        source.calls.add(messages);
+        source.bytes.add(bytes);
+        source.blocks.add(blocks);
+        source.sizes[bucket(bytes / messages)].add(messages);
+    }
+
+    // Ereignis nur vorhanden, wenn eine laufende Aufzeichnung es angefordert hat
+    private static void commit(DavoHashEvent event, Source source, long bytes, long blocks) {
+        if (event == null) return;
+        event.end();
+        if (event.shouldCommit()) {
+            event.source = source.name();
+            event.inputSize = bytes;
+            event.blocks = blocks;
+            event.commit();
+        }
+    }
+
+    /** Blöcke des Text-Modus: ein aufgefüllter Block je angefangene 64 Bytes und der Abschlussblock. */
+    static long textBlocks(long length) {
+        return (length + DavoHash512.BLOCK_SIZE - 1) / DavoHash512.BLOCK_SIZE + 1;
+    }
+
+    public static void reset() {
+        for (Source source : Source.values()) {
+            source.reset();
+        }
+    }
+
+    /** Registriert die MXBean; ein zweiter Aufruf ist wirkungslos. */
+    public static void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // bereits registriert
+        } catch (JMException e) {
+            throw new IllegalStateException("MXBean konnte nicht registriert werden: " + OBJECT_NAME, e);
+        }
+    }
+
+    static int bucket(long value) {
+        return 64 - Long.numberOfLeadingZeros(Math.max(value, 0));
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+        return sums;
+    }
+
+    /** Startzeitpunkt eines Aufrufs und gegebenenfalls das bereits begonnene JFR-Ereignis. */
+    static final class Timing {
+        final long startNanos = System.nanoTime();
+        final DavoHashEvent event;
+
+        private Timing() {
+            if (Jfr.TYPE.isEnabled()) {
+                event = new DavoHashEvent();
+                event.begin();
+            } else {
+                event = null;
+            }
+        }
+    }
+
+    // Eigene Klasse, damit JFR erst beim ersten gezählten Aufruf initialisiert wird
+    private static final class Jfr {
+        static final EventType TYPE = EventType.getEventType(DavoHashEvent.class);
+    }
+
+    private static final class Bean implements DavoHashMetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return ENABLED;
+        }
+
+        @Override
+        public long getCalls() {
+            return total(Source::calls);
+        }
+
+        @Override
+        public long getBytes() {
+            return total(Source::bytes);
+        }
+
+        @Override
+        public long getBlocks() {
+            return total(Source::blocks);
+        }
+
+        @Override
+        public long getTotalNanos() {
+            return total(Source::nanos);
+        }
+
+        @Override
+        public Map<String, Long> getCallsBySource() {
+            return bySource(Source::calls);
+        }
+
+        @Override
+        public Map<String, Long> getBytesBySource() {
+            return bySource(Source::bytes);
+        }
+
+        @Override
+        public Map<String, Long> getNanosBySource() {
+            return bySource(Source::nanos);
+        }
+
+        @Override
+        public long[] getSizeHistogram() {
+            return merged(Source::sizeHistogram);
+        }
+
+        @Override
+        public long[] getLatencyHistogram() {
+            return merged(Source::latencyHistogram);
+        }
+
+        @Override
+        public void reset() {
+            DavoHashMetrics.reset();
+        }
+
+        private static long total(Function<Source, Long> value) {
+            long total = 0;
+            for (Source source : Source.values()) {
+                total += value.apply(source);
+            }
+            return total;
+        }
+
+        private static Map<String, Long> bySource(Function<Source, Long> value) {
+            Map<String, Long> values = new LinkedHashMap<>();
+            for (Source source : Source.values()) {
+                values.put(source.name(), value.apply(source));
+            }
+            return values;
+        }
+
+        private static long[] merged(Function<Source, long[]> histogram) {
+            long[] merged = new long[BUCKETS];
+            for (Source source : Source.values()) {
+                long[] values = histogram.apply(source);
+                for (int i = 0; i < BUCKETS; i++) {
+                    merged[i] += values[i];
+                }
+            }
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.example;
+
+import java.util.Map;
+
+/**
+ * JMX-Sicht auf {@link DavoHashMetrics}, registriert als {@value DavoHashMetrics#OBJECT_NAME}. Die Maps sind
+ * nach {@link DavoHashMetrics.Source} geschlüsselt, die Histogramme summieren alle Quellen.
+ */
+public interface DavoHashMetricsMXBean {
+    boolean isEnabled();
+
+    long getCalls();
+
+    long getBytes();
+
+    long getBlocks();
+
+    long getTotalNanos();
+
+    Map<String, Long> getCallsBySource();
+
+    Map<String, Long> getBytesBySource();
+
+    Map<String, Long> getNanosBySource();
+
+    /** Bucket i zählt Eingaben mit Größe in [2^(i-1), 2^i) Bytes, Bucket 0 leere Eingaben. */
+    long[] getSizeHistogram();
+
+    /** Bucket i zählt Aufrufe mit Dauer in [2^(i-1), 2^i) Nanosekunden. */
+    long[] getLatencyHistogram();
+
+    void reset();
+}
@@ -0,0 +1,39 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binärprotokoll zwischen {@link DavoHashServer} und {@link DavoHashClient}. Jeder Rahmen beginnt mit einem
+ * Kopf aus 9 Bytes (Big Endian): {@code u8 typ, u32 id, u32 länge}, danach folgen länge Bytes Nutzdaten.
+ * <p>
+ * Anfragen:
+ * <ul>
+ *     <li>{@link #HASH}: Nutzdaten sind die Nachricht, Antwort ist {@link DavoHash512#hash(byte[])}.</li>
+ *     <li>{@link #STREAM}: ein Abschnitt eines großen Datenstroms mit der ID id; beliebig viele Abschnitte.</li>
+ *     <li>{@link #STREAM_END}: letzter (auch leerer) Abschnitt, Antwort ist der Stream-Modus
+ *     ({@link DavoHash512.Digest}) über alle Abschnitte, da die Länge vorab nicht bekannt ist.</li>
+ * </ul>
+ * Antworten verwenden denselben Kopf mit {@link #OK} (Nutzdaten: 64 Byte Hash) oder {@link #ERROR}
+ * (Nutzdaten: UTF-8-Meldung). Anfragen dürfen ohne Warten auf Antworten hintereinander gesendet werden;
+ * Antworten tragen die ID der Anfrage und können in anderer Reihenfolge eintreffen.
+ */
+final class DavoHashProtocol {
+    static final int HEADER_SIZE = 9;
+
+    static final byte HASH = 1;
+    static final byte STREAM = 2;
+    static final byte STREAM_END = 3;
+
+    static final byte OK = 0;
+    static final byte ERROR = 1;
+
+    // Protokollfehler ohne zugehörige Anfrage, z. B. bei einem unbekannten Rahmentyp
+    static final int NO_ID = -1;
+
+    private DavoHashProtocol() {
+    }
+
+    static void putHeader(ByteBuffer buffer, byte type, int id, int length) {
+        buffer.put(type).putInt(id).putInt(length);
+    }
+}
@@ -0,0 +1,606 @@
+package org.example;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lokaler Hash-Dienst für Prozesse ohne eigene JVM. Ein Selector-Thread nimmt Verbindungen über einen
+ * Unix-Domain-Socket oder einen Loopback-Port an und liest Rahmen im {@link DavoHashProtocol}; gehasht wird
+ * auf einem Pool von Worker-Threads, die kurze Nachrichten gesammelt über
+ * {@link DavoHash512#hashBatch(byte[][], byte[][])} verarbeiten. Große Daten werden als Folge von
+ * Stream-Abschnitten gesendet und der Reihe nach in einen {@link DavoHash512.Digest} eingespeist.
+ * <p>
+ * Gegendruck: Eine Verbindung wird nicht mehr gelesen, solange sie {@link Limits#maxPendingPerConnection()}
+ * unbeantwortete Anfragen hat, ihre ungesendeten Antworten {@link Limits#maxOutboundPerConnection()} übersteigen
+ * oder insgesamt mehr als {@link Limits#maxQueuedBytes()} Bytes auf das Hashen warten; dazu zählen auch Rahmen,
+ * deren Kopf schon gelesen ist, deren Nutzdaten aber noch eintreffen. Der Client wird dann
+ * über das TCP-Fenster bzw. den Socket-Puffer gebremst, der Speicherbedarf des Servers bleibt begrenzt.
+ * Rahmen über {@link Limits#maxFrameSize()} und unbekannte Typen werden mit {@link DavoHashProtocol#ERROR}
+ * beantwortet, danach wird die Verbindung geschlossen.
+ */
+public final class DavoHashServer implements AutoCloseable {
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_GATHER = 64;
+
+    /**
+     * Grenzen des Servers. batchThreshold ist die größte Nachricht, die noch mit anderen zusammen gehasht wird,
+     * maxBatch die größte Zahl gleichzeitig verarbeiteter Aufträge je Worker.
+     */
+    public record Limits(int workers, int maxBatch, int batchThreshold, int maxFrameSize, int maxPendingPerConnection,
+                         long maxQueuedBytes, long maxOutboundPerConnection, int maxConnections) {
+        public Limits {
+            if (workers <= 0 || maxBatch <= 0 || batchThreshold < 0 || maxFrameSize <= 0 || maxPendingPerConnection <= 0
+                    || maxQueuedBytes <= 0 || maxOutboundPerConnection <= 0 || maxConnections <= 0) {
+                throw new IllegalArgumentException("Ungültige Grenzen: " + this);
+            }
+        }
+
+        public static Limits defaults() {
+            return new Limits(Runtime.getRuntime().availableProcessors(), 64, 4096, 1 << 20, 256,
+                    64L << 20, 1L << 20, 1024);
+        }
+    }
+
+    private final Limits limits;
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final SocketAddress localAddress;
+    private final Thread selectorThread;
+    private final List<Thread> workers = new ArrayList<>();
+    private final BlockingQueue<Job> jobs = new LinkedBlockingQueue<>();
+    // Verbindungen mit neuen Antworten; der Selector-Thread schreibt sie nach dem Aufwachen
+    private final ConcurrentLinkedQueue<Connection> ready = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile boolean closed;
+
+    // Nur vom Selector-Thread verwendet
+    private final Set<Connection> paused = new HashSet<>();
+
+    private DavoHashServer(ServerSocketChannel server, Selector selector, Limits limits) throws IOException {
+        this.server = server;
+        this.selector = selector;
+        this.limits = limits;
+        this.localAddress = server.getLocalAddress();
+        server.register(selector, SelectionKey.OP_ACCEPT);
+
+        for (int i = 0; i < limits.workers(); i++) {
+            Thread worker = new Thread(this::runWorker, "davohash-server-worker-" + (i + 1));
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+        this.selectorThread = new Thread(this::runSelector, "davohash-server-selector");
+        selectorThread.setDaemon(true);
+    }
+
+    /**
+     * Startet den Server auf einem {@link UnixDomainSocketAddress} (die Datei darf noch nicht existieren und wird
+     * beim Schließen entfernt) oder einer {@link InetSocketAddress}, z. B. Port 0 auf Loopback.
+     */
+    public static DavoHashServer start(SocketAddress address, Limits limits) throws IOException {
+        ServerSocketChannel server = address instanceof UnixDomainSocketAddress
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                : ServerSocketChannel.open();
+        Selector selector = null;
+        try {
+            server.bind(address);
+            server.configureBlocking(false);
+            selector = Selector.open();
+            DavoHashServer instance = new DavoHashServer(server, selector, limits);
+            instance.workers.forEach(Thread::start);
+            instance.selectorThread.start();
+            return instance;
+        } catch (IOException | RuntimeException e) {
+            if (selector != null) selector.close();
+            server.close();
+            throw e;
+        }
+    }
+
+    /** Tatsächliche Adresse, bei Port 0 mit dem vergebenen Port. */
+    public SocketAddress localAddress() {
+        return localAddress;
+    }
+
+    public Limits limits() {
+        return limits;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.forEach(Thread::interrupt);
+        server.close();
+        if (localAddress instanceof UnixDomainSocketAddress unix) {
+            Files.deleteIfExists(unix.getPath());
+        }
+    }
+
+    private void runSelector() {
+        try {
+            while (!closed) {
+                selector.select();
+                wakeupPending.set(false);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isWritable()) connection.flush();
+                        if (key.isValid() && key.isReadable()) connection.read();
+                    } catch (IOException e) {
+                        connection.close();
+                    }
+                }
+
+                Connection connection;
+                while ((connection = ready.poll()) != null) {
+                    connection.queued.set(false);
+                    try {
+                        connection.flush();
+                    } catch (IOException e) {
+                        connection.close();
+                    }
+                }
+                resumePaused();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            // Selector nicht mehr nutzbar, Server wird beendet
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection connection) connection.close();
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // Beim Beenden ohne Bedeutung
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) return;
+        if (connections.incrementAndGet() > limits.maxConnections()) {
+            connections.decrementAndGet();
+            channel.close();
+            return;
+        }
+        try {
+            channel.configureBlocking(false);
+            if (!(localAddress instanceof UnixDomainSocketAddress)) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        } catch (IOException e) {
+            // Fehler einer einzelnen Verbindung beenden nicht den Server
+            connections.decrementAndGet();
+            channel.close();
+        }
+    }
+
+    private void resumePaused() {
+        if (paused.isEmpty()) return;
+        List<Connection> resumable = new ArrayList<>();
+        for (Connection connection : paused) {
+            if (!connection.overLimit()) resumable.add(connection);
+        }
+        // resume() kann die Verbindung erneut pausieren, deshalb nicht während der Iteration
+        for (Connection connection : resumable) {
+            paused.remove(connection);
+            connection.resume();
+        }
+    }
+
+    // Weckt den Selector höchstens einmal je Durchlauf
+    private void requestWakeup() {
+        if (wakeupPending.compareAndSet(false, true)) selector.wakeup();
+    }
+
+    private void runWorker() {
+        List<Job> batch = new ArrayList<>(limits.maxBatch());
+        List<HashJob> small = new ArrayList<>(limits.maxBatch());
+        while (true) {
+            try {
+                batch.add(jobs.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            jobs.drainTo(batch, limits.maxBatch() - 1);
+
+            for (Job job : batch) {
+                if (job instanceof HashJob hashJob && hashJob.connection.closed) {
+                    queuedBytes.addAndGet(-hashJob.message.length);
+                } else if (job instanceof HashJob hashJob && hashJob.message.length <= limits.batchThreshold()) {
+                    small.add(hashJob);
+                } else {
+                    job.run();
+                }
+            }
+            if (!small.isEmpty()) hashSmall(small);
+            batch.clear();
+            small.clear();
+            requestWakeup();
+        }
+    }
+
+    private void hashSmall(List<HashJob> small) {
+        if (small.size() == 1) {
+            small.get(0).run();
+            return;
+        }
+        byte[][] inputs = new byte[small.size()][];
+        byte[][] outputs = new byte[small.size()][];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = small.get(i).message;
+        }
+        DavoHash512.hashBatch(inputs, outputs);
+        for (int i = 0; i < inputs.length; i++) {
+            HashJob job = small.get(i);
+            queuedBytes.addAndGet(-job.message.length);
+            job.connection.respond(job.id, DavoHashProtocol.OK, outputs[i]);
+        }
+    }
+
+    private interface Job {
+        void run();
+    }
+
+    private final class HashJob implements Job {
+        final Connection connection;
+        final int id;
+        final byte[] message;
+
+        HashJob(Connection connection, int id, byte[] message) {
+            this.connection = connection;
+            this.id = id;
+            this.message = message;
+        }
+
+        @Override
+        public void run() {
+            byte[] digest = DavoHash512.hash(message);
+            queuedBytes.addAndGet(-message.length);
+            connection.respond(id, DavoHashProtocol.OK, digest);
+        }
+    }
+
+    // Abschnitte eines Datenstroms; höchstens ein Worker arbeitet gleichzeitig daran, in Empfangsreihenfolge
+    private final class StreamJob implements Job {
+        final Connection connection;
+        final int id;
+        final DavoHash512.Digest digest = new DavoHash512.Digest();
+        // Geschützt durch this
+        final ArrayDeque<byte[]> chunks = new ArrayDeque<>();
+        boolean scheduled;
+        boolean ended;
+
+        StreamJob(Connection connection, int id) {
+            this.connection = connection;
+            this.id = id;
+        }
+
+        void append(byte[] chunk, boolean end) {
+            synchronized (this) {
+                chunks.add(chunk);
+                ended = end;
+                if (scheduled) return;
+                scheduled = true;
+            }
+            jobs.add(this);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                byte[] chunk;
+                synchronized (this) {
+                    chunk = chunks.poll();
+                    if (chunk == null) {
+                        scheduled = false;
+                        if (!ended) return;
+                    }
+                }
+                if (chunk == null) {
+                    connection.respond(id, DavoHashProtocol.OK, digest.digest());
+                    return;
+                }
+                // Nach dem Schließen der Verbindung nur noch die Abschnitte verwerfen
+                if (!connection.closed) digest.update(chunk);
+                queuedBytes.addAndGet(-chunk.length);
+            }
+        }
+    }
+
+    private final class Connection {
+        final SocketChannel channel;
+        SelectionKey key;
+        final ConcurrentLinkedQueue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+        final AtomicLong outboundBytes = new AtomicLong();
+        final AtomicInteger pending = new AtomicInteger();
+        final AtomicBoolean queued = new AtomicBoolean();
+        volatile boolean closed;
+
+        // Nur vom Selector-Thread verwendet
+        final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        final ArrayDeque<ByteBuffer> writing = new ArrayDeque<>();
+        final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+        final Map<Integer, StreamJob> streams = new HashMap<>();
+        byte frameType;
+        int frameId;
+        byte[] payload;
+        int filled;
+        boolean inputClosed;
+        boolean closing;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        boolean overLimit() {
+            return pending.get() >= limits.maxPendingPerConnection()
+                    || outboundBytes.get() >= limits.maxOutboundPerConnection()
+                    || queuedBytes.get() >= limits.maxQueuedBytes();
+        }
+
+        void read() throws IOException {
+            int count = channel.read(in);
+            if (count < 0) {
+                // Halbes Schließen: ausstehende Antworten werden noch gesendet
+                inputClosed = true;
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                if (payload != null) {
+                    close();
+                } else {
+                    closeIfDone();
+                }
+                return;
+            }
+            parse();
+        }
+
+        // Verarbeitet alle vollständigen Rahmen im Lesepuffer, bis ein Limit erreicht ist
+        void parse() {
+            in.flip();
+            try {
+                while (!closing) {
+                    if (payload == null) {
+                        if (overLimit()) {
+                            pause();
+                            return;
+                        }
+                        if (in.remaining() < DavoHashProtocol.HEADER_SIZE) return;
+                        if (!readHeader()) return;
+                    }
+                    int n = Math.min(in.remaining(), payload.length - filled);
+                    in.get(payload, filled, n);
+                    filled += n;
+                    if (filled < payload.length) return;
+                    dispatch();
+                }
+            } finally {
+                in.compact();
+            }
+        }
+
+        private boolean readHeader() {
+            frameType = in.get();
+            frameId = in.getInt();
+            int length = in.getInt();
+            if (frameType != DavoHashProtocol.HASH && frameType != DavoHashProtocol.STREAM
+                    && frameType != DavoHashProtocol.STREAM_END) {
+                protocolError(frameId, "Unbekannter Rahmentyp: " + frameType);
+                return false;
+            }
+            if (length < 0 || length > limits.maxFrameSize()) {
+                protocolError(frameId, "Rahmen zu groß: " + Integer.toUnsignedString(length) + " > " + limits.maxFrameSize());
+                return false;
+            }
+            // Vor dem Anlegen reservieren, damit auch halb empfangene Rahmen gegen maxQueuedBytes zählen
+            queuedBytes.addAndGet(length);
+            payload = new byte[length];
+            filled = 0;
+            return true;
+        }
+
+        private void dispatch() {
+            // Bereits in readHeader() reserviert
+            byte[] data = payload;
+            payload = null;
+            if (frameType == DavoHashProtocol.HASH) {
+                pending.incrementAndGet();
+                jobs.add(new HashJob(this, frameId, data));
+                return;
+            }
+
+            StreamJob stream = streams.get(frameId);
+            if (stream == null) {
+                stream = new StreamJob(this, frameId);
+                streams.put(frameId, stream);
+                pending.incrementAndGet();
+            }
+            boolean end = frameType == DavoHashProtocol.STREAM_END;
+            if (end) streams.remove(frameId);
+            stream.append(data, end);
+        }
+
+        private void protocolError(int id, String message) {
+            closing = true;
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            pending.incrementAndGet();
+            respond(id, DavoHashProtocol.ERROR, message.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void pause() {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            paused.add(this);
+        }
+
+        void resume() {
+            parse();
+            if (!closed && !closing && !inputClosed && !paused.contains(this)) {
+                key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+            }
+        }
+
+        // Von Workern und dem Selector-Thread aufgerufen
+        void respond(int id, byte status, byte[] body) {
+            if (closed) return;
+            ByteBuffer response = ByteBuffer.allocate(DavoHashProtocol.HEADER_SIZE + body.length);
+            DavoHashProtocol.putHeader(response, status, id, body.length);
+            response.put(body).flip();
+            outboundBytes.addAndGet(response.remaining());
+            outbound.add(response);
+            pending.decrementAndGet();
+            if (queued.compareAndSet(false, true)) ready.add(this);
+        }
+
+        void flush() throws IOException {
+            if (closed) return;
+            ByteBuffer next;
+            while ((next = outbound.poll()) != null) {
+                writing.add(next);
+            }
+            while (!writing.isEmpty()) {
+                int count = 0;
+                long requested = 0;
+                for (ByteBuffer buffer : writing) {
+                    gather[count++] = buffer;
+                    requested += buffer.remaining();
+                    if (count == MAX_GATHER) break;
+                }
+                long written = channel.write(gather, 0, count);
+                Arrays.fill(gather, 0, count, null);
+                outboundBytes.addAndGet(-written);
+                while (!writing.isEmpty() && !writing.peek().hasRemaining()) {
+                    writing.poll();
+                }
+                // Socket-Puffer voll, weiter bei OP_WRITE
+                if (written < requested) break;
+            }
+            if (writing.isEmpty()) {
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                closeIfDone();
+            } else {
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+            }
+        }
+
+        private void closeIfDone() {
+            if ((inputClosed || closing) && pending.get() == 0 && writing.isEmpty() && outbound.isEmpty()) {
+                close();
+            }
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            paused.remove(this);
+            streams.clear();
+            if (payload != null) {
+                // Reservierung des unvollständigen Rahmens freigeben
+                queuedBytes.addAndGet(-payload.length);
+                payload = null;
+            }
+            if (key != null) key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Verbindung ist ohnehin beendet
+            }
+            connections.decrementAndGet();
+        }
+    }
+
+    /**
+     * Startet den Server als eigenständigen Prozess: {@code --unix PFAD} oder {@code --port N} (nur Loopback),
+     * optional {@code --workers N}, {@code --max-frame BYTES} und {@code --max-pending N}.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        SocketAddress address = null;
+        Limits defaults = Limits.defaults();
+        int workers = defaults.workers();
+        int maxFrame = defaults.maxFrameSize();
+        int maxPending = defaults.maxPendingPerConnection();
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 == args.length) {
+                System.err.println("Option " + option + " erwartet einen Wert");
+                System.exit(2);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--unix" -> address = UnixDomainSocketAddress.of(Path.of(value));
+                case "--port" -> address = new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(value));
+                case "--workers" -> workers = Integer.parseInt(value);
+                case "--max-frame" -> maxFrame = Integer.parseInt(value);
+                case "--max-pending" -> maxPending = Integer.parseInt(value);
+                default -> {
+                    System.err.println("Unbekannte Option: " + option);
+                    System.exit(2);
+                }
+            }
+        }
+        if (address == null) {
+            System.err.println("Aufruf: DavoHashServer (--unix PFAD | --port N) [--workers N] [--max-frame BYTES] [--max-pending N]");
+            System.exit(2);
+        }
+
+        Limits limits = new Limits(workers, defaults.maxBatch(), defaults.batchThreshold(), maxFrame, maxPending,
+                defaults.maxQueuedBytes(), defaults.maxOutboundPerConnection(), defaults.maxConnections());
+        DavoHashServer server = start(address, limits);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException ignored) {
+                // Prozess endet ohnehin
+            }
+        }));
+        System.err.println("davohash-server lauscht auf " + server.localAddress());
+        server.selectorThread.join();
+    }
+}
@@ -0,0 +1,395 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.example.DavoHash512.BLOCK_WORDS;
+import static org.example.DavoHash512.STATE_SIZE;
+import static org.example.DavoHash512.WORKSPACE_SIZE;
+
+/**
+ * Passwort-Hashing und Schlüsselableitung mit einstellbaren Kosten auf Basis der DavoHash512-Kompressionsfunktion.
+ * <p>
+ * Aufbau wie Argon2: Aus Passwort, Salt und Parametern entsteht ein Startwert H0 ({@link DavoHash512.Digest}),
+ * daraus füllt jede Bahn (lane) ihren Anteil am Speicher (memoryKiB) mit 64-Byte-Blöcken
+ * {@code B[i] = F(B[i-1], B[ref])}, wobei F ein {@link DavoHash512}-Blockschritt mit anschließender
+ * Doppel-Finalisierung ist. Weitere Durchgänge (iterations) überschreiben jeden Block per XOR. Die erste Hälfte
+ * des ersten Durchgangs wählt ref wie Argon2i nur aus öffentlichen Werten (Salt, Parameter, Bahn, Blockindex),
+ * nie aus H0: Wer die Speicherzugriffe beobachtet (z. B. über den Cache), erfährt daraus nichts über das Passwort.
+ * Danach bestimmt der vorige Block ref; das erschwert Zeit-Speicher-Abwägungen.
+ * <p>
+ * Jeder Durchgang ist in {@value #SYNC_POINTS} Abschnitte (slices) geteilt. Innerhalb eines Abschnitts laufen
+ * die Bahnen auf einem begrenzten Thread-Pool parallel, an seinem Ende warten alle aufeinander. ref darf auf
+ * Blöcke fremder Bahnen aus bereits abgeschlossenen Abschnitten zeigen, sodass sich die Bahnen nicht nacheinander
+ * mit nur memoryKiB / lanes Speicher berechnen lassen: Die Speicherhärte gilt für den gesamten Speicher.
+ * Am Ende werden die letzten Blöcke aller Bahnen zusammen mit H0 gehasht.
+ * <p>
+ * {@link #hash(CharSequence, Params)} liefert einen kodierten String im PHC-Stil
+ * {@code $davokdf$v=1$m=16384,t=3,p=1$salt$hash} (Base64URL ohne Padding), der alle Parameter trägt; damit
+ * lassen sich Kosten anheben und Passwörter nach und nach beim nächsten Login über {@link #needsRehash}
+ * neu hashen. Passwörter werden vor dem Kodieren als UTF-8 nach NFC normalisiert, wie bei
+ * {@link DavoHash512#hash(String)}. {@link #calibrate(Duration)} misst die Maschine und wählt Parameter für eine
+ * Ziel-Latenz.
+ */
+public final class DavoKdf {
+    public static final int SALT_LENGTH = 16;
+    public static final int HASH_LENGTH = 32;
+    public static final int MAX_OUTPUT_LENGTH = 1024;
+    public static final int DEFAULT_MEMORY_KIB = 16 * 1024;
+    public static final Params DEFAULT_PARAMS = new Params(3, DEFAULT_MEMORY_KIB, 1);
+
+    private static final String ALGORITHM = "davokdf";
+    private static final int VERSION = 1;
+    private static final byte[] DOMAIN = "DavoKdf-v1".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ADDRESS_DOMAIN = "DavoKdf-v1-Adressen".getBytes(StandardCharsets.US_ASCII);
+    private static final int BLOCKS_PER_KIB = 1024 / DavoHash512.BLOCK_SIZE;
+    private static final int SYNC_POINTS = 4;
+    private static final DavoHashCodec.Base64Alphabet BASE64 = DavoHashCodec.Base64Alphabet.URL;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final ExecutorService LANE_POOL = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "davokdf-" + THREAD_COUNTER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * Kostenparameter: Durchgänge über den Speicher, Speicher in KiB (auf alle Bahnen verteilt, je Bahn mindestens
+     * 8 KiB) und Anzahl paralleler Bahnen.
+     */
+    public record Params(int iterations, int memoryKiB, int lanes) {
+        public static final int MAX_MEMORY_KIB = 4 * 1024 * 1024;
+        public static final int MAX_LANES = 255;
+
+        public Params {
+            if (iterations < 1) {
+                throw new IllegalArgumentException("iterations muss positiv sein: " + iterations);
+            }
+            if (lanes < 1 || lanes > MAX_LANES) {
+                throw new IllegalArgumentException("lanes muss zwischen 1 und " + MAX_LANES + " liegen: " + lanes);
+            }
+            if (memoryKiB < 8 * lanes || memoryKiB > MAX_MEMORY_KIB) {
+                throw new IllegalArgumentException("memoryKiB muss zwischen 8 * lanes und " + MAX_MEMORY_KIB
+                        + " liegen: " + memoryKiB);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "m=" + memoryKiB + ",t=" + iterations + ",p=" + lanes;
+        }
+    }
+
+    private DavoKdf() {
+    }
+
+    /** Hasht das Passwort mit zufälligem Salt und liefert den kodierten String mit allen Parametern. */
+    public static String hash(CharSequence password, Params params) {
+        byte[] salt = new byte[SALT_LENGTH];
+        RANDOM.nextBytes(salt);
+        byte[] hash = derive(passwordBytes(password), salt, params, HASH_LENGTH);
+        return "$" + ALGORITHM + "$v=" + VERSION + "$" + params + "$"
+                + DavoHashCodec.toBase64(salt, BASE64) + "$" + DavoHashCodec.toBase64(hash, BASE64);
+    }
+
+    public static String hash(CharSequence password) {
+        return hash(password, DEFAULT_PARAMS);
+    }
+
+    /**
+     * Prüft das Passwort gegen einen mit {@link #hash} erzeugten String, mit den darin gespeicherten Parametern.
+     * Der Vergleich läuft in konstanter Zeit; ein ungültiger String führt zu einer {@link IllegalArgumentException}.
+     */
+    public static boolean verify(CharSequence password, String encoded) {
+        Encoded parsed = Encoded.parse(encoded);
+        byte[] computed = derive(passwordBytes(password), parsed.salt, parsed.params, parsed.hash.length);
+        return MessageDigest.isEqual(computed, parsed.hash);
+    }
+
+    /** Parameter eines kodierten Strings. */
+    public static Params parameters(String encoded) {
+        return Encoded.parse(encoded).params;
+    }
+
+    /** true, wenn der String mit anderen als den aktuellen Parametern erzeugt wurde und neu gehasht werden sollte. */
+    public static boolean needsRehash(String encoded, Params current) {
+        Encoded parsed = Encoded.parse(encoded);
+        return !parsed.params.equals(current) || parsed.hash.length != HASH_LENGTH;
+    }
+
+    /**
+     * Leitet outputLength Bytes (1 bis {@link #MAX_OUTPUT_LENGTH}) aus Passwort und Salt ab. Der Speicher wird
+     * je Aufruf angelegt; Bahnen ab der zweiten laufen auf dem gemeinsamen Pool, die erste im aufrufenden Thread.
+     */
+    public static byte[] derive(byte[] password, byte[] salt, Params params, int outputLength) {
+        return derive(password, salt, params, outputLength, null);
+    }
+
+    /**
+     * Für Tests und Audits: je Bahn die Referenz jedes Blocks im ersten Durchgang als {@code Bahn << 32 | Block},
+     * so wie {@link #derive} sie wählt (die ersten beiden Blöcke haben keine und bleiben 0). Die erste Hälfte hängt
+     * nur von Salt und Parametern ab, nicht vom Passwort.
+     */
+    public static long[][] firstPassReferences(byte[] password, byte[] salt, Params params) {
+        long[][] trace = new long[params.lanes()][params.memoryKiB() / params.lanes() * BLOCKS_PER_KIB];
+        derive(password, salt, params, HASH_LENGTH, trace);
+        return trace;
+    }
+
+    private static byte[] derive(byte[] password, byte[] salt, Params params, int outputLength, long[][] trace) {
+        if (outputLength < 1 || outputLength > MAX_OUTPUT_LENGTH) {
+            throw new IllegalArgumentException("outputLength muss zwischen 1 und " + MAX_OUTPUT_LENGTH + " liegen: " + outputLength);
+        }
+        byte[] h0 = initialHash(password, salt, params, outputLength);
+        long addressSeed = addressSeed(salt, params);
+        // Je Bahn ein Vielfaches von 16 Blöcken, also durch SYNC_POINTS teilbar
+        int blocks = params.memoryKiB() / params.lanes() * BLOCKS_PER_KIB;
+        long[][] memory = new long[params.lanes()][blocks * STATE_SIZE];
+
+        for (int lane = 0; lane < params.lanes(); lane++) {
+            initializeLane(h0, memory[lane], lane);
+        }
+        List<Future<?>> futures = new ArrayList<>();
+        for (int pass = 0; pass < params.iterations(); pass++) {
+            for (int slice = 0; slice < SYNC_POINTS; slice++) {
+                // Synchronisationspunkt: fremde Bahnen lesen nur Abschnitte, die hier bereits fertig sind
+                futures.clear();
+                for (int lane = 1; lane < params.lanes(); lane++) {
+                    Segment segment = new Segment(addressSeed, memory, lane, pass, slice, trace);
+                    futures.add(LANE_POOL.submit(segment::fill));
+                }
+                new Segment(addressSeed, memory, 0, pass, slice, trace).fill();
+                for (Future<?> future : futures) {
+                    await(future);
+                }
+            }
+        }
+
+        DavoHash512.Digest digest = new DavoHash512.Digest().update(h0);
+        ByteBuffer laneBytes = ByteBuffer.allocate(STATE_SIZE * Long.BYTES);
+        for (long[] lane : memory) {
+            laneBytes.clear();
+            for (int w = (blocks - 1) * STATE_SIZE; w < blocks * STATE_SIZE; w++) laneBytes.putLong(lane[w]);
+            digest.update(laneBytes.array());
+        }
+        byte[] last = digest.digest();
+        if (outputLength <= last.length) {
+            return Arrays.copyOf(last, outputLength);
+        }
+        // Längere Ausgaben: H(letzter Wert || Zähler) aneinandergereiht
+        byte[] out = new byte[outputLength];
+        for (int offset = 0, counter = 0; offset < outputLength; offset += last.length, counter++) {
+            byte[] part = digest.update(last).update(ByteBuffer.allocate(Integer.BYTES).putInt(counter).array()).digest();
+            System.arraycopy(part, 0, out, offset, Math.min(part.length, outputLength - offset));
+        }
+        return out;
+    }
+
+    /** Wie {@link #calibrate(Duration, int, int)} mit {@link #DEFAULT_MEMORY_KIB} und bis zu vier Bahnen. */
+    public static Params calibrate(Duration target) {
+        return calibrate(target, DEFAULT_MEMORY_KIB, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Misst einen und zwei Durchgänge mit dem gewünschten Speicher und wählt so viele Durchgänge, dass ein
+     * Hash etwa target dauert. Ist schon ein Durchgang zu langsam, wird der Speicher halbiert, bis er passt
+     * (höchstens bis auf das Minimum für die Bahnen). Messrauschen (JIT, GC) kann die Differenz der beiden
+     * Messungen beliebig klein machen; als Kosten je Durchgang gilt deshalb mindestens die Hälfte eines Laufs mit
+     * einem Durchgang, womit das Ergebnis höchstens doppelt so viele Durchgänge hat, wie target / Einzellauf.
+     */
+    public static Params calibrate(Duration target, int memoryKiB, int lanes) {
+        long targetNanos = target.toNanos();
+        if (targetNanos <= 0) {
+            throw new IllegalArgumentException("Ziel-Latenz muss positiv sein: " + target);
+        }
+        byte[] password = "kalibrierung".getBytes(StandardCharsets.US_ASCII);
+        byte[] salt = new byte[SALT_LENGTH];
+        Params params = new Params(1, memoryKiB, lanes);
+        while (true) {
+            long one = measure(password, salt, params);
+            if (one <= targetNanos || params.memoryKiB() / 2 < 8 * lanes) {
+                long two = measure(password, salt, new Params(2, params.memoryKiB(), lanes));
+                return new Params(iterationsFor(targetNanos, one, two), params.memoryKiB(), lanes);
+            }
+            params = new Params(1, params.memoryKiB() / 2, lanes);
+        }
+    }
+
+    // one und two: Dauer mit einem und zwei Durchgängen; die Untergrenze one / 2 je Durchgang begrenzt das Ergebnis
+    private static int iterationsFor(long targetNanos, long one, long two) {
+        long perPass = Math.max(two - one, Math.max(one / 2, 1));
+        long setup = Math.max(one - perPass, 0);
+        long iterations = Math.max(1, (targetNanos - setup) / perPass);
+        return (int) Math.min(iterations, Integer.MAX_VALUE);
+    }
+
+    // Schnellster von drei Läufen, der erste wärmt zusätzlich auf
+    private static long measure(byte[] password, byte[] salt, Params params) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            derive(password, salt, params, HASH_LENGTH);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static byte[] initialHash(byte[] password, byte[] salt, Params params, int outputLength) {
+        ByteBuffer header = ByteBuffer.allocate(5 * Integer.BYTES)
+                .putInt(VERSION).putInt(params.iterations()).putInt(params.memoryKiB()).putInt(params.lanes())
+                .putInt(outputLength);
+        return new DavoHash512.Digest()
+                .update(DOMAIN)
+                .update(header.array())
+                .update(ByteBuffer.allocate(Integer.BYTES).putInt(password.length).array()).update(password)
+                .update(ByteBuffer.allocate(Integer.BYTES).putInt(salt.length).array()).update(salt)
+                .digest();
+    }
+
+    // Startwert der datenunabhängigen Referenzen: nur öffentliche Eingaben, nie das Passwort oder H0
+    private static long addressSeed(byte[] salt, Params params) {
+        ByteBuffer header = ByteBuffer.allocate(4 * Integer.BYTES)
+                .putInt(VERSION).putInt(params.iterations()).putInt(params.memoryKiB()).putInt(params.lanes());
+        byte[] seed = new DavoHash512.Digest()
+                .update(ADDRESS_DOMAIN)
+                .update(header.array())
+                .update(ByteBuffer.allocate(Integer.BYTES).putInt(salt.length).array()).update(salt)
+                .digest();
+        return ByteBuffer.wrap(seed).getLong();
+    }
+
+    // Block 0 und 1 einer Bahn: H0 als Zustand, Bahn und Index als Nachricht
+    private static void initializeLane(byte[] h0, long[] memory, int lane) {
+        long[] state = new long[STATE_SIZE];
+        long[] workspace = new long[WORKSPACE_SIZE];
+        for (int i = 0; i < 2; i++) {
+            DavoHash512.loadBytes(h0, 0, h0.length, state);
+            Arrays.fill(workspace, 0, BLOCK_WORDS, 0);
+            workspace[0] = lane;
+            workspace[1] = i;
+            compress(state, workspace);
+            System.arraycopy(state, 0, memory, i * STATE_SIZE, STATE_SIZE);
+        }
+    }
+
+    /**
+     * Abschnitt slice einer Bahn in einem Durchgang; zwischen zwei Synchronisationspunkten nur von einem Thread
+     * gefüllt. trace ist nur bei {@link #firstPassReferences} gesetzt.
+     */
+    private record Segment(long addressSeed, long[][] memory, int lane, int pass, int slice, long[][] trace) {
+
+        void fill() {
+            long[] own = memory[lane];
+            int blocks = own.length / STATE_SIZE;
+            int length = blocks / SYNC_POINTS;
+            int first = slice * length;
+            long[] state = new long[STATE_SIZE];
+            long[] workspace = new long[WORKSPACE_SIZE];
+            long laneSeed = DavoHash512.avalancheMix(addressSeed ^ ((long) lane << 32));
+            // Erste Hälfte des ersten Durchgangs: Referenzen unabhängig von Passwort und Daten
+            boolean independent = pass == 0 && slice < SYNC_POINTS / 2;
+
+            for (int i = pass == 0 && slice == 0 ? 2 : first; i < first + length; i++) {
+                int previous = (i == 0 ? blocks : i) - 1;
+                long selector = independent ? DavoHash512.avalancheMix(laneSeed + i) : own[previous * STATE_SIZE];
+                int referenceLane = pass == 0 && slice == 0 ? lane : (int) Long.remainderUnsigned(selector >>> 32, memory.length);
+                int reference = reference(selector & 0xFFFFFFFFL, referenceLane == lane, i, blocks, length);
+                if (trace != null && pass == 0) trace[lane][i] = (long) referenceLane << 32 | reference;
+
+                System.arraycopy(own, previous * STATE_SIZE, state, 0, STATE_SIZE);
+                System.arraycopy(memory[referenceLane], reference * STATE_SIZE, workspace, 0, BLOCK_WORDS);
+                compress(state, workspace);
+                int base = i * STATE_SIZE;
+                if (pass == 0) {
+                    System.arraycopy(state, 0, own, base, STATE_SIZE);
+                } else {
+                    for (int w = 0; w < STATE_SIZE; w++) own[base + w] ^= state[w];
+                }
+            }
+        }
+
+        // Eigene Bahn: alle bereits berechneten Blöcke außer i; fremde Bahn: nur abgeschlossene Abschnitte
+        private int reference(long random, boolean sameLane, int i, int blocks, int length) {
+            if (sameLane) {
+                return pass == 0
+                        ? (int) (random % i)
+                        : (int) ((i + 1 + random % (blocks - 1)) % blocks);
+            }
+            return pass == 0
+                    ? (int) (random % (slice * length))
+                    : (int) (((slice + 1) * length + random % (blocks - length)) % blocks);
+        }
+    }
+
+    // F: ein Blockschritt mit workspace[0, 8) als Nachricht, dann Doppel-Finalisierung für volle Diffusion
+    private static void compress(long[] state, long[] workspace) {
+        DavoHash512.processBlock(state, workspace, BLOCK_WORDS);
+        DavoHash512.doubleFinalization(state);
+    }
+
+    private static byte[] passwordBytes(CharSequence password) {
+        return Normalizer.normalize(password, Normalizer.Form.NFC).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Unterbrochen beim Warten auf eine Bahn", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private record Encoded(Params params, byte[] salt, byte[] hash) {
+        static Encoded parse(String encoded) {
+            String[] parts = encoded.split("\\$", -1);
+            if (parts.length != 6 || !parts[0].isEmpty() || !parts[1].equals(ALGORITHM)) {
+                throw new IllegalArgumentException("Kein DavoKdf-Hash: " + encoded);
+            }
+            if (!parts[2].equals("v=" + VERSION)) {
+                throw new IllegalArgumentException("Nicht unterstützte DavoKdf-Version: " + parts[2]);
+            }
+            int memory = -1, iterations = -1, lanes = -1;
+            for (String parameter : parts[3].split(",")) {
+                int separator = parameter.indexOf('=');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Ungültiger Parameter: " + parameter);
+                }
+                int value;
+                try {
+                    value = Integer.parseInt(parameter.substring(separator + 1));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Ungültiger Parameter: " + parameter, e);
+                }
+                switch (parameter.substring(0, separator)) {
+                    case "m" -> memory = value;
+                    case "t" -> iterations = value;
+                    case "p" -> lanes = value;
+                    default -> throw new IllegalArgumentException("Unbekannter Parameter: " + parameter);
+                }
+            }
+            byte[] salt = DavoHashCodec.fromBase64(parts[4], BASE64);
+            byte[] hash = DavoHashCodec.fromBase64(parts[5], BASE64);
+            if (hash.length < 1 || hash.length > MAX_OUTPUT_LENGTH) {
+                throw new IllegalArgumentException("Ungültige Hashlänge: " + hash.length);
+            }
+            return new Encoded(new Params(iterations, memory, lanes), salt, hash);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * HMAC-DavoHash512 nach RFC 2104 über den Stream-Modus ({@link DavoHash512.Digest}) mit 64 Byte Blockgröße:
+ * {@code H((K' ^ opad) || H((K' ^ ipad) || m))}, wobei Schlüssel über 64 Bytes zuerst gehasht werden.
+ * <p>
+ * Die Zustände nach dem inneren und äußeren Schlüsselblock werden einmal pro Schlüssel in einem
+ * {@link KeyState} vorberechnet; jede Nachricht kostet danach nur ihre eigenen Blöcke und den äußeren
+ * Abschlussblock. Ein {@code KeyState} ist unveränderlich und darf von beliebig vielen Threads geteilt werden,
+ * ein {@code DavoMac} dagegen ist nicht threadsicher. Nach {@link #doFinal()} und {@link #verify(byte[])}
+ * steht das Objekt wieder am Anfang und kann für die nächste Nachricht verwendet werden.
+ */
+public final class DavoMac {
+    public static final int MAC_LENGTH = DavoHash512.DIGEST_LENGTH;
+    private static final int BLOCK_SIZE = DavoHash512.BLOCK_SIZE;
+    private static final byte IPAD = 0x36;
+    private static final byte OPAD = 0x5c;
+
+    private final KeyState keyState;
+    private final DavoHash512.Digest digest;
+    private final byte[] innerHash = new byte[MAC_LENGTH];
+    private final byte[] computed = new byte[MAC_LENGTH];
+
+    private DavoMac(KeyState keyState, DavoHash512.Digest digest) {
+        this.keyState = keyState;
+        this.digest = digest;
+    }
+
+    /** Leitet die Schlüsselzustände ab; für wiederkehrende Schlüssel besser {@link KeyState} oder {@link KeyCache}. */
+    public static DavoMac init(byte[] key) {
+        return KeyState.derive(key).newMac();
+    }
+
+    public DavoMac update(byte input) {
+        digest.update(input);
+        return this;
+    }
+
+    public DavoMac update(byte[] input) {
+        digest.update(input);
+        return this;
+    }
+
+    public DavoMac update(byte[] input, int offset, int length) {
+        digest.update(input, offset, length);
+        return this;
+    }
+
+    public DavoMac update(ByteBuffer input) {
+        digest.update(input);
+        return this;
+    }
+
+    public byte[] doFinal() {
+        byte[] out = new byte[MAC_LENGTH];
+        doFinal(out, 0);
+        return out;
+    }
+
+    /** Schreibt den MAC nach out ab offset, setzt das Objekt zurück und liefert {@link #MAC_LENGTH}. */
+    public int doFinal(byte[] out, int offset) {
+        Objects.checkFromIndexSize(offset, MAC_LENGTH, out.length);
+        digest.digest(innerHash, 0);
+        digest.copyFrom(keyState.outer).update(innerHash, 0, MAC_LENGTH).digest(out, offset);
+        Arrays.fill(innerHash, (byte) 0);
+        reset();
+        return MAC_LENGTH;
+    }
+
+    /** Hasht eine vollständige Nachricht; vorher übergebene Daten werden mit einbezogen. */
+    public byte[] mac(byte[] message) {
+        return update(message).doFinal();
+    }
+
+    /**
+     * Schließt die Nachricht ab und vergleicht den MAC in konstanter Zeit (unabhängig davon, ab welchem
+     * Byte die Werte abweichen). Ein MAC falscher Länge wird abgelehnt.
+     */
+    public boolean verify(byte[] mac) {
+        doFinal(computed, 0);
+        boolean equal = MessageDigest.isEqual(computed, mac);
+        Arrays.fill(computed, (byte) 0);
+        return equal;
+    }
+
+    /** Verwirft die bisher übergebenen Daten; der Schlüssel bleibt erhalten. */
+    public void reset() {
+        digest.copyFrom(keyState.inner);
+    }
+
+    /** Unabhängige Kopie des aktuellen Zwischenstands, z. B. für Nachrichten mit gemeinsamem Präfix. */
+    public DavoMac copy() {
+        return new DavoMac(keyState, digest.copy());
+    }
+
+    public KeyState keyState() {
+        return keyState;
+    }
+
+    /**
+     * Vorberechnete Zustände nach {@code K' ^ ipad} bzw. {@code K' ^ opad}. Der Schlüssel selbst wird nicht
+     * gespeichert.
+     */
+    public static final class KeyState {
+        private final DavoHash512.Digest inner;
+        private final DavoHash512.Digest outer;
+
+        private KeyState(DavoHash512.Digest inner, DavoHash512.Digest outer) {
+            this.inner = inner;
+            this.outer = outer;
+        }
+
+        public static KeyState derive(byte[] key) {
+            byte[] block = new byte[BLOCK_SIZE];
+            if (key.length > BLOCK_SIZE) {
+                new DavoHash512.Digest().update(key).digest(block, 0);
+            } else {
+                System.arraycopy(key, 0, block, 0, key.length);
+            }
+
+            for (int i = 0; i < BLOCK_SIZE; i++) block[i] ^= IPAD;
+            DavoHash512.Digest inner = new DavoHash512.Digest().update(block);
+            for (int i = 0; i < BLOCK_SIZE; i++) block[i] ^= IPAD ^ OPAD;
+            DavoHash512.Digest outer = new DavoHash512.Digest().update(block);
+            Arrays.fill(block, (byte) 0);
+            return new KeyState(inner, outer);
+        }
+
+        public DavoMac newMac() {
+            return new DavoMac(this, inner.copy());
+        }
+    }
+
+    /**
+     * Threadsicherer Cache abgeleiteter {@link KeyState}s, z. B. je Mandant. Höchstens maxEntries Zustände werden
+     * in LRU-Reihenfolge gehalten; Schlüssel werden außerhalb der Sperre geladen und abgeleitet.
+     */
+    public static final class KeyCache<K> {
+        private final Function<? super K, byte[]> keyLoader;
+        private final Map<K, KeyState> entries;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        public KeyCache(int maxEntries, Function<? super K, byte[]> keyLoader) {
+            if (maxEntries <= 0) {
+                throw new IllegalArgumentException("maxEntries muss positiv sein: " + maxEntries);
+            }
+            this.keyLoader = keyLoader;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, KeyState> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        public KeyState get(K id) {
+            KeyState cached;
+            synchronized (entries) {
+                cached = entries.get(id);
+            }
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+
+            misses.increment();
+            byte[] key = keyLoader.apply(id);
+            if (key == null) {
+                throw new IllegalArgumentException("Kein Schlüssel für " + id);
+            }
+            KeyState derived = KeyState.derive(key);
+            synchronized (entries) {
+                // Hat ein anderer Thread parallel abgeleitet, gewinnt der zuerst eingetragene Zustand
+                KeyState existing = entries.putIfAbsent(id, derived);
+                return existing != null ? existing : derived;
+            }
+        }
+
+        /** Neuer MAC für den Schlüssel von id. */
+        public DavoMac newMac(K id) {
+            return get(id).newMac();
+        }
+
+        /** Entfernt den Zustand, z. B. nach einem Schlüsselwechsel. */
+        public void invalidate(K id) {
+            synchronized (entries) {
+                entries.remove(id);
+            }
+        }
+
+        public int size() {
+            synchronized (entries) {
+                return entries.size();
+            }
+        }
+
+        public long hits() {
+            return hits.sum();
+        }
+
+        public long misses() {
+            return misses.sum();
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Integritätsmanifeste für Verzeichnisbäume: eine Zeile {@code pfad  hex} je regulärer Datei, sortiert nach
+ * relativem Pfad (mit {@code /} als Trenner). Pfade mit Backslash oder Zeilenumbruch werden wie bei
+ * {@code sha512sum} maskiert und die Zeile mit einem Backslash eingeleitet. Dateien werden auf virtuellen Threads mit höchstens
+ * {@code maxInFlight} gleichzeitigen Lesevorgängen gehasht ({@link DavoHash512#hashFile(Path)}); die Ergebnisse
+ * werden in Sortierreihenfolge geschrieben, ohne das ganze Manifest im Speicher zu halten.
+ */
+public final class DavoManifest {
+    public static final int DEFAULT_MAX_IN_FLIGHT = 64;
+    private static final String SEPARATOR = "  ";
+
+    private DavoManifest() {
+    }
+
+    /** Ergebnis eines Laufs mit Durchsatz; problems ist bei {@link #create} immer leer. */
+    public record Report(long files, long bytes, Duration elapsed, List<String> problems) {
+        public boolean ok() {
+            return problems.isEmpty();
+        }
+
+        public double filesPerSecond() {
+            return files / seconds();
+        }
+
+        public double bytesPerSecond() {
+            return bytes / seconds();
+        }
+
+        private double seconds() {
+            return Math.max(elapsed.toNanos(), 1) / 1e9;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d Dateien, %d Bytes in %.3f s (%.1f Dateien/s, %.1f MB/s), %d Probleme",
+                    files, bytes, seconds(), filesPerSecond(), bytesPerSecond() / 1e6, problems.size());
+        }
+    }
+
+    public static Report create(Path root, Path manifest) {
+        return create(root, manifest, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public static Report create(Path root, Path manifest, int maxInFlight) {
+        checkMaxInFlight(maxInFlight);
+        long start = System.nanoTime();
+        long files = 0;
+        long bytes = 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             DavoHashCodec.ManifestWriter writer = new DavoHashCodec.ManifestWriter(FileChannel.open(manifest,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))) {
+            Deque<Future<Entry>> window = new ArrayDeque<>();
+            for (SortedFiles it = new SortedFiles(root, manifest); it.hasNext(); ) {
+                String relative = it.next();
+                if (window.size() >= maxInFlight) {
+                    Entry entry = await(window.poll());
+                    writer.write(entry.path, entry.digest);
+                    files++;
+                    bytes += entry.size;
+                }
+                window.add(executor.submit(() -> Entry.hash(root, relative)));
+            }
+            while (!window.isEmpty()) {
+                Entry entry = await(window.poll());
+                writer.write(entry.path, entry.digest);
+                files++;
+                bytes += entry.size;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new Report(files, bytes, Duration.ofNanos(System.nanoTime() - start), List.of());
+    }
+
+    public static Report verify(Path root, Path manifest, boolean failFast) {
+        return verify(root, manifest, failFast, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Prüft den Baum gegen ein sortiertes Manifest: abweichende Hashes, fehlende und nicht aufgeführte Dateien.
+     * Mit failFast endet die Prüfung beim ersten Problem, sonst werden alle Probleme gesammelt.
+     */
+    public static Report verify(Path root, Path manifest, boolean failFast, int maxInFlight) {
+        checkMaxInFlight(maxInFlight);
+        long start = System.nanoTime();
+        Verification verification = new Verification(failFast, maxInFlight);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+            SortedFiles tree = new SortedFiles(root, manifest);
+            String treePath = tree.hasNext() ? tree.next() : null;
+            String previous = null;
+            String line;
+
+            while (!verification.stopped() && (line = reader.readLine()) != null) {
+                String raw = line;
+                boolean escaped = line.startsWith("\\");
+                if (escaped) line = line.substring(1);
+                int separator = line.lastIndexOf(SEPARATOR);
+                if (separator < 0) {
+                    verification.enqueue(Check.problem("Ungültige Manifestzeile: " + raw));
+                    continue;
+                }
+                String path = escaped ? DavoHashCodec.unescape(line.substring(0, separator)) : line.substring(0, separator);
+                if (path == null) {
+                    verification.enqueue(Check.problem("Ungültige Manifestzeile: " + raw));
+                    continue;
+                }
+                byte[] expected;
+                try {
+                    expected = DavoHashCodec.fromHex(line.substring(separator + SEPARATOR.length()));
+                } catch (IllegalArgumentException e) {
+                    verification.enqueue(Check.problem("Ungültige Manifestzeile: " + raw));
+                    continue;
+                }
+                if (previous != null && previous.compareTo(path) >= 0) {
+                    verification.enqueue(Check.problem("Manifest nicht sortiert bei: " + path));
+                    treePath = null;
+                    break;
+                }
+                previous = path;
+
+                while (treePath != null && treePath.compareTo(path) < 0 && !verification.stopped()) {
+                    verification.enqueue(Check.problem("Nicht im Manifest: " + treePath));
+                    treePath = tree.hasNext() ? tree.next() : null;
+                }
+                if (treePath == null || !treePath.equals(path)) {
+                    verification.enqueue(Check.problem("Fehlt: " + path));
+                    continue;
+                }
+                treePath = tree.hasNext() ? tree.next() : null;
+
+                verification.enqueue(new Check(expected, executor.submit(() -> Entry.hash(root, path)), null));
+            }
+            while (treePath != null && !verification.stopped()) {
+                verification.enqueue(Check.problem("Nicht im Manifest: " + treePath));
+                treePath = tree.hasNext() ? tree.next() : null;
+            }
+            verification.drain();
+            if (verification.stopped()) {
+                executor.shutdownNow();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new Report(verification.files, verification.bytes, Duration.ofNanos(System.nanoTime() - start),
+                List.copyOf(verification.problems));
+    }
+
+    private static void checkMaxInFlight(int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight muss positiv sein: " + maxInFlight);
+        }
+    }
+
+    private static Entry await(Future<Entry> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Unterbrochen beim Warten auf einen Datei-Hash", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) throw io;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private record Entry(String path, byte[] digest, long size) {
+        static Entry hash(Path root, String relative) {
+            Path file = root.resolve(relative);
+            try {
+                long size = Files.size(file);
+                return new Entry(relative, DavoHash512.hashFile(file), size);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // Ausstehende Hash-Prüfung oder bereits feststehendes Problem, in Manifestreihenfolge
+    private record Check(byte[] expected, Future<Entry> result, String problem) {
+        static Check problem(String message) {
+            return new Check(null, null, message);
+        }
+    }
+
+    private static final class Verification {
+        private final boolean failFast;
+        private final int maxInFlight;
+        private final Deque<Check> window = new ArrayDeque<>();
+        private final List<String> problems = new ArrayList<>();
+        private long files;
+        private long bytes;
+
+        Verification(boolean failFast, int maxInFlight) {
+            this.failFast = failFast;
+            this.maxInFlight = maxInFlight;
+        }
+
+        boolean stopped() {
+            return failFast && !problems.isEmpty();
+        }
+
+        void enqueue(Check check) {
+            while (window.size() >= maxInFlight && !stopped()) {
+                check(window.poll());
+            }
+            if (!stopped()) window.add(check);
+        }
+
+        void drain() {
+            while (!window.isEmpty() && !stopped()) {
+                check(window.poll());
+            }
+        }
+
+        private void check(Check check) {
+            if (check.problem != null) {
+                problems.add(check.problem);
+                return;
+            }
+            Entry entry;
+            try {
+                entry = await(check.result);
+            } catch (UncheckedIOException e) {
+                problems.add("Nicht lesbar: " + e.getCause().getMessage());
+                return;
+            }
+            files++;
+            bytes += entry.size;
+            if (!Arrays.equals(entry.digest, check.expected)) {
+                problems.add("Hash weicht ab: " + entry.path);
+            }
+        }
+    }
+
+    /**
+     * Reguläre Dateien unter root als relative Pfade in lexikographischer Reihenfolge. Verzeichnisse werden
+     * einzeln gelistet und mit angehängtem "/" sortiert, dann ergibt die Tiefensuche genau die Sortierung
+     * der vollständigen Pfade; im Speicher liegt nur je eine Verzeichnisliste pro Ebene.
+     * Die Manifestdatei selbst wird ausgelassen, falls sie im Baum liegt.
+     */
+    private static final class SortedFiles implements Iterator<String> {
+        private final Path root;
+        private final Path manifest;
+        private final Deque<Iterator<String>> stack = new ArrayDeque<>();
+        private String next;
+
+        SortedFiles(Path root, Path manifest) throws IOException {
+            this.root = root;
+            this.manifest = manifest.toAbsolutePath().normalize();
+            stack.push(list("").iterator());
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (next == null) throw new NoSuchElementException();
+            String current = next;
+            try {
+                advance();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return current;
+        }
+
+        private void advance() throws IOException {
+            next = null;
+            while (!stack.isEmpty()) {
+                Iterator<String> level = stack.peek();
+                if (!level.hasNext()) {
+                    stack.pop();
+                    continue;
+                }
+                String entry = level.next();
+                if (entry.endsWith("/")) {
+                    stack.push(list(entry).iterator());
+                } else {
+                    next = entry;
+                    return;
+                }
+            }
+        }
+
+        // Einträge eines Verzeichnisses relativ zu root, Verzeichnisse mit "/" am Ende
+        private List<String> list(String directory) throws IOException {
+            List<String> entries = new ArrayList<>();
+            try (Stream<Path> children = Files.list(directory.isEmpty() ? root : root.resolve(directory))) {
+                for (Iterator<Path> it = children.iterator(); it.hasNext(); ) {
+                    Path child = it.next();
+                    String name = directory + child.getFileName();
+                    if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                        entries.add(name + "/");
+                    } else if (Files.isRegularFile(child, LinkOption.NOFOLLOW_LINKS)
+                            && !child.toAbsolutePath().normalize().equals(manifest)) {
+                        entries.add(name);
+                    }
+                }
+            }
+            entries.sort(null);
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.security.DigestException;
+import java.security.MessageDigestSpi;
+
+/**
+ * {@link MessageDigestSpi} auf Basis von {@link DavoHash512.Digest} (Stream-Modus).
+ * Direkte Puffer werden ohne Umweg über ein Heap-Array verarbeitet.
+ */
+public final class DavoMessageDigestSpi extends MessageDigestSpi implements Cloneable {
+    private DavoHash512.Digest digest = new DavoHash512.Digest();
+
+    @Override
+    protected int engineGetDigestLength() {
+        return DavoHash512.DIGEST_LENGTH;
+    }
+
+    @Override
+    protected void engineUpdate(byte input) {
+        digest.update(input);
+    }
+
+    @Override
+    protected void engineUpdate(byte[] input, int offset, int len) {
+        digest.update(input, offset, len);
+    }
+
+    @Override
+    protected void engineUpdate(ByteBuffer input) {
+        digest.update(input);
+    }
+
+    @Override
+    protected byte[] engineDigest() {
+        return digest.digest();
+    }
+
+    @Override
+    protected int engineDigest(byte[] buf, int offset, int len) throws DigestException {
+        if (len < DavoHash512.DIGEST_LENGTH) {
+            throw new DigestException("Puffer zu klein für " + DavoHash512.DIGEST_LENGTH + " Bytes Hash: " + len);
+        }
+        return digest.digest(buf, offset);
+    }
+
+    @Override
+    protected void engineReset() {
+        digest.reset();
+    }
+
+    @Override
+    public Object clone() throws CloneNotSupportedException {
+        DavoMessageDigestSpi copy = (DavoMessageDigestSpi) super.clone();
+        copy.digest = digest.copy();
+        return copy;
+    }
+}
@@ -0,0 +1,37 @@
+package org.example;
+
+import java.io.Serial;
+import java.security.Provider;
+import java.security.Security;
+import java.util.List;
+
+/**
+ * JCA-Provider für DavoHash512, z. B. {@code MessageDigest.getInstance("DAVOHASH-512")}.
+ * <p>
+ * Registrierung ohne Codeänderung: der Provider ist per {@link java.util.ServiceLoader} auffindbar und kann in
+ * {@code java.security} (oder über {@code -Djava.security.properties}) mit {@code security.provider.N=DavoHash}
+ * eingetragen werden. Alternativ registriert {@link #install()} ihn zur Laufzeit.
+ */
+public final class DavoProvider extends Provider {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static final String NAME = "DavoHash";
+    public static final String ALGORITHM = "DAVOHASH-512";
+
+    public DavoProvider() {
+        super(NAME, "1.0", "DavoHash512 MessageDigest (" + ALGORITHM + ")");
+        putService(new Service(this, "MessageDigest", ALGORITHM, DavoMessageDigestSpi.class.getName(),
+                List.of("DavoHash512", "DAVOHASH512"), null));
+    }
+
+    /** Registriert den Provider, falls noch keiner mit diesem Namen vorhanden ist. */
+    public static synchronized Provider install() {
+        Provider installed = Security.getProvider(NAME);
+        if (installed != null) return installed;
+
+        DavoProvider provider = new DavoProvider();
+        Security.addProvider(provider);
+        return provider;
+    }
+}
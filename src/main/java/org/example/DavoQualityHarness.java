@@ -0,0 +1,464 @@
+package org.example;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Statistische Prüfungen für Hashfunktionen mit vielen Millionen Stichproben: Kollisionen, Avalanche-Effekt,
+ * Bit-Bias und Chi-Quadrat-Test der Bytes. Eingaben erzeugt ein {@link Generator} deterministisch aus dem
+ * Stichprobenindex in einen wiederverwendeten Puffer, jede Prüfung läuft auf parallelism Threads mit eigenen
+ * Zählern, die am Ende zusammengeführt werden; je Stichprobe wird nichts allokiert.
+ * <p>
+ * Für Kollisionen werden 128-Bit-Präfixe in eine Open-Addressing-Tabelle außerhalb des Heaps eingetragen
+ * (16 Bytes je Platz, Füllgrad höchstens 3/4), Threads tragen ohne Sperre per Compare-and-Set ein.
+ * Verglichen werden 127 Bit, da ein Bit den Platz als belegt markiert.
+ */
+public final class DavoQualityHarness {
+    /** Größte Eingabe, die ein {@link Generator} schreiben darf. */
+    public static final int MAX_INPUT_LENGTH = 1024;
+    // Höchstens so viele Eingabebits werden beim Avalanche-Test einzeln gekippt
+    static final int MAX_AVALANCHE_BITS = 512;
+    private static final int MAX_EXAMPLES = 10;
+
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    /** Schreibt die Eingabe der Stichprobe index nach buffer und liefert ihre Länge. */
+    @FunctionalInterface
+    public interface Generator {
+        int sample(long index, byte[] buffer);
+    }
+
+    /** Hasht input[0, length) nach out; out hat die beim Harness angegebene Länge. */
+    @FunctionalInterface
+    public interface Hasher {
+        void hash(byte[] input, int length, byte[] out);
+    }
+
+    public static final Hasher DAVOHASH512 = (input, length, out) -> DavoHash512.hashInto(input, 0, length, out, 0);
+
+    /**
+     * {@link DavoHash512#hash(String)} über die als UTF-8 dekodierte Eingabe, wie in den ursprünglichen Tests mit
+     * {@code new String(bytes, UTF_8)}: prüft NFC-Normalisierung, UTF-16 und Ersatzzeichen für ungültige Bytes.
+     * Verschiedene ungültige Bytefolgen können denselben String ergeben, für Avalanche-Tests ungeeignet.
+     */
+    public static final Hasher DAVOHASH512_STRING = (input, length, out) ->
+            System.arraycopy(DavoHash512.hash(new String(input, 0, length, StandardCharsets.UTF_8)), 0, out, 0, DavoHash512.DIGEST_LENGTH);
+
+    private final Hasher hasher;
+    private final int digestLength;
+    private final int parallelism;
+
+    public DavoQualityHarness(Hasher hasher, int digestLength, int parallelism) {
+        if (digestLength < 16 && digestLength != 8) {
+            throw new IllegalArgumentException("Hashlänge muss 8 oder mindestens 16 Bytes betragen: " + digestLength);
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism muss positiv sein: " + parallelism);
+        }
+        this.hasher = hasher;
+        this.digestLength = digestLength;
+        this.parallelism = parallelism;
+    }
+
+    /** {@link DavoHash512#hash(byte[])} auf allen Prozessoren. */
+    public static DavoQualityHarness forDavoHash512() {
+        return new DavoQualityHarness(DAVOHASH512, DavoHash512.DIGEST_LENGTH, Runtime.getRuntime().availableProcessors());
+    }
+
+    /** {@link DavoHash512#hash(String)} auf allen Prozessoren, siehe {@link #DAVOHASH512_STRING}. */
+    public static DavoQualityHarness forDavoHash512Strings() {
+        return new DavoQualityHarness(DAVOHASH512_STRING, DavoHash512.DIGEST_LENGTH, Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Eingaben {@code prefix + index} (dezimal, ASCII), wie sie die bisherigen Kollisionstests erzeugten. */
+    public static Generator counter(String prefix) {
+        byte[] prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+        if (prefixBytes.length + 20 > MAX_INPUT_LENGTH) {
+            throw new IllegalArgumentException("Präfix zu lang: " + prefixBytes.length + " Bytes");
+        }
+        return (index, buffer) -> {
+            System.arraycopy(prefixBytes, 0, buffer, 0, prefixBytes.length);
+            int digits = 1;
+            for (long rest = index; rest >= 10; rest /= 10) digits++;
+            long value = index;
+            for (int i = prefixBytes.length + digits - 1; i >= prefixBytes.length; i--) {
+                buffer[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            return prefixBytes.length + digits;
+        };
+    }
+
+    /** Pseudozufällige Eingaben fester Länge, aus seed und Index abgeleitet und damit reproduzierbar. */
+    public static Generator random(int length, long seed) {
+        if (length < 0 || length > MAX_INPUT_LENGTH) {
+            throw new IllegalArgumentException("Ungültige Länge: " + length);
+        }
+        return (index, buffer) -> {
+            long state = seed ^ DavoHash512.avalancheMix(index + 0x9E3779B97F4A7C15L);
+            for (int i = 0; i < length; i += 8) {
+                state += 0x9E3779B97F4A7C15L;
+                long word = DavoHash512.avalancheMix(state);
+                for (int b = 0; b < 8 && i + b < length; b++) {
+                    buffer[i + b] = (byte) (word >>> (56 - 8 * b));
+                }
+            }
+            return length;
+        };
+    }
+
+    /** Ergebnis der Kollisionssuche; examples enthält die ersten kollidierenden Präfixe (hex). */
+    public record Collisions(long samples, long collisions, List<String> examples, Duration elapsed) {
+    }
+
+    /**
+     * Avalanche-Effekt: mittlere Wahrscheinlichkeit, dass ein Ausgabebit kippt, wenn ein Eingabebit kippt (ideal
+     * 0,5), größte Abweichung einer einzelnen Kombination aus Eingabe- und Ausgabebit (Strict Avalanche
+     * Criterion), auch in Standardabweichungen, sowie kleinste und größte Hamming-Distanz.
+     */
+    public record Avalanche(long samples, long flips, double meanFlipProbability, double worstBias, double worstBiasSigma,
+                            int minDistance, int maxDistance, Duration elapsed) {
+    }
+
+    /** Größte Abweichung eines Ausgabebits von 0,5 (in Standardabweichungen) und Chi-Quadrat der Bytewerte. */
+    public record Distribution(long samples, double worstBitBias, double worstBitBiasSigma, double chiSquare,
+                               double chiSquareZ, Duration elapsed) {
+    }
+
+    /** Zusammenfassung aller Prüfungen, {@link #toString()} liefert einen lesbaren Bericht. */
+    public record Report(Collisions collisions, Avalanche avalanche, Distribution distribution) {
+        @Override
+        public String toString() {
+            return String.format("""
+                            Kollisionen:  %d bei %d Stichproben (128-Bit-Präfix) in %.2f s%s
+                            Avalanche:    %.5f mittlere Kipp-Wahrscheinlichkeit, SAC-Abweichung max %.4f (%.1f Sigma), Distanz %d..%d, %d Hashes in %.2f s
+                            Bit-Bias:     max %.5f (%.1f Sigma) bei %d Stichproben
+                            Chi-Quadrat:  %.1f bei 255 Freiheitsgraden (z = %.2f) in %.2f s""",
+                    collisions.collisions, collisions.samples, seconds(collisions.elapsed),
+                    collisions.examples.isEmpty() ? "" : " " + collisions.examples,
+                    avalanche.meanFlipProbability, avalanche.worstBias, avalanche.worstBiasSigma,
+                    avalanche.minDistance, avalanche.maxDistance, avalanche.flips, seconds(avalanche.elapsed),
+                    distribution.worstBitBias, distribution.worstBitBiasSigma, distribution.samples,
+                    distribution.chiSquare, distribution.chiSquareZ, seconds(distribution.elapsed));
+        }
+
+        private static double seconds(Duration duration) {
+            return duration.toNanos() / 1e9;
+        }
+    }
+
+    public Report run(Generator generator, long collisionSamples, long avalancheSamples, long distributionSamples) {
+        return new Report(collisions(generator, collisionSamples), avalanche(generator, avalancheSamples),
+                distribution(generator, distributionSamples));
+    }
+
+    /** Hasht samples Eingaben und zählt doppelte 128-Bit-Präfixe (bei 8 Byte Hashlänge: 64 Bit). */
+    public Collisions collisions(Generator generator, long samples) {
+        long start = System.nanoTime();
+        try (CollisionTable table = new CollisionTable(samples)) {
+            parallel(generator, samples, () -> null, (index, input, length, digest, ignored) -> {
+                long hi = (long) LONG_BE.get(digest, 0);
+                long lo = digestLength >= 16 ? (long) LONG_BE.get(digest, 8) : 0;
+                table.insert(hi, lo);
+            }, (a, b) -> null);
+            return new Collisions(samples, table.collisions.sum(), List.copyOf(table.examples),
+                    Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /** Kippt für jede Basiseingabe jedes ihrer ersten {@value #MAX_AVALANCHE_BITS} Bits einzeln. */
+    public Avalanche avalanche(Generator generator, long samples) {
+        long start = System.nanoTime();
+        int outputBits = digestLength * 8;
+        AvalancheCounts total = parallel(generator, samples, () -> new AvalancheCounts(outputBits), (index, input, length, digest, counts) -> {
+            byte[] flipped = counts.flipped;
+            int inputBits = Math.min(length * 8, MAX_AVALANCHE_BITS);
+            counts.ensureInputBits(inputBits);
+            for (int bit = 0; bit < inputBits; bit++) {
+                input[bit >>> 3] ^= (byte) (0x80 >>> (bit & 7));
+                hasher.hash(input, length, flipped);
+                input[bit >>> 3] ^= (byte) (0x80 >>> (bit & 7));
+                counts.record(bit, digest, flipped);
+            }
+        }, AvalancheCounts::merge);
+
+        long flips = total.hashes;
+        double worstBias = 0;
+        long flippedBits = 0;
+        for (int bit = 0; bit < total.inputBits; bit++) {
+            long trials = total.trials[bit];
+            if (trials == 0) continue;
+            for (int out = 0; out < outputBits; out++) {
+                long count = total.cells[bit * outputBits + out];
+                flippedBits += count;
+                worstBias = Math.max(worstBias, Math.abs((double) count / trials - 0.5));
+            }
+        }
+        long minTrials = Long.MAX_VALUE;
+        for (int bit = 0; bit < total.inputBits; bit++) {
+            if (total.trials[bit] > 0) minTrials = Math.min(minTrials, total.trials[bit]);
+        }
+        double sigma = minTrials == Long.MAX_VALUE ? Double.NaN : worstBias / (0.5 / Math.sqrt(minTrials));
+        double mean = flips == 0 ? Double.NaN : (double) flippedBits / ((double) flips * outputBits);
+        return new Avalanche(samples, flips, mean, worstBias, sigma, flips == 0 ? 0 : total.minDistance, total.maxDistance,
+                Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /** Zählt Einsen je Ausgabebit und die Häufigkeit jedes Bytewerts über alle Ausgabebytes. */
+    public Distribution distribution(Generator generator, long samples) {
+        long start = System.nanoTime();
+        int outputBits = digestLength * 8;
+        DistributionCounts total = parallel(generator, samples, () -> new DistributionCounts(outputBits), (index, input, length, digest, counts) -> {
+            for (int i = 0; i < digest.length; i++) {
+                int value = digest[i] & 0xFF;
+                counts.bytes[value]++;
+                long[] ones = counts.ones;
+                int base = i * 8;
+                for (int b = 0; b < 8; b++) {
+                    ones[base + b] += (value >>> (7 - b)) & 1;
+                }
+            }
+        }, DistributionCounts::merge);
+
+        double worstBias = 0;
+        for (long ones : total.ones) {
+            worstBias = Math.max(worstBias, Math.abs((double) ones / samples - 0.5));
+        }
+        double expected = (double) samples * digestLength / 256;
+        double chiSquare = 0;
+        for (long count : total.bytes) {
+            double delta = count - expected;
+            chiSquare += delta * delta / expected;
+        }
+        // Wilson-Hilferty: (χ²/k)^(1/3) ist näherungsweise normalverteilt
+        double k = 255;
+        double chiSquareZ = (Math.cbrt(chiSquare / k) - (1 - 2 / (9 * k))) / Math.sqrt(2 / (9 * k));
+        return new Distribution(samples, worstBias, worstBias / (0.5 / Math.sqrt(samples)), chiSquare, chiSquareZ,
+                Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    @FunctionalInterface
+    private interface SampleConsumer<A> {
+        void accept(long index, byte[] input, int length, byte[] digest, A accumulator);
+    }
+
+    @FunctionalInterface
+    private interface Merger<A> {
+        A merge(A a, A b);
+    }
+
+    /**
+     * Verteilt die Indizes [0, samples) in zusammenhängenden Bereichen auf parallelism Threads. Jeder Thread hat
+     * eigene Puffer und einen eigenen Akkumulator, die Akkumulatoren werden am Ende zusammengeführt.
+     */
+    private <A> A parallel(Generator generator, long samples, Supplier<A> accumulator, SampleConsumer<A> consumer,
+                           Merger<A> merger) {
+        if (samples < 0) {
+            throw new IllegalArgumentException("Anzahl Stichproben darf nicht negativ sein: " + samples);
+        }
+        int threads = (int) Math.max(1, Math.min(parallelism, samples));
+        List<Callable<A>> tasks = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            long from = samples / threads * t + Math.min(t, samples % threads);
+            long to = from + samples / threads + (t < samples % threads ? 1 : 0);
+            tasks.add(() -> {
+                A counts = accumulator.get();
+                byte[] input = new byte[MAX_INPUT_LENGTH];
+                byte[] digest = new byte[digestLength];
+                for (long index = from; index < to; index++) {
+                    int length = generator.sample(index, input);
+                    hasher.hash(input, length, digest);
+                    consumer.accept(index, input, length, digest, counts);
+                }
+                return counts;
+            });
+        }
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            A result = null;
+            boolean first = true;
+            for (Future<A> future : executor.invokeAll(tasks)) {
+                A part = future.get();
+                result = first ? part : merger.merge(result, part);
+                first = false;
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Unterbrochen während der Qualitätsprüfung", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static final class AvalancheCounts {
+        final int outputBits;
+        final byte[] flipped;
+        // Je Eingabebit und Ausgabebit: wie oft das Ausgabebit gekippt ist
+        final long[] cells;
+        final long[] trials = new long[MAX_AVALANCHE_BITS];
+        int inputBits;
+        long hashes;
+        int minDistance = Integer.MAX_VALUE;
+        int maxDistance;
+
+        AvalancheCounts(int outputBits) {
+            this.outputBits = outputBits;
+            this.flipped = new byte[outputBits / 8];
+            this.cells = new long[MAX_AVALANCHE_BITS * outputBits];
+        }
+
+        void ensureInputBits(int bits) {
+            inputBits = Math.max(inputBits, bits);
+        }
+
+        void record(int bit, byte[] base, byte[] changed) {
+            trials[bit]++;
+            hashes++;
+            int cellBase = bit * outputBits;
+            int distance = 0;
+            for (int i = 0; i < base.length; i++) {
+                int diff = (base[i] ^ changed[i]) & 0xFF;
+                distance += Integer.bitCount(diff);
+                while (diff != 0) {
+                    cells[cellBase + i * 8 + 7 - Integer.numberOfTrailingZeros(diff)]++;
+                    diff &= diff - 1;
+                }
+            }
+            minDistance = Math.min(minDistance, distance);
+            maxDistance = Math.max(maxDistance, distance);
+        }
+
+        AvalancheCounts merge(AvalancheCounts other) {
+            for (int i = 0; i < cells.length; i++) cells[i] += other.cells[i];
+            for (int i = 0; i < trials.length; i++) trials[i] += other.trials[i];
+            inputBits = Math.max(inputBits, other.inputBits);
+            hashes += other.hashes;
+            minDistance = Math.min(minDistance, other.minDistance);
+            maxDistance = Math.max(maxDistance, other.maxDistance);
+            return this;
+        }
+    }
+
+    private static final class DistributionCounts {
+        final long[] ones;
+        final long[] bytes = new long[256];
+
+        DistributionCounts(int outputBits) {
+            this.ones = new long[outputBits];
+        }
+
+        DistributionCounts merge(DistributionCounts other) {
+            for (int i = 0; i < ones.length; i++) ones[i] += other.ones[i];
+            for (int i = 0; i < bytes.length; i++) bytes[i] += other.bytes[i];
+            return this;
+        }
+    }
+
+    /**
+     * Open-Addressing-Tabelle mit linearer Sondierung in Speicher einer {@link Arena}, aufgeteilt in Abschnitte
+     * von höchstens 1 GiB (ein {@link ByteBuffer} ist auf 2 GiB begrenzt). Ein Platz ist frei, solange das erste
+     * Wort 0 ist; das zweite Wort wird erst nach dem Belegen geschrieben und ist nie 0.
+     */
+    private static final class CollisionTable implements AutoCloseable {
+        private static final VarHandle SLOT = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+        private static final int SLOT_SIZE = 16;
+        private static final int SHARD_SLOT_BITS = 26;
+        private static final long SHARD_MASK = (1L << SHARD_SLOT_BITS) - 1;
+
+        private final Arena arena = Arena.ofShared();
+        private final ByteBuffer[] shards;
+        private final long capacity;
+        final LongAdder collisions = new LongAdder();
+        final List<String> examples = new ArrayList<>();
+
+        CollisionTable(long samples) {
+            capacity = Math.max(16, samples + samples / 3 + 1);
+            int shardCount = (int) ((capacity + SHARD_MASK) >>> SHARD_SLOT_BITS);
+            shards = new ByteBuffer[shardCount];
+            try {
+                for (int i = 0; i < shardCount; i++) {
+                    long slots = Math.min(1L << SHARD_SLOT_BITS, capacity - ((long) i << SHARD_SLOT_BITS));
+                    MemorySegment segment = arena.allocate(slots * SLOT_SIZE, SLOT_SIZE);
+                    shards[i] = segment.asByteBuffer();
+                }
+            } catch (RuntimeException | OutOfMemoryError e) {
+                arena.close();
+                throw e;
+            }
+        }
+
+        void insert(long hi, long lo) {
+            if (hi == 0) hi = 1;
+            lo |= 1;
+            long index = Math.unsignedMultiplyHigh(hi, capacity);
+            while (true) {
+                ByteBuffer shard = shards[(int) (index >>> SHARD_SLOT_BITS)];
+                int offset = (int) (index & SHARD_MASK) * SLOT_SIZE;
+                long current = (long) SLOT.getVolatile(shard, offset);
+                if (current == 0) {
+                    if (SLOT.compareAndSet(shard, offset, 0L, hi)) {
+                        SLOT.setRelease(shard, offset + 8, lo);
+                        return;
+                    }
+                    current = (long) SLOT.getVolatile(shard, offset);
+                }
+                if (current == hi) {
+                    long existing;
+                    // Der belegende Thread schreibt das zweite Wort gleich nach dem Compare-and-Set
+                    while ((existing = (long) SLOT.getAcquire(shard, offset + 8)) == 0) {
+                        Thread.onSpinWait();
+                    }
+                    if (existing == lo) {
+                        collision(hi, lo);
+                        return;
+                    }
+                }
+                index = index + 1 == capacity ? 0 : index + 1;
+            }
+        }
+
+        private void collision(long hi, long lo) {
+            collisions.increment();
+            synchronized (examples) {
+                if (examples.size() < MAX_EXAMPLES) examples.add(String.format("%016x%016x", hi, lo));
+            }
+        }
+
+        @Override
+        public void close() {
+            arena.close();
+        }
+    }
+
+    /**
+     * Bericht für {@link DavoHash512#hash(byte[])}: {@code [kollisionen [avalanche [verteilung]]]} Stichproben,
+     * Standard 25 000 000, 20 000 und 1 000 000.
+     */
+    public static void main(String[] args) {
+        long collisionSamples = args.length > 0 ? Long.parseLong(args[0]) : 25_000_000;
+        long avalancheSamples = args.length > 1 ? Long.parseLong(args[1]) : 20_000;
+        long distributionSamples = args.length > 2 ? Long.parseLong(args[2]) : 1_000_000;
+        DavoQualityHarness harness = forDavoHash512();
+        Report report = new Report(harness.collisions(counter("davohash-quality-"), collisionSamples),
+                harness.avalanche(random(64, 1), avalancheSamples),
+                harness.distribution(random(64, 2), distributionSamples));
+        System.out.println(report);
+    }
+}
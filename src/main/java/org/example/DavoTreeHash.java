@@ -0,0 +1,175 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static org.example.DavoHash512.*;
+
+/**
+ * DavoHash512-Tree: eigenständiger Baum-Modus für große Eingaben.
+ * <p>
+ * Die Eingabe wird in Blätter fester Größe geteilt, jedes Blatt mit der DavoHash512-Kompressionsfunktion
+ * gehasht und die Zwischenwerte in einem linkslastigen Binärbaum zusammengeführt (der linke Teilbaum
+ * enthält jeweils die größte Zweierpotenz an Blättern). Blätter, innere Knoten und die Wurzel starten mit
+ * getrennten Domänenwerten; die Wurzel bindet zusätzlich Blattgröße und Gesamtlänge ein. Das Ergebnis ist
+ * unabhängig von der Parallelität, unterscheidet sich aber von {@link DavoHash512#hashFile(Path)}.
+ */
+public final class DavoTreeHash {
+    public static final int DEFAULT_LEAF_SIZE = 1 << 20;
+
+    // Negative Startwerte trennen die Baum-Domänen von den längenbasierten Startzuständen der übrigen Modi
+    private static final long LEAF_DOMAIN = -1L;
+    private static final long NODE_DOMAIN = -2L;
+    private static final long ROOT_DOMAIN = -3L;
+
+    private DavoTreeHash() {
+    }
+
+    public static byte[] hash(Path path) {
+        return hash(path, DEFAULT_LEAF_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Blendet die Datei vollständig ein und hasht sie mit parallelism Threads. */
+    public static byte[] hash(Path path, int leafSize, int parallelism) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             Arena arena = Arena.ofShared()) {
+            long size = channel.size();
+            MemorySegment segment = size == 0 ? MemorySegment.NULL : channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+            return hash(segment, leafSize, parallelism);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static byte[] hash(MemorySegment segment) {
+        return hash(segment, DEFAULT_LEAF_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Das Segment muss von allen Threads des Pools lesbar sein (z. B. aus {@link Arena#ofShared()} oder global). */
+    public static byte[] hash(MemorySegment segment, int leafSize, int parallelism) {
+        if (leafSize <= 0 || leafSize % BLOCK_SIZE != 0) {
+            throw new IllegalArgumentException("Blattgröße muss ein positives Vielfaches von " + BLOCK_SIZE + " sein: " + leafSize);
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelität muss positiv sein: " + parallelism);
+        }
+
+        DavoHashMetrics.Timing start = DavoHashMetrics.start();
+        long length = segment.byteSize();
+        long leaves = Math.max(1, (length + leafSize - 1) / leafSize);
+
+        long[] top;
+        if (parallelism == 1 || leaves == 1) {
+            // Ohne fork(), das außerhalb eines Pools auf den gemeinsamen Pool ausweichen würde
+            top = sequential(segment, leafSize, 0, leaves);
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                top = pool.invoke(new TreeTask(segment, leafSize, 0, leaves));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        byte[] hashBytes = root(top, leafSize, length);
+        // Volle Blöcke, je Blatt ein Abschlussblock, leaves - 1 Knoten und die Wurzel
+        DavoHashMetrics.record(DavoHashMetrics.Source.TREE, length, length / BLOCK_SIZE + 2 * leaves, start);
+        return hashBytes;
+    }
+
+    // Wurzel: Zwischenwert (8 Wörter) und Blattgröße als 72 Datenbytes, Gesamtlänge im Padding
+    private static byte[] root(long[] chainingValue, int leafSize, long length) {
+        long[] state = new long[STATE_SIZE];
+        long[] workspace = new long[WORKSPACE_SIZE];
+        initializeState(state, ROOT_DOMAIN);
+
+        System.arraycopy(chainingValue, 0, workspace, 0, STATE_SIZE);
+        workspace[STATE_SIZE] = leafSize;
+        processBlock(state, workspace, padBlock(workspace, STATE_SIZE * 8 + 8, length * 8));
+        doubleFinalization(state);
+
+        byte[] hashBytes = new byte[DIGEST_LENGTH];
+        writeHashBytes(state, hashBytes, 0);
+        return hashBytes;
+    }
+
+    private static long[] sequential(MemorySegment segment, int leafSize, long firstLeaf, long leafCount) {
+        if (leafCount == 1) {
+            return leaf(segment, leafSize, firstLeaf);
+        }
+        long leftCount = Long.highestOneBit(leafCount - 1);
+        long[] leftValue = sequential(segment, leafSize, firstLeaf, leftCount);
+        return node(leftValue, sequential(segment, leafSize, firstLeaf + leftCount, leafCount - leftCount));
+    }
+
+    // Blatt: volle Blöcke ohne Padding, der letzte (ggf. leere) Teilblock trägt die Blattlänge
+    private static long[] leaf(MemorySegment segment, int leafSize, long index) {
+        long start = index * leafSize;
+        long length = Math.min(leafSize, segment.byteSize() - start);
+        long[] state = new long[STATE_SIZE];
+        long[] workspace = new long[WORKSPACE_SIZE];
+        initializeState(state, LEAF_DOMAIN);
+
+        long offset = 0;
+        for (; offset + BLOCK_SIZE <= length; offset += BLOCK_SIZE) {
+            loadBytes(segment, start + offset, BLOCK_SIZE, workspace);
+            processBlock(state, workspace, BLOCK_WORDS);
+        }
+        int remaining = (int) (length - offset);
+        loadBytes(segment, start + offset, remaining, workspace);
+        processBlock(state, workspace, padBlock(workspace, remaining, length * 8));
+        doubleFinalization(state);
+        return state;
+    }
+
+    private static long[] node(long[] left, long[] right) {
+        long[] state = new long[STATE_SIZE];
+        long[] workspace = new long[WORKSPACE_SIZE];
+        initializeState(state, NODE_DOMAIN);
+
+        System.arraycopy(left, 0, workspace, 0, STATE_SIZE);
+        System.arraycopy(right, 0, workspace, STATE_SIZE, STATE_SIZE);
+        processBlock(state, workspace, MAX_BLOCK_WORDS);
+        doubleFinalization(state);
+        return state;
+    }
+
+    private static final class TreeTask extends RecursiveTask<long[]> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // Aufgaben werden nie serialisiert, das Segment ist ohnehin nicht serialisierbar
+        private final transient MemorySegment segment;
+        private final int leafSize;
+        private final long firstLeaf;
+        private final long leafCount;
+
+        TreeTask(MemorySegment segment, int leafSize, long firstLeaf, long leafCount) {
+            this.segment = segment;
+            this.leafSize = leafSize;
+            this.firstLeaf = firstLeaf;
+            this.leafCount = leafCount;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (leafCount == 1) {
+                return leaf(segment, leafSize, firstLeaf);
+            }
+
+            long leftCount = Long.highestOneBit(leafCount - 1);
+            TreeTask left = new TreeTask(segment, leafSize, firstLeaf, leftCount);
+            TreeTask right = new TreeTask(segment, leafSize, firstLeaf + leftCount, leafCount - leftCount);
+            left.fork();
+            long[] rightValue = right.compute();
+            return node(left.join(), rightValue);
+        }
+    }
+}
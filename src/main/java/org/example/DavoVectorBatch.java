@@ -0,0 +1,184 @@
+package org.example;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+import static org.example.DavoHash512.*;
+
+/**
+ * Mehrspurige Variante von {@link DavoHash512#hash(byte[])} über die Vector API: bis zu {@link #LANES}
+ * Nachrichten mit gleicher Blockstruktur laufen gemeinsam durch Runden und Finalisierung.
+ * Nur über {@link DavoHash512#hashBatch(byte[][], byte[][])} verwenden, das Modul ist optional.
+ */
+final class DavoVectorBatch {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    static final int LANES = SPECIES.length();
+
+    private DavoVectorBatch() {
+    }
+
+    /** Hasht alle Eingaben; Nachrichten ohne passende Partner für eine volle Gruppe werden skalar gehasht. */
+    static void hashBatch(byte[][] inputs, byte[][] outputs) {
+        // Sortierschlüssel: Blockstruktur (Anzahl Abschnitte, Wörter im letzten Abschnitt) und Index
+        long[] keys = new long[inputs.length];
+        for (int i = 0; i < inputs.length; i++) {
+            keys[i] = (long) shape(inputs[i].length) << 32 | i;
+        }
+        Arrays.sort(keys);
+
+        Lanes lanes = new Lanes();
+        int start = 0;
+        while (start < keys.length) {
+            int end = start;
+            while (end < keys.length && keys[end] >>> 32 == keys[start] >>> 32) end++;
+
+            for (; end - start >= LANES; start += LANES) {
+                for (int lane = 0; lane < LANES; lane++) {
+                    lanes.index[lane] = (int) keys[start + lane];
+                }
+                DavoHashMetrics.Timing timing = DavoHashMetrics.start();
+                lanes.hash(inputs, outputs);
+                int length = inputs[lanes.index[0]].length;
+                DavoHashMetrics.record(DavoHashMetrics.Source.BATCH, LANES, (long) LANES * length,
+                        LANES * DavoHashMetrics.textBlocks(length), timing);
+            }
+            for (; start < end; start++) {
+                int index = (int) keys[start];
+                if (outputs[index] == null) outputs[index] = new byte[DIGEST_LENGTH];
+                hashInto(inputs[index], 0, inputs[index].length, outputs[index], 0);
+            }
+        }
+    }
+
+    private static int shape(int length) {
+        int chunks = (length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int last = length - (chunks - 1) * BLOCK_SIZE;
+        return chunks << 1 | (chunks > 0 && last + 16 >= BLOCK_SIZE ? 1 : 0);
+    }
+
+    // Arbeitsspeicher einer Gruppe, wortweise nach Spuren angeordnet: words[j * LANES + lane]
+    private static final class Lanes {
+        final int[] index = new int[LANES];
+        final long[] state = new long[STATE_SIZE * LANES];
+        final long[] words = new long[MAX_BLOCK_WORDS * LANES];
+        final long[] sboxWords = new long[MAX_BLOCK_WORDS * LANES];
+        final long[] laneState = new long[STATE_SIZE];
+        final long[] previous = new long[STATE_SIZE * LANES];
+        final long[] workspace = new long[WORKSPACE_SIZE];
+
+        void hash(byte[][] inputs, byte[][] outputs) {
+            for (int lane = 0; lane < LANES; lane++) {
+                initializeState(laneState, inputs[index[lane]].length);
+                for (int i = 0; i < STATE_SIZE; i++) {
+                    state[i * LANES + lane] = laneState[i];
+                }
+            }
+
+            int length = inputs[index[0]].length;
+            for (int done = 0; done < length; done += BLOCK_SIZE) {
+                int words = 0;
+                for (int lane = 0; lane < LANES; lane++) {
+                    byte[] input = inputs[index[lane]];
+                    int count = Math.min(BLOCK_SIZE, input.length - done);
+                    loadBytes(input, done, count, workspace);
+                    words = padBlock(workspace, count, count * 8L);
+                    storeLane(lane, words);
+                }
+                processBlock(words);
+            }
+            for (int lane = 0; lane < LANES; lane++) {
+                storeLane(lane, padBlock(workspace, 0, 0));
+            }
+            processBlock(BLOCK_WORDS);
+            doubleFinalization();
+
+            for (int lane = 0; lane < LANES; lane++) {
+                for (int i = 0; i < STATE_SIZE; i++) {
+                    laneState[i] = state[i * LANES + lane];
+                }
+                int target = index[lane];
+                if (outputs[target] == null) outputs[target] = new byte[DIGEST_LENGTH];
+                writeHashBytes(laneState, outputs[target], 0);
+            }
+        }
+
+        private void storeLane(int lane, int words) {
+            for (int j = 0; j < words; j++) {
+                this.words[j * LANES + lane] = workspace[j];
+                sboxWords[j * LANES + lane] = applySBoxToLong(workspace[j]);
+            }
+        }
+
+        // Entspricht DavoHash512.processBlock, jede Spur trägt den Zustand einer Nachricht
+        private void processBlock(int words) {
+            LongVector a = LongVector.fromArray(SPECIES, state, 0);
+            LongVector b = LongVector.fromArray(SPECIES, state, LANES);
+            LongVector c = LongVector.fromArray(SPECIES, state, 2 * LANES);
+            LongVector d = LongVector.fromArray(SPECIES, state, 3 * LANES);
+            LongVector e = LongVector.fromArray(SPECIES, state, 4 * LANES);
+            LongVector f = LongVector.fromArray(SPECIES, state, 5 * LANES);
+            LongVector g = LongVector.fromArray(SPECIES, state, 6 * LANES);
+            LongVector h = LongVector.fromArray(SPECIES, state, 7 * LANES);
+
+            for (int r = 0, i = 0; r < BASE_ROUNDS; r++) {
+                LongVector w = LongVector.fromArray(SPECIES, this.words, i * LANES);
+                LongVector k = w.lanewise(VectorOperators.XOR, ROUND_CONSTANTS[r % ROUND_CONSTANTS.length]);
+                LongVector ch = e.and(f).lanewise(VectorOperators.XOR, e.not().and(g));
+                LongVector maj = a.and(b).lanewise(VectorOperators.XOR, a.and(c)).lanewise(VectorOperators.XOR, b.and(c));
+                LongVector sigma0 = a.lanewise(VectorOperators.ROR, 28)
+                        .lanewise(VectorOperators.XOR, a.lanewise(VectorOperators.ROR, 34))
+                        .lanewise(VectorOperators.XOR, a.lanewise(VectorOperators.ROR, 39));
+                LongVector sigma1 = e.lanewise(VectorOperators.ROR, 14)
+                        .lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.ROR, 18))
+                        .lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.ROR, 41));
+
+                LongVector t1 = h.add(sigma1).add(ch).add(k).add(LongVector.fromArray(SPECIES, sboxWords, i * LANES));
+                LongVector t2 = sigma0.add(maj);
+
+                h = g;
+                g = f;
+                f = e;
+                e = d.add(t1);
+                d = c;
+                c = b;
+                b = a;
+                a = t1.add(t2);
+
+                a = a.lanewise(VectorOperators.XOR, a.add(r).and(0xFF));
+                if (++i == words) i = 0;
+            }
+
+            LongVector mix = avalancheMix(a.add(b).add(c).add(d).add(e).add(f).add(g).add(h));
+            System.arraycopy(state, 0, previous, 0, state.length);
+            for (int i = 0; i < STATE_SIZE; i++) {
+                LongVector value = LongVector.fromArray(SPECIES, previous, P_BOX_COMPOSITE[i] * LANES);
+                if (P_BOX_REVERSE) value = value.lanewise(VectorOperators.REVERSE);
+                value.lanewise(VectorOperators.XOR, mix).intoArray(state, i * LANES);
+            }
+        }
+
+        private void doubleFinalization() {
+            for (int round = 0; round < 24; round++) {
+                for (int i = 0; i < STATE_SIZE; i++) {
+                    LongVector value = avalancheMix(LongVector.fromArray(SPECIES, state, i * LANES));
+                    value = value.lanewise(VectorOperators.XOR, LongVector.fromArray(SPECIES, state, (i + 1) % STATE_SIZE * LANES)
+                            .lanewise(VectorOperators.ROR, round + i));
+                    value = value.add(LongVector.fromArray(SPECIES, state, (i + 3) % STATE_SIZE * LANES).mul(0x9E3779B97F4A7C15L));
+                    value.intoArray(state, i * LANES);
+                }
+            }
+        }
+
+        private static LongVector avalancheMix(LongVector x) {
+            x = x.lanewise(VectorOperators.XOR, x.lanewise(VectorOperators.LSHR, 29));
+            x = x.mul(0xBF58476D1CE4E5B9L);
+            x = x.lanewise(VectorOperators.XOR, x.lanewise(VectorOperators.LSHR, 27));
+            x = x.mul(0x94D049BB133111EBL);
+            x = x.lanewise(VectorOperators.XOR, x.lanewise(VectorOperators.LSHR, 31));
+            return x;
+        }
+    }
+}
@@ -0,0 +1,491 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Unveränderlicher, sortierter Index aus rohen 64-Byte-Hashes auf der Platte, z. B. für Allow- und Blocklisten
+ * mit zig Millionen {@link DavoHash512}-Hashes, ohne sie als {@code HashSet<String>} auf den Heap zu laden.
+ * <p>
+ * Aufbau der Datei: ein Kopf, eine Präfix-Tabelle mit {@code 2^bits + 1} Einträgen und die Hashes selbst,
+ * aufsteigend sortiert (vorzeichenlos, byteweise) und ohne Duplikate. Eintrag b der Tabelle ist der Index des
+ * ersten Hashes, dessen obere bits Bits mindestens b sind; eine Suche liest also einen Tabelleneintrag und
+ * sucht dann binär in einem Bereich von wenigen, direkt hintereinander liegenden Hashes.
+ * <p>
+ * Gebaut wird über {@link #builder(Path)} mit einem externen Merge-Sort: Hashes werden in Läufen begrenzter
+ * Größe im Speicher sortiert, bei Bedarf in temporäre Dateien geschrieben und am Ende zusammengeführt. Abgefragt
+ * wird über ein eingeblendetes {@link MemorySegment}; {@link #contains(byte[])} allokiert nichts und ist aus
+ * beliebig vielen Threads gleichzeitig nutzbar, solange der Index nicht geschlossen wird.
+ */
+public final class DigestIndex implements AutoCloseable {
+    public static final int DEFAULT_RUN_SIZE = 1 << 20;
+
+    private static final byte[] MAGIC = "DAVODI01".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_SIZE = 64;
+    private static final int WORDS = DavoHash512.DIGEST_LENGTH / Long.BYTES;
+    private static final int MAX_BUCKET_BITS = 22;
+    private static final int BATCH_GROUP = 16;
+    private static final int IO_BUFFER_SIZE = 1 << 20;
+
+    private static final ValueLayout.OfLong WORD = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final long size;
+    private final int bucketBits;
+    private final long digestsOffset;
+
+    private DigestIndex(Arena arena, MemorySegment segment, long size, int bucketBits) {
+        this.arena = arena;
+        this.segment = segment;
+        this.size = size;
+        this.bucketBits = bucketBits;
+        this.digestsOffset = HEADER_SIZE + ((1L << bucketBits) + 1) * Long.BYTES;
+    }
+
+    public static Builder builder(Path output) {
+        return new Builder(output, DEFAULT_RUN_SIZE);
+    }
+
+    /** runSize: höchstens so viele Hashes werden vor dem Auslagern im Speicher sortiert (je 68 Bytes). */
+    public static Builder builder(Path output, int runSize) {
+        if (runSize <= 0) {
+            throw new IllegalArgumentException("runSize muss positiv sein: " + runSize);
+        }
+        return new Builder(output, runSize);
+    }
+
+    public static DigestIndex open(Path file) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            if (segment.byteSize() < HEADER_SIZE
+                    || MemorySegment.mismatch(segment, 0, MAGIC.length, MemorySegment.ofArray(MAGIC), 0, MAGIC.length) >= 0) {
+                throw new IOException("Keine Digest-Indexdatei: " + file);
+            }
+            long size = segment.get(WORD, 8);
+            int bucketBits = (int) segment.get(WORD, 16);
+            if (bucketBits < 1 || bucketBits > MAX_BUCKET_BITS || size < 0
+                    || segment.byteSize() != HEADER_SIZE + ((1L << bucketBits) + 1) * Long.BYTES + size * DavoHash512.DIGEST_LENGTH) {
+                throw new IOException("Beschädigte Digest-Indexdatei: " + file);
+            }
+            return new DigestIndex(arena, segment, size, bucketBits);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /** Anzahl verschiedener Hashes im Index. */
+    public long size() {
+        return size;
+    }
+
+    public boolean contains(byte[] digest) {
+        checkDigest(digest);
+        long key = (long) LONG_BE.get(digest, 0);
+        int bucket = (int) (key >>> (64 - bucketBits));
+        return search(digest, key, bucketStart(bucket), bucketStart(bucket + 1));
+    }
+
+    /**
+     * Prüft viele Hashes, z. B. die Ausgabe von {@link DavoHash512#hashBatch}, schreibt das Ergebnis nach
+     * results und liefert die Anzahl der Treffer. Die Tabelleneinträge einer Gruppe werden zuerst gelesen,
+     * damit sich die Speicherzugriffe mehrerer Suchen überlappen.
+     */
+    public int contains(byte[][] digests, boolean[] results) {
+        if (results.length < digests.length) {
+            throw new IllegalArgumentException("results ist kürzer als digests: " + results.length + " < " + digests.length);
+        }
+        long[] ranges = new long[2 * BATCH_GROUP];
+        int found = 0;
+        for (int base = 0; base < digests.length; base += BATCH_GROUP) {
+            int count = Math.min(BATCH_GROUP, digests.length - base);
+            for (int i = 0; i < count; i++) {
+                checkDigest(digests[base + i]);
+                int bucket = (int) ((long) LONG_BE.get(digests[base + i], 0) >>> (64 - bucketBits));
+                ranges[2 * i] = bucketStart(bucket);
+                ranges[2 * i + 1] = bucketStart(bucket + 1);
+            }
+            for (int i = 0; i < count; i++) {
+                byte[] digest = digests[base + i];
+                boolean hit = search(digest, (long) LONG_BE.get(digest, 0), ranges[2 * i], ranges[2 * i + 1]);
+                results[base + i] = hit;
+                if (hit) found++;
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private long bucketStart(int bucket) {
+        return segment.get(WORD, HEADER_SIZE + (long) bucket * Long.BYTES);
+    }
+
+    // Binäre Suche in [low, high): erst über das erste Wort, bei Gleichheit über die restlichen
+    private boolean search(byte[] digest, long key, long low, long high) {
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            long position = digestsOffset + middle * DavoHash512.DIGEST_LENGTH;
+            int compare = Long.compareUnsigned(segment.get(WORD, position), key);
+            for (int w = 1; compare == 0 && w < WORDS; w++) {
+                compare = Long.compareUnsigned(segment.get(WORD, position + w * Long.BYTES), (long) LONG_BE.get(digest, w * Long.BYTES));
+            }
+            if (compare == 0) return true;
+            if (compare < 0) low = middle + 1;
+            else high = middle;
+        }
+        return false;
+    }
+
+    private static void checkDigest(byte[] digest) {
+        if (digest.length != DavoHash512.DIGEST_LENGTH) {
+            throw new IllegalArgumentException("Hash muss " + DavoHash512.DIGEST_LENGTH + " Bytes lang sein: " + digest.length);
+        }
+    }
+
+    /**
+     * Sammelt Hashes und schreibt mit {@link #build()} den Index. Läufe werden im Verzeichnis der Zieldatei
+     * ausgelagert; die Zieldatei wird erst am Ende atomar ersetzt. Nicht threadsicher.
+     */
+    public static final class Builder implements Closeable {
+        private final Path output;
+        private final int runSize;
+        private final List<Path> runs = new ArrayList<>();
+        private long[] words;
+        private int[] order;
+        private int buffered;
+        private long added;
+        private Path tempDirectory;
+
+        private Builder(Path output, int runSize) {
+            this.output = output.toAbsolutePath();
+            this.runSize = runSize;
+            // Der Lauf wächst bis runSize, damit kleine Indizes nicht den vollen Puffer belegen
+            int initial = Math.min(runSize, 4096);
+            this.words = new long[initial * WORDS];
+            this.order = new int[initial];
+        }
+
+        public Builder add(byte[] digest) throws IOException {
+            checkDigest(digest);
+            return add(digest, 0);
+        }
+
+        /** Übernimmt die 64 Bytes ab offset, z. B. aus einem Puffer mit vielen aneinandergereihten Hashes. */
+        public Builder add(byte[] digests, int offset) throws IOException {
+            Objects.checkFromIndexSize(offset, DavoHash512.DIGEST_LENGTH, digests.length);
+            if (buffered == order.length) {
+                if (order.length < runSize) {
+                    int capacity = (int) Math.min(runSize, 2L * order.length);
+                    words = Arrays.copyOf(words, capacity * WORDS);
+                    order = new int[capacity];
+                } else {
+                    spill();
+                }
+            }
+            int base = buffered * WORDS;
+            for (int w = 0; w < WORDS; w++) {
+                words[base + w] = (long) LONG_BE.get(digests, offset + w * Long.BYTES);
+            }
+            buffered++;
+            added++;
+            return this;
+        }
+
+        /** Sortiert, entfernt Duplikate, schreibt den Index und liefert die Anzahl verschiedener Hashes. */
+        public long build() throws IOException {
+            sortBuffer();
+            List<Run> sources = new ArrayList<>();
+            try {
+                for (Path run : runs) {
+                    sources.add(new FileRun(run));
+                }
+                sources.add(new MemoryRun(words, order, buffered));
+                return write(sources);
+            } finally {
+                for (Run source : sources) {
+                    source.close();
+                }
+                close();
+            }
+        }
+
+        /** Löscht ausgelagerte Läufe; nach {@link #build()} nicht mehr nötig. */
+        @Override
+        public void close() throws IOException {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+            runs.clear();
+            if (tempDirectory != null) {
+                Files.deleteIfExists(tempDirectory);
+                tempDirectory = null;
+            }
+        }
+
+        private void spill() throws IOException {
+            sortBuffer();
+            if (tempDirectory == null) {
+                tempDirectory = Files.createTempDirectory(output.getParent(), output.getFileName() + ".runs");
+            }
+            Path run = tempDirectory.resolve("run" + runs.size());
+            runs.add(run);
+            try (FileChannel channel = FileChannel.open(run, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_SIZE);
+                MemoryRun sorted = new MemoryRun(words, order, buffered);
+                while (sorted.advance()) {
+                    if (buffer.remaining() < DavoHash512.DIGEST_LENGTH) flush(channel, buffer);
+                    for (long word : sorted.current()) buffer.putLong(word);
+                }
+                flush(channel, buffer);
+            }
+            buffered = 0;
+        }
+
+        private void sortBuffer() {
+            for (int i = 0; i < buffered; i++) {
+                order[i] = i;
+            }
+            sort(0, buffered - 1);
+        }
+
+        // Quicksort mit Dreiteilung über die Reihenfolge, damit viele gleiche Hashes nicht quadratisch werden
+        private void sort(int low, int high) {
+            while (high - low > 16) {
+                int pivot = order[medianOfThree(low, (low + high) >>> 1, high)];
+                int lt = low;
+                int gt = high;
+                int i = low;
+                while (i <= gt) {
+                    int compare = compare(order[i], pivot);
+                    if (compare < 0) swap(lt++, i++);
+                    else if (compare > 0) swap(i, gt--);
+                    else i++;
+                }
+                // Kleinere Seite rekursiv, größere in der Schleife: Stacktiefe höchstens logarithmisch
+                if (lt - low < high - gt) {
+                    sort(low, lt - 1);
+                    low = gt + 1;
+                } else {
+                    sort(gt + 1, high);
+                    high = lt - 1;
+                }
+            }
+            for (int i = low + 1; i <= high; i++) {
+                for (int j = i; j > low && compare(order[j - 1], order[j]) > 0; j--) {
+                    swap(j - 1, j);
+                }
+            }
+        }
+
+        private int medianOfThree(int a, int b, int c) {
+            if (compare(order[a], order[b]) > 0) { int t = a; a = b; b = t; }
+            if (compare(order[b], order[c]) > 0) { b = c; }
+            return compare(order[a], order[b]) > 0 ? a : b;
+        }
+
+        private int compare(int a, int b) {
+            return compareWords(words, a * WORDS, words, b * WORDS);
+        }
+
+        private void swap(int a, int b) {
+            int t = order[a];
+            order[a] = order[b];
+            order[b] = t;
+        }
+
+        // Schreibt den Index in eine Zwischendatei neben output und ersetzt output erst, wenn sie vollständig ist
+        private long write(List<Run> sources) throws IOException {
+            int bits = Math.clamp(64 - Long.numberOfLeadingZeros(Math.max(added, 2) - 1), 1, MAX_BUCKET_BITS);
+            return DavoFiles.replaceAtomically(output, temp -> write(sources, temp, bits));
+        }
+
+        // Führt die sortierten Läufe zusammen und schreibt Kopf, Präfix-Tabelle und Hashes in einem Durchgang
+        private long write(List<Run> sources, Path temp, int bits) throws IOException {
+            long buckets = 1L << bits;
+            long tableOffset = HEADER_SIZE;
+            long digestsOffset = tableOffset + (buckets + 1) * Long.BYTES;
+
+            PriorityQueue<Run> queue = new PriorityQueue<>((x, y) -> compareWords(x.current(), 0, y.current(), 0));
+            for (Run source : sources) {
+                if (source.advance()) queue.add(source);
+            }
+
+            long count = 0;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                PositionalWriter table = new PositionalWriter(channel, tableOffset);
+                PositionalWriter digests = new PositionalWriter(channel, digestsOffset);
+                long[] previous = new long[WORDS];
+                long nextBucket = 0;
+                while (!queue.isEmpty()) {
+                    Run source = queue.poll();
+                    long[] current = source.current();
+                    if (count == 0 || compareWords(previous, 0, current, 0) != 0) {
+                        long bucket = current[0] >>> (64 - bits);
+                        while (nextBucket <= bucket) {
+                            table.putLong(count);
+                            nextBucket++;
+                        }
+                        for (long word : current) digests.putLong(word);
+                        System.arraycopy(current, 0, previous, 0, WORDS);
+                        count++;
+                    }
+                    if (source.advance()) queue.add(source);
+                }
+                while (nextBucket <= buckets) {
+                    table.putLong(count);
+                    nextBucket++;
+                }
+                table.flush();
+                digests.flush();
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.put(MAGIC).putLong(count).putLong(bits);
+                header.clear();
+                while (header.hasRemaining()) channel.write(header, header.position());
+                channel.force(true);
+            }
+            return count;
+        }
+    }
+
+    private static int compareWords(long[] a, int aOffset, long[] b, int bOffset) {
+        for (int w = 0; w < WORDS; w++) {
+            int compare = Long.compareUnsigned(a[aOffset + w], b[bOffset + w]);
+            if (compare != 0) return compare;
+        }
+        return 0;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    // Ein sortierter Lauf, der Hash für Hash gelesen wird
+    private interface Run extends Closeable {
+        boolean advance() throws IOException;
+
+        long[] current();
+
+        @Override
+        default void close() throws IOException {
+        }
+    }
+
+    private static final class MemoryRun implements Run {
+        private final long[] words;
+        private final int[] order;
+        private final int count;
+        private final long[] current = new long[WORDS];
+        private int next;
+
+        MemoryRun(long[] words, int[] order, int count) {
+            this.words = words;
+            this.order = order;
+            this.count = count;
+        }
+
+        @Override
+        public boolean advance() {
+            // Duplikate innerhalb des Laufs überspringen
+            while (next < count) {
+                int base = order[next++] * WORDS;
+                if (next > 1 && compareWords(words, base, current, 0) == 0) continue;
+                System.arraycopy(words, base, current, 0, WORDS);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public long[] current() {
+            return current;
+        }
+    }
+
+    private static final class FileRun implements Run {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_SIZE).flip();
+        private final long[] current = new long[WORDS];
+
+        FileRun(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        }
+
+        @Override
+        public boolean advance() throws IOException {
+            if (buffer.remaining() < DavoHash512.DIGEST_LENGTH) {
+                buffer.compact();
+                while (buffer.position() < DavoHash512.DIGEST_LENGTH) {
+                    if (channel.read(buffer) < 0) break;
+                }
+                buffer.flip();
+                if (buffer.remaining() < DavoHash512.DIGEST_LENGTH) return false;
+            }
+            for (int w = 0; w < WORDS; w++) {
+                current[w] = buffer.getLong();
+            }
+            return true;
+        }
+
+        @Override
+        public long[] current() {
+            return current;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    // Gepuffertes Schreiben ab einer festen Position, damit Tabelle und Hashes gleichzeitig entstehen können
+    private static final class PositionalWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_SIZE);
+        private long position;
+
+        PositionalWriter(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        void putLong(long value) throws IOException {
+            if (buffer.remaining() < Long.BYTES) flush();
+            buffer.putLong(value);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+    }
+}
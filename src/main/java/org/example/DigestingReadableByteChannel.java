@@ -0,0 +1,74 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Liest aus einem anderen Kanal und hasht dabei jedes gelesene Byte direkt im Puffer des Aufrufers, sodass
+ * Daten beim Hochladen, Archivieren oder Parsen nicht ein zweites Mal für den Hash gelesen werden müssen.
+ * <p>
+ * Standardmäßig wird im Stream-Modus gehasht ({@link DavoHash512.Digest}); {@link #open(Path)} hasht eine Datei
+ * im Datei-Modus, der Hash entspricht dann {@link DavoHash512#hashFile(Path)}. Instanzen sind nicht threadsicher.
+ */
+public final class DigestingReadableByteChannel implements ReadableByteChannel {
+    private final ReadableByteChannel channel;
+    private final DavoHash512.Digest digest;
+
+    public DigestingReadableByteChannel(ReadableByteChannel channel) {
+        this(channel, new DavoHash512.Digest());
+    }
+
+    /** Hasht in den übergebenen Digest, z. B. {@link DavoHash512.Digest#forFile(long)} bei bekannter Länge. */
+    public DigestingReadableByteChannel(ReadableByteChannel channel, DavoHash512.Digest digest) {
+        this.channel = channel;
+        this.digest = digest;
+    }
+
+    /** Öffnet die Datei zum Lesen; nach vollständigem Lesen liefert {@link #digest()} den Hash von hashFile. */
+    public static DigestingReadableByteChannel open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new DigestingReadableByteChannel(channel, DavoHash512.Digest.forFile(channel.size()));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        int position = dst.position();
+        int count = channel.read(dst);
+        if (count > 0) {
+            digest.update(dst.duplicate().position(position).limit(position + count));
+        }
+        return count;
+    }
+
+    /** Anzahl der bisher gelesenen und gehashten Bytes. */
+    public long length() {
+        return digest.length();
+    }
+
+    /**
+     * Hash aller bisher gelesenen Bytes; der Digest beginnt danach von vorn. Im Datei-Modus wirft der Aufruf eine
+     * {@link IllegalStateException}, solange die Datei nicht vollständig gelesen wurde.
+     */
+    public byte[] digest() {
+        return digest.digest();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,58 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Schreibt in einen anderen Kanal und hasht genau die Bytes, die dieser angenommen hat, direkt aus dem Puffer des
+ * Aufrufers. Teilweise Schreibvorgänge werden korrekt berücksichtigt, der Hash entspricht also immer dem, was
+ * tatsächlich geschrieben wurde.
+ * <p>
+ * Standardmäßig wird im Stream-Modus gehasht ({@link DavoHash512.Digest}); mit
+ * {@link DavoHash512.Digest#forFile(long)} entspricht der Hash {@link DavoHash512#hashFile(java.nio.file.Path)}
+ * der geschriebenen Datei. Instanzen sind nicht threadsicher.
+ */
+public final class DigestingWritableByteChannel implements WritableByteChannel {
+    private final WritableByteChannel channel;
+    private final DavoHash512.Digest digest;
+
+    public DigestingWritableByteChannel(WritableByteChannel channel) {
+        this(channel, new DavoHash512.Digest());
+    }
+
+    public DigestingWritableByteChannel(WritableByteChannel channel, DavoHash512.Digest digest) {
+        this.channel = channel;
+        this.digest = digest;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        int position = src.position();
+        int count = channel.write(src);
+        if (count > 0) {
+            digest.update(src.duplicate().position(position).limit(position + count));
+        }
+        return count;
+    }
+
+    /** Anzahl der bisher geschriebenen und gehashten Bytes. */
+    public long length() {
+        return digest.length();
+    }
+
+    /** Hash aller bisher geschriebenen Bytes; der Digest beginnt danach von vorn. */
+    public byte[] digest() {
+        return digest.digest();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
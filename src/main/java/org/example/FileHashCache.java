@@ -0,0 +1,308 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+/**
+ * Persistenter Cache vor {@link DavoHash512#hashFile(Path)}, Schlüssel ist der kanonische Pfad zusammen mit
+ * Größe, Änderungszeit und {@link BasicFileAttributes#fileKey()}. Passt einer davon nicht mehr, wird neu gehasht.
+ * <p>
+ * Der Index liegt als Append-only-Log auf der Platte: jeder Eintrag trägt eine CRC32C-Prüfsumme, beim Öffnen
+ * wird das Log eingeblendet und ab dem ersten unvollständigen oder beschädigten Eintrag abgeschnitten, sodass
+ * ein Absturz höchstens die letzten Einträge kostet. Enthält das Log deutlich mehr Einträge als aktuell gültig
+ * sind, wird es in eine neue Datei kompaktiert und atomar ersetzt. Im Speicher werden höchstens maxEntries
+ * Einträge in LRU-Reihenfolge gehalten. Alle Methoden sind threadsicher; gleichzeitige Anfragen für dieselbe
+ * Datei hashen sie nur einmal.
+ */
+public final class FileHashCache implements Closeable {
+    private static final byte[] MAGIC = "DAVOHC01".getBytes(StandardCharsets.US_ASCII);
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+
+    private final Path indexFile;
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Object appendLock = new Object();
+    private FileChannel log;
+    private long logRecords;
+
+    private FileHashCache(Path indexFile, int maxEntries) {
+        this.indexFile = indexFile;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > FileHashCache.this.maxEntries;
+            }
+        };
+    }
+
+    public static FileHashCache open(Path indexFile, int maxEntries) throws IOException {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries muss positiv sein: " + maxEntries);
+        }
+        FileHashCache cache = new FileHashCache(indexFile, maxEntries);
+        cache.load();
+        return cache;
+    }
+
+    /** Liefert den Hash der Datei, aus dem Cache falls Pfad, Größe, Änderungszeit und Dateischlüssel passen. */
+    public byte[] hash(Path file) {
+        try {
+            String key = file.toRealPath().toString();
+            Attributes attributes = Attributes.read(file);
+
+            Entry cached;
+            synchronized (entries) {
+                cached = entries.get(key);
+            }
+            if (cached != null && cached.attributes.equals(attributes)) {
+                hits.increment();
+                return cached.digest.clone();
+            }
+
+            CompletableFuture<byte[]> own = new CompletableFuture<>();
+            CompletableFuture<byte[]> running = inFlight.putIfAbsent(key, own);
+            if (running != null) {
+                hits.increment();
+                try {
+                    return running.join().clone();
+                } catch (CompletionException e) {
+                    // Wie im hashenden Thread: IOException wird unten zur UncheckedIOException
+                    if (e.getCause() instanceof IOException cause) throw cause;
+                    if (e.getCause() instanceof RuntimeException cause) throw cause;
+                    throw e;
+                }
+            }
+
+            misses.increment();
+            try {
+                byte[] digest = DavoHash512.hashFile(file);
+                // Nur speichern, wenn sich die Datei während des Hashens nicht verändert hat
+                if (attributes.equals(Attributes.read(file))) {
+                    record(key, new Entry(attributes, digest));
+                }
+                own.complete(digest);
+                return digest.clone();
+            } catch (RuntimeException | IOException e) {
+                own.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, own);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /** Schreibt die gültigen Einträge in eine neue Indexdatei und ersetzt die alte atomar. */
+    public void compact() throws IOException {
+        synchronized (appendLock) {
+            List<Map.Entry<String, Entry>> snapshot;
+            synchronized (entries) {
+                snapshot = new ArrayList<>(entries.entrySet());
+            }
+
+            try {
+                DavoFiles.replaceAtomically(indexFile, temp -> {
+                    try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                        writeFully(out, ByteBuffer.wrap(MAGIC));
+                        for (Map.Entry<String, Entry> entry : snapshot) {
+                            writeFully(out, encode(entry.getKey(), entry.getValue()));
+                        }
+                        out.force(true);
+                    }
+                    return null;
+                }, log::close);
+                logRecords = snapshot.size();
+            } finally {
+                // Auch wenn das Verschieben scheitert: weiter an die neue oder die alte Indexdatei anhängen
+                if (!log.isOpen()) {
+                    log = FileChannel.open(indexFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                }
+            }
+        }
+    }
+
+    /** Erzwingt das Schreiben aller angehängten Einträge auf die Platte. */
+    public void flush() throws IOException {
+        synchronized (appendLock) {
+            log.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (appendLock) {
+            if (log.isOpen()) {
+                log.force(false);
+                log.close();
+            }
+        }
+    }
+
+    private void record(String key, Entry entry) throws IOException {
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+        synchronized (appendLock) {
+            writeFully(log, encode(key, entry));
+            logRecords++;
+            if (logRecords > Math.max(MIN_COMPACTION_RECORDS, 2L * size())) {
+                compact();
+            }
+        }
+    }
+
+    private void load() throws IOException {
+        if (!Files.exists(indexFile)) {
+            try (FileChannel out = FileChannel.open(indexFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                writeFully(out, ByteBuffer.wrap(MAGIC));
+                out.force(true);
+            }
+        }
+
+        long validLength;
+        try (FileChannel in = FileChannel.open(indexFile, StandardOpenOption.READ);
+             Arena arena = Arena.ofConfined()) {
+            long size = in.size();
+            if (size < MAGIC.length) {
+                throw new IOException("Keine Cache-Indexdatei: " + indexFile);
+            }
+            ByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, size, arena).asByteBuffer();
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Keine Cache-Indexdatei: " + indexFile);
+            }
+            validLength = readRecords(buffer);
+        }
+
+        log = FileChannel.open(indexFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (log.size() > validLength) {
+            // Unvollständiger Eintrag nach einem Absturz
+            log.truncate(validLength);
+            log.force(true);
+        }
+    }
+
+    // Liest Einträge bis zum Ende oder zum ersten ungültigen Eintrag und liefert die gültige Länge
+    private long readRecords(ByteBuffer buffer) {
+        while (buffer.remaining() >= Integer.BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length < Record.MIN_BODY || length > buffer.remaining() - Integer.BYTES) {
+                return start;
+            }
+
+            ByteBuffer body = buffer.slice(buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            CRC32C crc = new CRC32C();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != buffer.getInt()) {
+                return start;
+            }
+
+            Record record = Record.decode(body);
+            synchronized (entries) {
+                entries.put(record.key, record.entry);
+            }
+            logRecords++;
+        }
+        return buffer.position();
+    }
+
+    private static ByteBuffer encode(String key, Entry entry) {
+        byte[] path = key.getBytes(StandardCharsets.UTF_8);
+        byte[] fileKey = entry.attributes.fileKey.getBytes(StandardCharsets.UTF_8);
+        int length = Record.MIN_BODY + path.length + fileKey.length;
+
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + length + Integer.BYTES);
+        buffer.putInt(length);
+        buffer.putLong(entry.attributes.size);
+        buffer.putLong(entry.attributes.modified);
+        buffer.putInt(path.length).put(path);
+        buffer.putInt(fileKey.length).put(fileKey);
+        buffer.put(entry.digest);
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), Integer.BYTES, length);
+        buffer.putInt((int) crc.getValue());
+        return buffer.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private record Attributes(long size, long modified, String fileKey) {
+        static Attributes read(Path file) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            Object fileKey = attributes.fileKey();
+            return new Attributes(attributes.size(), attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS),
+                    fileKey == null ? "" : fileKey.toString());
+        }
+    }
+
+    private record Entry(Attributes attributes, byte[] digest) {
+    }
+
+    private record Record(String key, Entry entry) {
+        // Größe, Änderungszeit, zwei Längenfelder und der Hash
+        static final int MIN_BODY = 2 * Long.BYTES + 2 * Integer.BYTES + DavoHash512.DIGEST_LENGTH;
+
+        static Record decode(ByteBuffer body) {
+            long size = body.getLong();
+            long modified = body.getLong();
+            String key = readString(body);
+            String fileKey = readString(body);
+            byte[] digest = new byte[DavoHash512.DIGEST_LENGTH];
+            body.get(digest);
+            return new Record(key, new Entry(new Attributes(size, modified, fileKey), digest));
+        }
+
+        private static String readString(ByteBuffer body) {
+            byte[] bytes = new byte[body.getInt()];
+            body.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
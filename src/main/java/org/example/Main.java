@@ -1,17 +1,12 @@
 package org.example;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-
+/** Einstiegspunkt des Kommandozeilenwerkzeugs {@code davohash}, siehe {@link DavoCli}. */
 public class Main {
     public static void main(String[] args) {
-
-        String input = "Hi";
-        byte[] hash = DavoHash512.hash(input);
-        System.out.println("Hash: " + DavoHash512.bytesToHex(hash));
-
+        int status = DavoCli.run(args, System.in, System.out, System.err);
+        if (status != 0) {
+            System.exit(status);
+        }
     }
 
-}
\ No newline at end of file
+}
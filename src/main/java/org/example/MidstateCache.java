@@ -0,0 +1,94 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Threadsicherer, begrenzter Cache von {@link DavoHash512.Midstate}s, Schlüssel ist der Präfix-Inhalt.
+ * Höchstens maxEntries Zwischenstände werden in LRU-Reihenfolge gehalten; ein Treffer kostet nur den Vergleich
+ * des Präfixes, fehlende Zwischenstände werden außerhalb der Sperre berechnet.
+ */
+public final class MidstateCache {
+    private final Map<Key, DavoHash512.Midstate> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public MidstateCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries muss positiv sein: " + maxEntries);
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, DavoHash512.Midstate> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public DavoHash512.Midstate get(byte[] prefix) {
+        DavoHash512.Midstate cached;
+        synchronized (entries) {
+            cached = entries.get(new Key(prefix));
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        // Eigene Kopie als Schlüssel, damit spätere Änderungen am Array des Aufrufers den Cache nicht verfälschen
+        byte[] copy = prefix.clone();
+        DavoHash512.Midstate computed = DavoHash512.prefix(copy);
+        synchronized (entries) {
+            DavoHash512.Midstate existing = entries.putIfAbsent(new Key(copy), computed);
+            return existing != null ? existing : computed;
+        }
+    }
+
+    /** Entspricht {@code new Digest().update(prefix).update(suffix).digest()}. */
+    public byte[] hash(byte[] prefix, byte[] suffix) {
+        return get(prefix).hash(suffix);
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    private static final class Key {
+        private final byte[] bytes;
+        private final int hash;
+
+        Key(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && hash == other.hash && Arrays.equals(bytes, other.bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
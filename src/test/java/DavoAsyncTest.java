@@ -0,0 +1,203 @@
+import org.example.DavoDigestProcessor;
+import org.example.DavoHash512;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DavoAsyncTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testHashAsyncMatchesHashFile() throws Exception {
+        Random random = new Random(16);
+        int[] sizes = {0, 1, 63, 64, 65, 128 * 1024 - 1, 128 * 1024, 128 * 1024 + 1, 3 * 1024 * 1024 + 17};
+        for (int size : sizes) {
+            byte[] data = new byte[size];
+            random.nextBytes(data);
+            Path file = Files.write(tempDir.resolve("datei-" + size), data);
+            assertArrayEquals(DavoHash512.hashFile(file), DavoHash512.hashAsync(file).get(30, TimeUnit.SECONDS),
+                    "hashAsync weicht ab bei " + size + " Bytes");
+        }
+    }
+
+    @Test
+    public void testManyConcurrentFiles() throws Exception {
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            files.add(Files.writeString(tempDir.resolve("f" + i), "Inhalt " + i + "\n".repeat(i * 37 % 400)));
+        }
+        List<CompletableFuture<byte[]>> futures = new ArrayList<>();
+        for (Path file : files) {
+            futures.add(DavoHash512.hashAsync(file));
+        }
+        for (int i = 0; i < files.size(); i++) {
+            assertArrayEquals(DavoHash512.hashFile(files.get(i)), futures.get(i).get(30, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testInFlightBuffersAreBounded() throws Exception {
+        BufferPoolMXBean direct = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct")).findFirst().orElseThrow();
+        Random random = new Random(160);
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            byte[] data = new byte[300_000 + i];
+            random.nextBytes(data);
+            files.add(Files.write(tempDir.resolve("gross-" + i), data));
+        }
+        // Der Executor hält alle Lese- und Hash-Schritte an, bis jeder Aufruf gestartet ist
+        CountDownLatch gate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            executor.execute(() -> {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            long before = direct.getMemoryUsed();
+            List<CompletableFuture<byte[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                futures.add(DavoHash512.hashAsync(files.get(i % files.size()), executor));
+            }
+            long grown = direct.getMemoryUsed() - before;
+            gate.countDown();
+            // Unbegrenzt wären es 2000 * 2 * 128 KiB = 500 MiB
+            assertTrue(grown <= 64L * 128 * 1024, "Direktpuffer gewachsen um " + grown + " Bytes");
+            for (int i = 0; i < futures.size(); i++) {
+                assertArrayEquals(DavoHash512.hashFile(files.get(i % files.size())),
+                        futures.get(i).get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            gate.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testHashAsyncReportsMissingFile() {
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> DavoHash512.hashAsync(tempDir.resolve("fehlt")).get(30, TimeUnit.SECONDS));
+        assertInstanceOf(NoSuchFileException.class, e.getCause());
+    }
+
+    @Test
+    public void testProcessorPassesBuffersThroughAndRespectsDemand() throws Exception {
+        byte[] data = new byte[10_000];
+        new Random(1).nextBytes(data);
+
+        DavoDigestProcessor processor = new DavoDigestProcessor();
+        AtomicLong requested = new AtomicLong();
+        List<ByteBuffer> received = new ArrayList<>();
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+
+        processor.subscribe(new Flow.Subscriber<>() {
+            Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                requested.incrementAndGet();
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                assertTrue(received.size() < requested.get(), "Mehr Puffer geliefert als angefordert");
+                received.add(item);
+                requested.incrementAndGet();
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completed.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.complete(null);
+            }
+        });
+
+        try (SubmissionPublisher<ByteBuffer> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            for (int offset = 0; offset < data.length; offset += 777) {
+                publisher.submit(ByteBuffer.wrap(data, offset, Math.min(777, data.length - offset)));
+            }
+        }
+
+        completed.get(30, TimeUnit.SECONDS);
+        assertArrayEquals(new DavoHash512.Digest().update(data).digest(), processor.digest().get());
+        assertEquals(13, received.size());
+        assertEquals(777, received.get(1).position(), "Position der weitergegebenen Puffer sollte unverändert sein");
+        assertEquals(777, received.get(1).remaining());
+    }
+
+    @Test
+    public void testHashPublisherWithoutSubscriber() throws Exception {
+        byte[] data = new byte[5000];
+        new Random(2).nextBytes(data);
+        CompletableFuture<byte[]> digest;
+        try (SubmissionPublisher<ByteBuffer> publisher = new SubmissionPublisher<>()) {
+            digest = DavoDigestProcessor.hash(publisher);
+            for (int offset = 0; offset < data.length; offset += 100) {
+                publisher.submit(ByteBuffer.allocateDirect(100).put(data, offset, 100).flip());
+            }
+        }
+        assertArrayEquals(new DavoHash512.Digest().update(data).digest(), digest.get(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testProcessorPropagatesErrorAndCancel() {
+        SubmissionPublisher<ByteBuffer> failing = new SubmissionPublisher<>();
+        CompletableFuture<byte[]> digest = DavoDigestProcessor.hash(failing);
+        failing.closeExceptionally(new IOException("Quelle defekt"));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> digest.get(30, TimeUnit.SECONDS));
+        assertEquals("Quelle defekt", e.getCause().getMessage());
+
+        DavoDigestProcessor processor = new DavoDigestProcessor();
+        processor.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.cancel();
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        assertTrue(processor.digest().isCompletedExceptionally());
+    }
+}
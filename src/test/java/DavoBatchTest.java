@@ -0,0 +1,38 @@
+import org.example.DavoHash512;
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DavoBatchTest {
+
+    @Test
+    public void testBatchMatchesSingleHash() {
+        Random random = new Random(3);
+        byte[][] inputs = new byte[1000][];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = new byte[i < 10 ? i * 20 : random.nextInt(260)];
+            random.nextBytes(inputs[i]);
+        }
+
+        byte[][] outputs = new byte[inputs.length][];
+        DavoHash512.hashBatch(inputs, outputs);
+
+        for (int i = 0; i < inputs.length; i++) {
+            assertArrayEquals(DavoHash512.hash(inputs[i]), outputs[i], "Batch-Hash weicht ab bei Länge " + inputs[i].length);
+        }
+    }
+
+    @Test
+    public void testBatchWritesIntoGivenOutputs() {
+        byte[][] inputs = {"a".getBytes(), "b".getBytes(), "c".getBytes(), "d".getBytes(), "e".getBytes()};
+        byte[][] outputs = new byte[inputs.length][DavoHash512.DIGEST_LENGTH];
+        byte[] first = outputs[0];
+
+        DavoHash512.hashBatch(inputs, outputs);
+
+        assertSame(first, outputs[0]);
+        assertArrayEquals(DavoHash512.hash("a"), outputs[0]);
+        assertArrayEquals(DavoHash512.hash("e"), outputs[4]);
+        assertThrows(IllegalArgumentException.class, () -> DavoHash512.hashBatch(inputs, new byte[2][]));
+    }
+}
@@ -0,0 +1,77 @@
+import org.example.DavoHash512;
+import org.junit.jupiter.api.Test;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DavoByteInputTest {
+
+    private static final int[] LENGTHS = {0, 1, 7, 8, 47, 48, 63, 64, 65, 127, 128, 129, 1000, 4099};
+
+    @Test
+    public void testBytesMatchLatin1String() {
+        Random random = new Random(1);
+        for (int length : LENGTHS) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            assertArrayEquals(DavoHash512.hash(new String(data, StandardCharsets.ISO_8859_1)), DavoHash512.hash(data),
+                    "byte[]-Hash weicht vom String-Hash ab: " + length);
+        }
+        assertArrayEquals(DavoHash512.hash("Hallo"), DavoHash512.hash("Hallo".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    public void testOffsetAndHashInto() {
+        byte[] data = TestData.random(300);
+        byte[] expected = DavoHash512.hash(Arrays.copyOfRange(data, 17, 217));
+        assertArrayEquals(expected, DavoHash512.hash(data, 17, 200));
+
+        byte[] out = new byte[DavoHash512.DIGEST_LENGTH + 3];
+        assertEquals(DavoHash512.DIGEST_LENGTH, DavoHash512.hashInto(data, 17, 200, out, 3));
+        assertArrayEquals(expected, Arrays.copyOfRange(out, 3, out.length));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> DavoHash512.hash(data, 250, 51));
+        assertThrows(IndexOutOfBoundsException.class, () -> DavoHash512.hashInto(data, 0, 10, out, 4));
+    }
+
+    @Test
+    public void testByteBufferVariants() {
+        for (int length : LENGTHS) {
+            byte[] data = TestData.random(length);
+            byte[] expected = DavoHash512.hash(data);
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(length + 5).position(5).slice().put(data).flip();
+            ByteBuffer littleEndian = ByteBuffer.allocateDirect(length).order(ByteOrder.LITTLE_ENDIAN).put(data).flip();
+            ByteBuffer readOnly = ByteBuffer.wrap(data).asReadOnlyBuffer();
+            ByteBuffer window = ByteBuffer.allocate(length + 20).position(10).put(data).flip().position(10);
+
+            for (ByteBuffer buffer : new ByteBuffer[]{direct, littleEndian, readOnly, window}) {
+                int position = buffer.position();
+                assertArrayEquals(expected, DavoHash512.hash(buffer), "ByteBuffer-Hash weicht ab: " + length);
+                assertEquals(position, buffer.position(), "Position sollte unverändert bleiben.");
+            }
+        }
+    }
+
+    @Test
+    public void testMemorySegmentVariants() {
+        for (int length : LENGTHS) {
+            byte[] data = TestData.random(length);
+            byte[] expected = DavoHash512.hash(data);
+
+            assertArrayEquals(expected, DavoHash512.hash(MemorySegment.ofArray(data)));
+            try (Arena arena = Arena.ofConfined()) {
+                MemorySegment nativeSegment = arena.allocate(length + 1).asSlice(1);
+                MemorySegment.copy(MemorySegment.ofArray(data), 0, nativeSegment, 0, length);
+                byte[] out = new byte[DavoHash512.DIGEST_LENGTH];
+                DavoHash512.hashInto(nativeSegment, out, 0);
+                assertArrayEquals(expected, out, "MemorySegment-Hash weicht ab: " + length);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+import org.example.DavoCheckpoint;
+import org.example.DavoHash512;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DavoCheckpointTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testExportedStateResumesDigest() {
+        byte[] input = TestData.random(1000, 1);
+        for (int split : new int[]{0, 1, 63, 64, 65, 500, 1000}) {
+            DavoHash512.Digest original = new DavoHash512.Digest().update(input, 0, split);
+            byte[] state = original.exportState();
+            assertTrue(state.length <= DavoHash512.Digest.MAX_STATE_LENGTH);
+
+            DavoHash512.Digest restored = DavoHash512.Digest.restoreState(state);
+            assertEquals(split, restored.length());
+            restored.update(input, split, input.length - split);
+            assertArrayEquals(new DavoHash512.Digest().update(input).digest(), restored.digest(), "Fortsetzung ab " + split);
+            assertArrayEquals(state, original.exportState(), "Export darf den Digest nicht verändern");
+        }
+    }
+
+    @Test
+    public void testRejectsDamagedState() {
+        byte[] state = new DavoHash512.Digest().update(TestData.random(100, 2)).exportState();
+        for (int i = 0; i < state.length; i++) {
+            byte[] damaged = state.clone();
+            damaged[i] ^= 0x10;
+            assertThrows(IllegalArgumentException.class, () -> DavoHash512.Digest.restoreState(damaged), "Byte " + i);
+        }
+        assertThrows(IllegalArgumentException.class, () -> DavoHash512.Digest.restoreState(new byte[10]));
+    }
+
+    @Test
+    public void testGrowingFileReadsOnlyAppendedBytes() throws IOException {
+        Path file = tempDir.resolve("wachsend.log");
+        byte[] content = TestData.random(300_000, 3);
+        Files.write(file, content, StandardOpenOption.CREATE_NEW);
+
+        DavoCheckpoint.Result first = DavoCheckpoint.hash(file);
+        assertFalse(first.resumed());
+        assertEquals(content.length, first.bytesRead());
+        assertArrayEquals(new DavoHash512.Digest().update(content).digest(), first.digest());
+        assertTrue(Files.exists(DavoCheckpoint.sidecar(file)));
+
+        DavoCheckpoint.Result unchanged = DavoCheckpoint.hash(file);
+        assertEquals(0, unchanged.bytesRead());
+        assertArrayEquals(first.digest(), unchanged.digest());
+
+        byte[] appended = TestData.random(1234, 4);
+        Files.write(file, appended, StandardOpenOption.APPEND);
+        DavoCheckpoint.Result grown = DavoCheckpoint.hash(file);
+        assertEquals(content.length, grown.resumedFrom());
+        assertEquals(appended.length, grown.bytesRead());
+        assertArrayEquals(new DavoHash512.Digest().update(content).update(appended).digest(), grown.digest());
+    }
+
+    @Test
+    public void testRewrittenOrTruncatedFileIsHashedAgain() throws IOException {
+        Path file = tempDir.resolve("rotiert.log");
+        byte[] content = TestData.random(50_000, 5);
+        Files.write(file, content);
+        DavoCheckpoint.hash(file);
+
+        // Neuer Anfang bei größerer Länge, z. B. nach einer Log-Rotation
+        byte[] rotated = TestData.random(60_000, 6);
+        Files.write(file, rotated);
+        DavoCheckpoint.Result result = DavoCheckpoint.hash(file);
+        assertFalse(result.resumed());
+        assertArrayEquals(new DavoHash512.Digest().update(rotated).digest(), result.digest());
+
+        Files.write(file, new byte[]{1, 2, 3});
+        result = DavoCheckpoint.hash(file);
+        assertFalse(result.resumed());
+        assertArrayEquals(new DavoHash512.Digest().update(new byte[]{1, 2, 3}).digest(), result.digest());
+
+        // Beschädigter Checkpoint wird ignoriert
+        Files.write(file, content);
+        DavoCheckpoint.hash(file);
+        byte[] sidecar = Files.readAllBytes(DavoCheckpoint.sidecar(file));
+        sidecar[sidecar.length / 2] ^= 1;
+        Files.write(DavoCheckpoint.sidecar(file), sidecar);
+        result = DavoCheckpoint.hash(file);
+        assertFalse(result.resumed());
+        assertArrayEquals(new DavoHash512.Digest().update(content).digest(), result.digest());
+    }
+
+    @Test
+    public void testConcurrentRunsShareSidecar() throws Exception {
+        // Verschiedene Dateien mit gemeinsamem Checkpoint: jeder Lauf verwirft ihn und schreibt ihn neu
+        Path sidecar = tempDir.resolve("gemeinsam.ckpt");
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            files.add(Files.write(tempDir.resolve("datei-" + i), TestData.random(1000, 10 + i)));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(files.size());
+        try {
+            List<Future<DavoCheckpoint.Result>> results = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                Path file = files.get(i % files.size());
+                results.add(pool.submit(() -> DavoCheckpoint.hash(file, sidecar)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                byte[] content = Files.readAllBytes(files.get(i % files.size()));
+                assertArrayEquals(new DavoHash512.Digest().update(content).digest(), results.get(i).get().digest());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        try (Stream<Path> entries = Files.list(tempDir)) {
+            assertEquals(files.size() + 1, entries.count(), "Keine Zwischendateien dürfen übrig bleiben");
+        }
+    }
+}
@@ -0,0 +1,158 @@
+import org.example.DavoChunkStore;
+import org.example.DavoChunker;
+import org.example.DavoHash512;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DavoChunkStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testChunksCoverFileWithinBounds() throws IOException {
+        byte[] content = TestData.random(3_000_000, 1);
+        Path file = Files.write(tempDir.resolve("daten.bin"), content);
+        DavoChunker chunker = DavoChunker.defaults();
+
+        List<DavoChunker.Chunk> sequential = new ArrayList<>();
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        chunker.chunk(file, 1, (chunk, data) -> {
+            sequential.add(chunk);
+            byte[] bytes = new byte[data.remaining()];
+            data.get(bytes);
+            assertArrayEquals(DavoHash512.hash(bytes), chunk.digest());
+            joined.writeBytes(bytes);
+        });
+        assertArrayEquals(content, joined.toByteArray());
+
+        long offset = 0;
+        for (int i = 0; i < sequential.size(); i++) {
+            DavoChunker.Chunk chunk = sequential.get(i);
+            assertEquals(offset, chunk.offset());
+            assertTrue(chunk.length() <= DavoChunker.DEFAULT_MAX);
+            assertTrue(chunk.length() >= DavoChunker.DEFAULT_MIN || i == sequential.size() - 1, "Chunk " + i + " zu klein");
+            offset += chunk.length();
+        }
+        double average = content.length / (double) sequential.size();
+        assertTrue(average > DavoChunker.DEFAULT_AVERAGE / 2.0 && average < DavoChunker.DEFAULT_AVERAGE * 2.0,
+                "Durchschnittliche Chunkgröße " + average);
+
+        List<DavoChunker.Chunk> parallel = chunker.chunks(file);
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < parallel.size(); i++) {
+            assertEquals(sequential.get(i).offset(), parallel.get(i).offset());
+            assertArrayEquals(sequential.get(i).digest(), parallel.get(i).digest());
+        }
+    }
+
+    @Test
+    public void testInsertionOnlyChangesNearbyChunks() throws IOException {
+        byte[] content = TestData.random(2_000_000, 2);
+        byte[] shifted = new byte[content.length + 7];
+        System.arraycopy(content, 0, shifted, 0, 1_000_000);
+        System.arraycopy("EINFUEG".getBytes(), 0, shifted, 1_000_000, 7);
+        System.arraycopy(content, 1_000_000, shifted, 1_000_007, content.length - 1_000_000);
+
+        DavoChunker chunker = DavoChunker.defaults();
+        List<DavoChunker.Chunk> before = chunker.chunks(Files.write(tempDir.resolve("a.bin"), content));
+        List<DavoChunker.Chunk> after = chunker.chunks(Files.write(tempDir.resolve("b.bin"), shifted));
+        Set<String> known = new HashSet<>();
+        for (DavoChunker.Chunk chunk : before) known.add(DavoHash512.bytesToHex(chunk.digest()));
+        long changed = after.stream().filter(chunk -> !known.contains(DavoHash512.bytesToHex(chunk.digest()))).count();
+        assertTrue(changed <= 2, "Nach dem Einfügen weichen " + changed + " Chunks ab");
+    }
+
+    @Test
+    public void testSmallFilesAndInvalidSizes() throws IOException {
+        assertEquals(List.of(), DavoChunker.defaults().chunks(Files.write(tempDir.resolve("leer.bin"), new byte[0])));
+        List<DavoChunker.Chunk> small = DavoChunker.defaults().chunks(Files.writeString(tempDir.resolve("klein.txt"), "klein"));
+        assertEquals(1, small.size());
+        assertArrayEquals(DavoHash512.hash("klein"), small.get(0).digest());
+
+        assertThrows(IllegalArgumentException.class, () -> new DavoChunker(32, 128, 512));
+        assertThrows(IllegalArgumentException.class, () -> new DavoChunker(1024, 3000, 8192));
+        assertThrows(IllegalArgumentException.class, () -> new DavoChunker(1024, 4096, 4096));
+    }
+
+    @Test
+    public void testDeduplicatesAndRestores() throws IOException {
+        byte[] content = TestData.random(1_500_000, 3);
+        Path file = Files.write(tempDir.resolve("sicherung.bin"), content);
+        Path store = tempDir.resolve("speicher");
+
+        DavoChunkStore.Backup first;
+        DavoChunkStore.Backup second;
+        try (DavoChunkStore chunks = DavoChunkStore.open(store)) {
+            first = chunks.add(file);
+            assertEquals(first.chunks().size(), first.newChunks());
+            assertEquals(content.length, first.newBytes());
+
+            second = chunks.add(file);
+            assertEquals(0, second.newChunks());
+            assertEquals(Double.POSITIVE_INFINITY, second.dedupRatio());
+
+            content[700_000] ^= 1;
+            DavoChunkStore.Backup modified = chunks.add(Files.write(file, content));
+            assertTrue(modified.newChunks() >= 1 && modified.newChunks() <= 2, modified.toString());
+            assertEquals(3.0 * content.length / (content.length + modified.newBytes()), chunks.stats().dedupRatio(), 1e-9);
+        }
+
+        try (DavoChunkStore chunks = DavoChunkStore.open(store)) {
+            ByteArrayOutputStream restored = new ByteArrayOutputStream();
+            chunks.restore(second.chunks(), Channels.newChannel(restored));
+            content[700_000] ^= 1;
+            assertArrayEquals(content, restored.toByteArray());
+            assertEquals(3L * content.length, chunks.stats().logicalBytes());
+        }
+    }
+
+    @Test
+    public void testIndexGrowsAndSurvivesCrash() throws IOException {
+        // Kleine Chunks, damit die Tabelle mehrfach wachsen muss
+        DavoChunker chunker = new DavoChunker(64, 128, 512);
+        Path file = Files.write(tempDir.resolve("viele.bin"), TestData.random(2_000_000, 4));
+        Path store = tempDir.resolve("speicher");
+        List<DavoChunker.Chunk> chunks;
+        try (DavoChunkStore chunkStore = DavoChunkStore.open(store)) {
+            chunks = chunkStore.add(file, chunker, 2).chunks();
+            assertTrue(chunks.size() > 8192, "Nur " + chunks.size() + " Chunks");
+        }
+        try (var entries = Files.list(store)) {
+            assertEquals(Set.of(store.resolve("chunks.pack"), store.resolve("chunks.idx")), entries.collect(Collectors.toSet()),
+                    "Nach dem Wachsen dürfen keine Zwischendateien übrig bleiben");
+        }
+        long stored = Files.size(store.resolve("chunks.pack"));
+
+        // Angehängte, aber nie bestätigte Daten wie nach einem Absturz beim Schreiben
+        try (FileChannel pack = FileChannel.open(store.resolve("chunks.pack"), StandardOpenOption.APPEND)) {
+            pack.write(ByteBuffer.wrap(TestData.random(1000, 5)));
+        }
+        try (DavoChunkStore chunkStore = DavoChunkStore.open(store)) {
+            assertEquals(stored, Files.size(store.resolve("chunks.pack")));
+            for (DavoChunker.Chunk chunk : chunks) {
+                assertTrue(chunkStore.contains(chunk.digest()));
+            }
+            assertNull(chunkStore.get(DavoHash512.hash("unbekannt")));
+            assertEquals(new HashSet<>(chunks.stream().map(c -> DavoHash512.bytesToHex(c.digest())).toList()).size(),
+                    chunkStore.stats().chunks());
+        }
+
+        Files.delete(store.resolve("chunks.idx"));
+        assertThrows(IOException.class, () -> DavoChunkStore.open(store));
+    }
+}
@@ -0,0 +1,147 @@
+import org.example.DavoCli;
+import org.example.DavoHash512;
+import org.example.DavoTreeHash;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DavoCliTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String out;
+    private String err;
+
+    private int run(InputStream in, String... args) {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        int status = DavoCli.run(args, in, new PrintStream(stdout, true, StandardCharsets.UTF_8),
+                new PrintStream(stderr, true, StandardCharsets.UTF_8));
+        out = stdout.toString(StandardCharsets.UTF_8);
+        err = stderr.toString(StandardCharsets.UTF_8);
+        return status;
+    }
+
+    private int run(String... args) {
+        return run(InputStream.nullInputStream(), args);
+    }
+
+    private List<Path> createFiles(int count) throws Exception {
+        Random random = new Random(17);
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            byte[] data = new byte[random.nextInt(200_000)];
+            random.nextBytes(data);
+            files.add(Files.write(tempDir.resolve("datei" + i + ".bin"), data));
+        }
+        return files;
+    }
+
+    @Test
+    public void testHashesFilesInArgumentOrder() throws Exception {
+        List<Path> files = createFiles(20);
+        String[] args = new String[files.size() + 2];
+        args[0] = "--jobs";
+        args[1] = "4";
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < files.size(); i++) {
+            args[i + 2] = files.get(i).toString();
+            expected.append(DavoHash512.bytesToHex(DavoHash512.hashFile(files.get(i)))).append("  ").append(files.get(i)).append('\n');
+        }
+
+        assertEquals(0, run(args));
+        assertEquals(expected.toString(), out.replace(System.lineSeparator(), "\n"));
+
+        args[1] = "1";
+        assertEquals(0, run(args));
+        assertEquals(expected.toString(), out.replace(System.lineSeparator(), "\n"), "Ausgabe sollte nicht von --jobs abhängen");
+    }
+
+    @Test
+    public void testStdinUsesStreamMode() throws Exception {
+        byte[] data = "Eingabe über stdin\n".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        Path file = Files.write(tempDir.resolve("stdin.txt"), data);
+        String expected = DavoHash512.bytesToHex(new DavoHash512.Digest().update(data).digest());
+
+        assertEquals(0, run(new ByteArrayInputStream(data)));
+        assertEquals(expected + "  -", out.strip());
+
+        assertEquals(0, run("--stream", file.toString()));
+        assertTrue(out.startsWith(expected), "--stream sollte wie die Standardeingabe hashen");
+    }
+
+    @Test
+    public void testTreeMode() throws Exception {
+        Path file = createFiles(1).get(0);
+        assertEquals(0, run("--tree", file.toString()));
+        assertTrue(out.startsWith(DavoHash512.bytesToHex(DavoTreeHash.hash(file))));
+    }
+
+    @Test
+    public void testCheckRoundTripAndMismatch() throws Exception {
+        List<Path> files = createFiles(6);
+        List<String> args = new ArrayList<>();
+        for (Path file : files) args.add(file.toString());
+        assertEquals(0, run(args.toArray(String[]::new)));
+        Path sums = Files.writeString(tempDir.resolve("SUMS"), out);
+
+        assertEquals(0, run("--check", "-j", "3", sums.toString()));
+        assertEquals(6, out.lines().filter(line -> line.endsWith(": OK")).count());
+
+        Files.write(files.get(2), new byte[]{1, 2, 3});
+        Files.delete(files.get(4));
+        assertEquals(1, run("-c", "--quiet", sums.toString()));
+        assertEquals(List.of(files.get(2) + ": FEHLER", files.get(4) + ": FEHLER beim Lesen"), out.lines().toList());
+        assertTrue(err.contains("1 Prüfsumme(n) stimmen NICHT überein"), err);
+        assertTrue(err.contains("1 Datei(en) nicht lesbar"), err);
+    }
+
+    @Test
+    public void testEscapedFileNames() throws Exception {
+        String name = "zeile\nback\\slash";
+        Path file = tempDir.resolve(name);
+        Files.writeString(file, "Inhalt");
+        assertEquals(0, run(file.toString()));
+        assertTrue(out.startsWith("\\"), "Namen mit Zeilenumbruch sollten maskiert werden");
+        assertEquals(1, out.lines().count());
+
+        assertEquals(0, run(new ByteArrayInputStream(out.getBytes(StandardCharsets.UTF_8)), "--check"));
+        assertEquals(file + ": OK", out.strip());
+    }
+
+    @Test
+    public void testErrorsAndUsage() {
+        assertEquals(1, run(tempDir.resolve("fehlt").toString()));
+        assertTrue(err.contains("Datei nicht gefunden"), err);
+        assertEquals(1, run(tempDir.toString()));
+        assertTrue(err.contains("Ist ein Verzeichnis"), err);
+
+        assertEquals(2, run("--jobs", "0"));
+        assertEquals(2, run("--unbekannt"));
+        assertTrue(err.contains("Unbekannte Option"));
+        assertEquals(0, run("--help"));
+        assertTrue(out.startsWith("Aufruf: davohash"));
+
+        assertEquals(1, run(new ByteArrayInputStream("kein gültiger Inhalt\n".getBytes(StandardCharsets.UTF_8)), "-c"));
+        assertTrue(err.contains("keine gültigen Prüfsummenzeilen"), err);
+    }
+
+    @Test
+    public void testStatsReportThroughput() throws Exception {
+        Path file = createFiles(1).get(0);
+        assertEquals(0, run("--stats", file.toString()));
+        assertTrue(err.startsWith("davohash: 1 Dateien, " + Files.size(file) + " Bytes"), err);
+        assertTrue(err.contains("MB/s"), err);
+    }
+}
@@ -0,0 +1,100 @@
+import org.example.DavoHash512;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DavoDigestTest {
+
+    // Referenzwerte des Stream-Modus, damit sich das Format nicht unbemerkt ändert
+    private static final String EMPTY_VECTOR = "99bc5b0e92bfaa28c6f2a3244b58a55eb285ad8c2a08bdfac63bc771deaeb592f747e748a1d74f0027fd334ade7416b62649ceeb683dc6446d7281f467ebbf81";
+    private static final String ABC_VECTOR = "833e6f5394f131eb28f8b40da7a6dbcff6d785f06abafa629c0921b6e3282069e257f02dcf381d98b49c5f29f7355c3bcf4bff4482943611cd2edf467f8f2274";
+
+    @Test
+    public void testStreamGoldenVectors() {
+        assertEquals(EMPTY_VECTOR, DavoHash512.bytesToHex(new DavoHash512.Digest().digest()));
+        assertEquals(ABC_VECTOR, DavoHash512.bytesToHex(new DavoHash512.Digest().update("abc".getBytes(StandardCharsets.US_ASCII)).digest()));
+    }
+
+    @Test
+    public void testChunkingDoesNotChangeResult() {
+        Random random = new Random(42);
+        for (int length : new int[]{0, 1, 47, 48, 63, 64, 65, 127, 128, 129, 1000, 10_000}) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            byte[] expected = new DavoHash512.Digest().update(data).digest();
+
+            DavoHash512.Digest single = new DavoHash512.Digest();
+            for (byte b : data) {
+                single.update(b);
+            }
+            assertArrayEquals(expected, single.digest(), "Byteweise Verarbeitung weicht ab: " + length);
+
+            DavoHash512.Digest chunked = new DavoHash512.Digest();
+            for (int offset = 0; offset < length; ) {
+                int chunk = Math.min(length - offset, random.nextInt(150));
+                chunked.update(data, offset, chunk);
+                offset += chunk;
+            }
+            assertArrayEquals(expected, chunked.digest(), "Stückweise Verarbeitung weicht ab: " + length);
+        }
+    }
+
+    @Test
+    public void testByteBufferVariants() {
+        byte[] data = new byte[777];
+        new Random(7).nextBytes(data);
+        byte[] expected = new DavoHash512.Digest().update(data).digest();
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length).put(data).flip();
+        ByteBuffer littleEndian = ByteBuffer.allocateDirect(data.length).order(ByteOrder.LITTLE_ENDIAN).put(data).flip();
+        ByteBuffer readOnly = ByteBuffer.wrap(data).asReadOnlyBuffer();
+        ByteBuffer slice = ByteBuffer.wrap(new byte[data.length + 10], 5, data.length).slice().put(data).flip();
+
+        for (ByteBuffer buffer : new ByteBuffer[]{direct, littleEndian, readOnly, slice}) {
+            DavoHash512.Digest digest = new DavoHash512.Digest();
+            digest.update(new byte[]{data[0], data[1], data[2]});
+            buffer.position(3);
+            digest.update(buffer);
+            assertFalse(buffer.hasRemaining(), "Puffer sollte vollständig gelesen sein.");
+            assertArrayEquals(expected, digest.digest());
+        }
+    }
+
+    @Test
+    public void testResetAndReuse() {
+        DavoHash512.Digest digest = new DavoHash512.Digest();
+        byte[] first = digest.update("erste Nachricht".getBytes(StandardCharsets.UTF_8)).digest();
+        byte[] second = digest.update("zweite Nachricht".getBytes(StandardCharsets.UTF_8)).digest();
+
+        assertArrayEquals(first, new DavoHash512.Digest().update("erste Nachricht".getBytes(StandardCharsets.UTF_8)).digest());
+        assertArrayEquals(second, new DavoHash512.Digest().update("zweite Nachricht".getBytes(StandardCharsets.UTF_8)).digest());
+
+        digest.update((byte) 1);
+        digest.reset();
+        assertEquals(EMPTY_VECTOR, DavoHash512.bytesToHex(digest.digest()));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        DavoHash512.Digest prefix = new DavoHash512.Digest().update("gemeinsamesPräfix-".repeat(10).getBytes(StandardCharsets.UTF_8));
+        DavoHash512.Digest copy = prefix.copy();
+
+        byte[] a = prefix.update("A".getBytes(StandardCharsets.UTF_8)).digest();
+        byte[] b = copy.update("B".getBytes(StandardCharsets.UTF_8)).digest();
+
+        assertArrayEquals(new DavoHash512.Digest().update(("gemeinsamesPräfix-".repeat(10) + "A").getBytes(StandardCharsets.UTF_8)).digest(), a);
+        assertArrayEquals(new DavoHash512.Digest().update(("gemeinsamesPräfix-".repeat(10) + "B").getBytes(StandardCharsets.UTF_8)).digest(), b);
+    }
+
+    @Test
+    public void testDigestIntoArray() {
+        byte[] out = new byte[DavoHash512.DIGEST_LENGTH + 8];
+        assertEquals(DavoHash512.DIGEST_LENGTH, new DavoHash512.Digest().digest(out, 8));
+        assertEquals(EMPTY_VECTOR, DavoHash512.bytesToHex(Arrays.copyOfRange(out, 8, out.length)));
+        assertThrows(IndexOutOfBoundsException.class, () -> new DavoHash512.Digest().digest(out, 9));
+    }
+}
@@ -0,0 +1,134 @@
+import org.example.DavoFingerprint;
+import org.example.DavoQualityHarness;
+import org.junit.jupiter.api.Test;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class DavoFingerprintTest {
+
+    @Test
+    public void testVariantsAgree() {
+        Random random = new Random(20);
+        long[] out = new long[2];
+        for (int length = 0; length < 300; length++) {
+            byte[] input = new byte[length + 10];
+            random.nextBytes(input);
+            byte[] exact = Arrays.copyOfRange(input, 5, 5 + length);
+
+            long hash = DavoFingerprint.hash64(exact);
+            assertEquals(hash, DavoFingerprint.hash64(input, 5, length), "Offset-Variante bei Länge " + length);
+            DavoFingerprint.hash128(exact, out);
+            assertEquals(hash, out[0], "hash64 sollte die untere Hälfte von hash128 sein, Länge " + length);
+            assertNotEquals(out[0], out[1]);
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (int length = 0; length < 100; length++) {
+            String text = builder.toString();
+            byte[] utf16 = text.getBytes(StandardCharsets.UTF_16LE);
+            assertEquals(DavoFingerprint.hash64(utf16), DavoFingerprint.hash64(text), "UTF-16LE bei Länge " + length);
+            assertEquals(DavoFingerprint.hash64(text), DavoFingerprint.hash64(builder));
+            DavoFingerprint.hash128(text, out);
+            assertEquals(DavoFingerprint.hash64(text), out[0]);
+            builder.append((char) (length * 977 % 0xD000));
+        }
+    }
+
+    @Test
+    public void testLengthAndSeedChangeFingerprint() {
+        Set<Long> seen = new HashSet<>();
+        for (int length = 0; length <= 64; length++) {
+            assertTrue(seen.add(DavoFingerprint.hash64(new byte[length])), "Nullbytes der Länge " + length + " kollidieren");
+        }
+        byte[] input = "Fingerabdruck".getBytes(StandardCharsets.UTF_8);
+        assertNotEquals(DavoFingerprint.hash64(input), DavoFingerprint.hash64(input, 0, input.length, 1));
+        assertNotEquals(DavoFingerprint.hash64(42L), DavoFingerprint.hash64(42L, 1));
+        assertEquals(DavoFingerprint.hash64(-7L), DavoFingerprint.hash64(-7));
+    }
+
+    @Test
+    public void testPrimitiveKeysAndIndex() {
+        Set<Long> seen = new HashSet<>();
+        int[] buckets = new int[1000];
+        for (long key = 0; key < 100_000; key++) {
+            long hash = DavoFingerprint.hash64(key);
+            assertTrue(seen.add(hash), "Kollision bei Schlüssel " + key);
+            buckets[DavoFingerprint.index(hash, buckets.length)]++;
+        }
+        for (int count : buckets) {
+            assertTrue(count > 50 && count < 150, "Ungleichmäßige Verteilung auf Tabellenplätze: " + count);
+        }
+        long[] pair = new long[3];
+        Set<Long> upper = new HashSet<>();
+        for (long key = -1000; key < 1000; key++) {
+            DavoFingerprint.hash128(key, pair);
+            assertEquals(DavoFingerprint.hash64(key), pair[0], "Untere Hälfte sollte hash64 sein bei " + key);
+            assertTrue(upper.add(pair[1]), "Kollision der oberen Hälfte bei Schlüssel " + key);
+            DavoFingerprint.hash128(key, 1, pair, 1);
+            assertEquals(DavoFingerprint.hash64(key, 1), pair[1]);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> DavoFingerprint.hash128(1L, 0, pair, 2));
+        assertEquals(0, DavoFingerprint.index(-1L, 1));
+        assertThrows(IllegalArgumentException.class, () -> DavoFingerprint.index(1L, 0));
+    }
+
+    @Test
+    public void testQuality() {
+        DavoQualityHarness harness64 = new DavoQualityHarness((input, length, out) ->
+                putLong(out, 0, DavoFingerprint.hash64(input, 0, length)), 8, 2);
+        assertEquals(0, harness64.collisions(DavoQualityHarness.counter("schluessel"), 1_000_000).collisions());
+        checkAvalancheAndDistribution(harness64);
+
+        long[] pair = new long[2];
+        DavoQualityHarness harness128 = new DavoQualityHarness((input, length, out) -> {
+            DavoFingerprint.hash128(input, 0, length, DavoFingerprint.DEFAULT_SEED, pair, 0);
+            putLong(out, 0, pair[0]);
+            putLong(out, 8, pair[1]);
+        }, 16, 1);
+        checkAvalancheAndDistribution(harness128);
+    }
+
+    @Test
+    public void testNoAllocation() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        byte[] input = new byte[1000];
+        String text = "Schlüssel für eine Hashtabelle";
+        long[] out = new long[2];
+        long sink = 0;
+        for (int i = 0; i < 20_000; i++) {
+            sink += DavoFingerprint.hash64(input) + DavoFingerprint.hash64(text) + DavoFingerprint.hash64((long) i);
+            DavoFingerprint.hash128(input, out);
+        }
+
+        long thread = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 1000; i++) {
+            sink += DavoFingerprint.hash64(input) + DavoFingerprint.hash64(text) + DavoFingerprint.hash64((long) i);
+            DavoFingerprint.hash128(input, out);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        assertTrue(allocated < 1000, "Fingerabdrücke sollten nichts allokieren, gemessen: " + allocated + " Bytes (" + sink + ")");
+    }
+
+    private static void checkAvalancheAndDistribution(DavoQualityHarness harness) {
+        DavoQualityHarness.Avalanche avalanche = harness.avalanche(DavoQualityHarness.random(24, 1), 2_000);
+        assertEquals(0.5, avalanche.meanFlipProbability(), 0.005, avalanche.toString());
+        assertTrue(avalanche.worstBiasSigma() < 7, "SAC-Abweichung zu groß: " + avalanche);
+        DavoQualityHarness.Distribution distribution = harness.distribution(DavoQualityHarness.counter("v"), 200_000);
+        assertTrue(distribution.worstBitBiasSigma() < 6, "Bit-Bias zu groß: " + distribution);
+        assertTrue(Math.abs(distribution.chiSquareZ()) < 6, "Chi-Quadrat auffällig: " + distribution);
+    }
+
+    private static void putLong(byte[] out, int offset, long value) {
+        for (int i = 0; i < 8; i++) {
+            out[offset + i] = (byte) (value >>> (56 - 8 * i));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+import org.example.DavoHash512;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DavoGoldenVectorTest {
+
+    // Referenzwerte der ursprünglichen Implementierung (vor dem tabellengestützten Kern)
+    private static final String[][] STRING_VECTORS = {
+            {"", "99bc5b0e92bfaa28c6f2a3244b58a55eb285ad8c2a08bdfac63bc771deaeb592f747e748a1d74f0027fd334ade7416b62649ceeb683dc6446d7281f467ebbf81"},
+            {"a", "560e5a4e8f5c73d51b3df68328059fd114cc841cf6bb506aa44c9b035aaaf74b8f582917cebd36088f4892e5a384e092b2e1f41dde1f4fae335081b6b6602853"},
+            {"Hi", "74ce7694d717edab032a3bde36aabc18daa137c88f7fd274ff3e237bac2159e5f3713b27876b2cc536c1cfd5b9294ac89c17ace10641517be1bbd36f68be15e4"},
+            {"Hallo", "8e5e51e30840f6b26340322dd889738c756685bfde94ae467fc4eb48c70c03b1fbf0770fef4f653de821f69a96eca9bd9b60a4ab2c18d66fdc175d5a75a94b45"},
+            {"x".repeat(47), "fab9bf737aa7fb240c08006d914beb7c019c05c0a2938a9abfc038ca60e571f1a2fb5c5120f66a830d97565312f6558252f7f65c626a7a1a088602207fa6b62a"},
+            {"x".repeat(48), "2e7464fd640867c44809e2ef181f2e1fcbe00c82f1e409a15f4a1ecb5ecaf06f362142d67fca1a2b1859463fdadc5bec16765c15ebb6411fdc9e8e20327294fa"},
+            {"x".repeat(63), "9397b7313cce8fd59eaf4c28633c81ada4bed22fb0106c0bd8024c4b943a94d2c6e5c16fb0da1c0d10a6ea02943686e48c0326fd8eafc1a1886eaf2735d1916c"},
+            {"x".repeat(64), "d4ae3ca92567b4bc7b763fa9d6c8c9e229b2dd6472f1b6df2fe64db1d9b3b7eb8e8025afa09aa791607fccb2c27a77899e7821a06321e55b679b7fffcfd22396"},
+            {"x".repeat(65), "fe72c1ac08b693c46afe26c729fcda60ab7b264fecd16824ea3dabac325194a8deb3bc4de0b9e0c1da9a88d5928355f1933cc725c1b0158c89e8b023f55160de"},
+            {"x".repeat(128), "b3313305c967c8f1ee1576b6a11be29dfb68b9831f2c4473f4a85595b322440c7a8337fc85ac32ba559c6a72b48c9497ba4796a0fac70014c331ffaab9c1c112"},
+            {"äöü😊你好", "c561c2d701dbcf706106bf61b568a03180a5f0e85f7785460f3691ad1687e9b956f4254686a41b9b09f887b3d61940e9bd7bccd74b0557cb4f10f42df9233670"},
+            {"The quick brown fox jumps over the lazy dog", "b9588b661da2c25c402f80224c78327b9b351d6263f4b330a16e1a39d86279cc609e99f40c1845db8b2e12a2a84bc4faa5e570c45d5439cb0893175e96523b23"}
+    };
+
+    private static final String LONG_INPUT_VECTOR =
+            "9d6eaefc0c5490bc1fe4acfa869c41d6a20b700b7b97251f4d84f6b1f601483808df0bdacf09846e22623a070b58f1dea08c50cc4c026bf4ae0578e6e9843e96";
+
+    private static final Object[][] FILE_VECTORS = {
+            {0, "f6cc73c5d4722aa4b55706f61a7c6f0c699f748bf192d95100af7355541293a293f42c36a5ce6133e69f4452486d35a5d4cc57b082c0c410ef974a7944189087"},
+            {1, "43a1f28c94e18ffe1811b9a39caba6e1d0f722fbbc2af4608bc3e444c322b62635ef9a1a92dacb2bb4c1611063854bd71616f09f40982321fa1b7546ea1b53bc"},
+            {47, "719720464b5066f58095735eda6d91ba3a361182af0e52b0a95a6db3ba651ea3fae0e74399f66311926f64b9d92e925e5fde36fcd7555c4d01531d5b500b047e"},
+            {48, "e2943bec635b675903f783ae2abb1ee6a160f69c43c6683b4eddfb0f63fc256884ce1f6bfc74192359e1f05be9e9aab081119d3e5d286cdf2f86575a456926a9"},
+            {63, "0e07b08ccad4b50acef1a768d071447104063656cb43d358bfaecaed1390e8248d14cb04511856fb72a03c570793288bf7af041788396b5cea1d53a0024df3e7"},
+            {64, "d42cf96819b8be519b2ec125c38ade5e5d94484ceab70dbeef8e44fe29b978365e4c4dce6c396147291bb2bf8752f18cf1c665150a409d926d520c0b3d6a76d3"},
+            {65, "9d165999acc12c965a07ca0a68e99f67c337df0fea3763fec960183ee1022f58dc26e3716b98b544c8c5c4ba907370c27dfd7f776fd29abe4a239418f9a955a7"},
+            {1000, "c4c3bf43a2e311dae0cdfad43cc4a4b374cf4a7a5f61207ffb0f5988383e514f90c3a7de7b35df61363c0ea6855f6190938200428da622f95a0673d847eb4d20"}
+    };
+
+    // 3 MiB + 17 Bytes: oberhalb der Schwelle für eingeblendete Dateien, mit abschließendem Teilblock
+    private static final String LARGE_FILE_VECTOR =
+            "17f60da71f29ea42392b688ac54c3b4dfb9666b8ba7e76686229e2c5d696d09ddd406612ab8143ac17b8663eab4ab2775d35611b38bd8561dd06c587da56f80c";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testStringGoldenVectors() {
+        for (String[] vector : STRING_VECTORS) {
+            assertEquals(vector[1], DavoHash512.bytesToHex(DavoHash512.hash(vector[0])), "Hash weicht vom Referenzwert ab: " + vector[0]);
+        }
+    }
+
+    @Test
+    public void testLongStringGoldenVector() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            input.append((char) ('a' + i % 26));
+        }
+        assertEquals(LONG_INPUT_VECTOR, DavoHash512.bytesToHex(DavoHash512.hash(input.toString())));
+    }
+
+    @Test
+    public void testFileGoldenVectors() throws IOException {
+        for (Object[] vector : FILE_VECTORS) {
+            File file = writeFile((Integer) vector[0]);
+            assertEquals(vector[1], DavoHash512.bytesToHex(DavoHash512.hashFile(file)), "Datei-Hash weicht vom Referenzwert ab: " + vector[0] + " Bytes");
+        }
+    }
+
+    @Test
+    public void testLargeFileGoldenVector() throws IOException {
+        File file = writeFile((3 << 20) + 17);
+        assertEquals(LARGE_FILE_VECTOR, DavoHash512.bytesToHex(DavoHash512.hashFile(file.toPath())));
+        assertEquals(LARGE_FILE_VECTOR, DavoHash512.bytesToHex(DavoHash512.hashFile(file)));
+    }
+
+    @Test
+    public void testLargeFileWithoutMapping() throws IOException {
+        // Die Kanäle des Zip-Dateisystems unterstützen kein map: hashFile liest stattdessen
+        Path content = writeFile((3 << 20) + 17).toPath();
+        try (FileSystem zip = FileSystems.newFileSystem(tempDir.resolve("archiv.zip"), Map.of("create", "true"))) {
+            Path entry = Files.copy(content, zip.getPath("golden.bin"));
+            assertEquals(LARGE_FILE_VECTOR, DavoHash512.bytesToHex(DavoHash512.hashFile(entry)));
+        }
+    }
+
+    @Test
+    public void testMissingFileFails() {
+        assertThrows(UncheckedIOException.class, () -> DavoHash512.hashFile(tempDir.resolve("fehlt.bin")));
+    }
+
+    @Test
+    public void testNullEqualsEmptyInput() {
+        assertArrayEquals(DavoHash512.hash(""), DavoHash512.hash((String) null));
+    }
+
+    private File writeFile(int length) throws IOException {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) (i * 31 + 7);
+        }
+        Path file = tempDir.resolve("golden-" + length + ".bin");
+        Files.write(file, content);
+        return file.toFile();
+    }
+}
@@ -0,0 +1,113 @@
+import org.example.DavoHash512;
+import org.example.DavoHashCodec;
+import org.example.DavoHashCodec.Base64Alphabet;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DavoHashCodecTest {
+
+    @Test
+    public void testHexMatchesFormatForAllSinks() {
+        Random random = new Random(11);
+        for (int length = 0; length <= 80; length++) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            StringBuilder expected = new StringBuilder();
+            for (byte b : bytes) {
+                expected.append(String.format("%02x", b));
+            }
+
+            assertEquals(expected.toString(), DavoHashCodec.toHex(bytes), "Hex weicht ab bei Länge " + length);
+            assertEquals(expected.toString(), DavoHash512.bytesToHex(bytes));
+
+            char[] chars = new char[2 * length + 3];
+            assertEquals(2 * length, DavoHashCodec.encodeHex(bytes, 0, length, chars, 3));
+            assertEquals(expected.toString(), new String(chars, 3, 2 * length));
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(2 * length);
+            DavoHashCodec.encodeHex(bytes, 0, length, buffer);
+            assertFalse(buffer.hasRemaining());
+            assertEquals(expected.toString(), StandardCharsets.US_ASCII.decode(buffer.flip()).toString());
+
+            assertEquals("x" + expected, DavoHashCodec.appendHex(bytes, 0, length, new StringBuilder("x")).toString());
+            assertArrayEquals(bytes, DavoHashCodec.fromHex(expected.toString().toUpperCase()));
+        }
+    }
+
+    @Test
+    public void testHexDecoderRejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> DavoHash512.hexToBytes("abc"));
+        for (String invalid : new String[]{"0g", "g0", " 0", "0x", "ä0", "İ" + "0", "Ł" + "0", "1f".replace('f', '０')}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> DavoHash512.hexToBytes(invalid),
+                    "Ungültiges Hex sollte abgelehnt werden: " + invalid);
+            assertTrue(e.getMessage().contains("Position"), e.getMessage());
+        }
+    }
+
+    @Test
+    public void testBase64MatchesJdk() {
+        Random random = new Random(64);
+        for (int length = 0; length <= 100; length++) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            String standard = Base64.getEncoder().encodeToString(bytes);
+            String url = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+            assertEquals(standard, DavoHashCodec.toBase64(bytes, Base64Alphabet.STANDARD), "Base64 weicht ab bei Länge " + length);
+            assertEquals(url, DavoHashCodec.toBase64(bytes, Base64Alphabet.URL), "Base64URL weicht ab bei Länge " + length);
+            assertEquals(standard, DavoHashCodec.appendBase64(bytes, 0, length, new StringBuilder(), Base64Alphabet.STANDARD).toString());
+
+            char[] chars = new char[url.length()];
+            DavoHashCodec.encodeBase64(bytes, 0, length, chars, 0, Base64Alphabet.URL);
+            assertEquals(url, new String(chars));
+
+            ByteBuffer buffer = ByteBuffer.allocate(standard.length());
+            DavoHashCodec.encodeBase64(bytes, 0, length, buffer, Base64Alphabet.STANDARD);
+            assertEquals(standard, new String(buffer.array(), StandardCharsets.US_ASCII));
+
+            assertArrayEquals(bytes, DavoHashCodec.fromBase64(standard, Base64Alphabet.STANDARD));
+            assertArrayEquals(bytes, DavoHashCodec.fromBase64(url, Base64Alphabet.URL));
+        }
+    }
+
+    @Test
+    public void testBase64DecoderRejectsInvalidInput() {
+        String[] invalidStandard = {"A", "AB", "ABC", "AB=A", "A===", "====", "AB-_", "ABCä", "AB=\u0000", "QR==", "QUJ="};
+        for (String invalid : invalidStandard) {
+            assertThrows(IllegalArgumentException.class, () -> DavoHashCodec.fromBase64(invalid, Base64Alphabet.STANDARD),
+                    "Ungültiges Base64 sollte abgelehnt werden: " + invalid);
+        }
+        String[] invalidUrl = {"A", "AB==", "AB+/", "QR", "QUJ", "ABCDE"};
+        for (String invalid : invalidUrl) {
+            assertThrows(IllegalArgumentException.class, () -> DavoHashCodec.fromBase64(invalid, Base64Alphabet.URL),
+                    "Ungültiges Base64URL sollte abgelehnt werden: " + invalid);
+        }
+        assertArrayEquals("A".getBytes(StandardCharsets.US_ASCII), DavoHashCodec.fromBase64("QQ", Base64Alphabet.URL));
+    }
+
+    @Test
+    public void testManifestWriterEmitsLines() throws IOException {
+        byte[] first = DavoHash512.hash("eins");
+        byte[] second = DavoHash512.hash("zwei");
+        String longPath = "ä/".repeat(200) + "datei.txt";
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DavoHashCodec.ManifestWriter writer = new DavoHashCodec.ManifestWriter(Channels.newChannel(out), 256)) {
+            writer.write("a b.txt", first);
+            writer.write(longPath, second);
+            writer.write("grüße/€.bin", first);
+        }
+
+        String expected = "a b.txt  " + DavoHash512.bytesToHex(first) + "\n"
+                + longPath + "  " + DavoHash512.bytesToHex(second) + "\n"
+                + "grüße/€.bin  " + DavoHash512.bytesToHex(first) + "\n";
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+    }
+}
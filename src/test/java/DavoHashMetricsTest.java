@@ -0,0 +1,173 @@
+import org.example.DavoHash512;
+import org.example.DavoHashMetrics;
+import org.example.DavoTreeHash;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class DavoHashMetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    // Die Klasse läuft im Standardlauf mit ausgeschalteten und in der Surefire-Ausführung metrics-enabled mit
+    // eingeschalteten Metriken; jeder Test prüft nur einen der beiden Fälle
+    @BeforeEach
+    public void setUp() {
+        DavoHashMetrics.reset();
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        assumeFalse(DavoHashMetrics.ENABLED, "Nur ohne -Ddavohash.metrics=true");
+        Path dump = tempDir.resolve("aus.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.example.DavoHash");
+            recording.start();
+            DavoHash512.hash("x".repeat(100));
+            DavoHash512.hash(new byte[64]);
+            new DavoHash512.Digest().update(new byte[64]).digest();
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        for (DavoHashMetrics.Source source : DavoHashMetrics.Source.values()) {
+            assertEquals(0, source.calls(), source.name());
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(DavoHashMetrics.OBJECT_NAME)));
+        assertTrue(RecordingFile.readAllEvents(dump).stream()
+                .noneMatch(event -> event.getEventType().getName().equals("org.example.DavoHash")));
+    }
+
+    @Test
+    public void testCountsCallsBytesAndBlocks() throws IOException {
+        assumeTrue(DavoHashMetrics.ENABLED, "Nur mit -Ddavohash.metrics=true");
+        DavoHash512.hash("x".repeat(100));
+        DavoHash512.hash("");
+        DavoHash512.hash(new byte[64]);
+        Path file = tempDir.resolve("daten.bin");
+        Files.write(file, new byte[130]);
+        DavoHash512.hashFile(file);
+        new DavoHash512.Digest().update(new byte[64]).digest();
+        DavoTreeHash.hash(file, 64, 1);
+
+        DavoHashMetrics.Source string = DavoHashMetrics.Source.STRING;
+        assertEquals(2, string.calls());
+        assertEquals(100, string.bytes());
+        assertEquals(3 + 1, string.blocks(), "Zwei aufgefüllte Blöcke und ein Abschlussblock, plus der Abschlussblock von \"\"");
+        assertTrue(string.nanos() > 0);
+        assertEquals(1, string.sizeHistogram()[0]);
+        assertEquals(1, string.sizeHistogram()[7], "100 Bytes liegen in [64, 128)");
+
+        assertEquals(2, DavoHashMetrics.Source.BYTES.blocks());
+        assertEquals(3, DavoHashMetrics.Source.FILE.blocks());
+        assertEquals(130, DavoHashMetrics.Source.FILE.bytes());
+        assertEquals(2, DavoHashMetrics.Source.STREAM.blocks());
+        assertEquals(0, DavoHashMetrics.Source.STREAM.nanos(), "Stream-Digests haben keine Dauer");
+        assertEquals(2 + 2 * 3, DavoHashMetrics.Source.TREE.blocks());
+        assertEquals(2, sum(DavoHashMetrics.Source.STRING.latencyHistogram()));
+    }
+
+    @Test
+    public void testExposesMetricsThroughJmx() throws Exception {
+        assumeTrue(DavoHashMetrics.ENABLED, "Nur mit -Ddavohash.metrics=true");
+        DavoHash512.hash("jmx");
+        DavoHash512.hash(new byte[10]);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(DavoHashMetrics.OBJECT_NAME);
+        assertTrue(server.isRegistered(name));
+        assertEquals(Boolean.TRUE, server.getAttribute(name, "Enabled"));
+        assertEquals(2L, server.getAttribute(name, "Calls"));
+        assertEquals(13L, server.getAttribute(name, "Bytes"));
+        assertEquals(2L, sum((long[]) server.getAttribute(name, "SizeHistogram")));
+
+        TabularData bySource = (TabularData) server.getAttribute(name, "CallsBySource");
+        CompositeData string = bySource.get(new Object[]{"STRING"});
+        assertEquals(1L, string.get("value"));
+
+        server.invoke(name, "reset", null, null);
+        assertEquals(0L, server.getAttribute(name, "Calls"));
+    }
+
+    @Test
+    public void testEmitsJfrEvents() throws IOException {
+        assumeTrue(DavoHashMetrics.ENABLED, "Nur mit -Ddavohash.metrics=true");
+        Path dump = tempDir.resolve("hash.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.example.DavoHash").withStackTrace();
+            recording.start();
+            DavoHash512.hash("x".repeat(200));
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = davoHashEvents(dump);
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("STRING", event.getString("source"));
+        assertEquals(200, event.getLong("inputSize"));
+        assertEquals(5, event.getLong("blocks"));
+        assertTrue(event.getDuration().toNanos() > 0, "Dauer misst JFR über begin/end");
+        assertTrue(event.getStackTrace().getFrames().stream()
+                .anyMatch(frame -> frame.getMethod().getType().getName().equals(DavoHashMetricsTest.class.getName())));
+    }
+
+    @Test
+    public void testJfrThresholdAndDefaultStackTrace() throws IOException {
+        assumeTrue(DavoHashMetrics.ENABLED, "Nur mit -Ddavohash.metrics=true");
+        Path filtered = tempDir.resolve("gefiltert.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.example.DavoHash").withThreshold(Duration.ofHours(1));
+            recording.start();
+            DavoHash512.hash("x".repeat(200));
+            recording.stop();
+            recording.dump(filtered);
+        }
+        assertTrue(davoHashEvents(filtered).isEmpty(), "Schwellwert filtert kurze Aufrufe");
+
+        Path dump = tempDir.resolve("ungefiltert.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.example.DavoHash");
+            recording.start();
+            DavoHash512.hash("x".repeat(200));
+            new DavoHash512.Digest().update(new byte[64]).digest();
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = davoHashEvents(dump);
+        assertEquals(2, events.size());
+        assertNull(events.get(0).getStackTrace(), "Stacktrace ist standardmäßig aus");
+        assertEquals("STREAM", events.get(1).getString("source"));
+        assertEquals(0, events.get(1).getDuration().toNanos(), "Stream-Digests haben keine Dauer");
+    }
+
+    private static List<RecordedEvent> davoHashEvents(Path dump) throws IOException {
+        return RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals("org.example.DavoHash"))
+                .toList();
+    }
+
+    private static long sum(long[] values) {
+        long sum = 0;
+        for (long value : values) sum += value;
+        return sum;
+    }
+}
@@ -0,0 +1,183 @@
+import org.example.DavoHash512;
+import org.example.DavoHashClient;
+import org.example.DavoHashServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.io.ByteArrayInputStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DavoHashServerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final SocketAddress LOOPBACK = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+    private static DavoHashServer.Limits limits(int maxFrameSize, int maxPending) {
+        DavoHashServer.Limits defaults = DavoHashServer.Limits.defaults();
+        return new DavoHashServer.Limits(4, defaults.maxBatch(), defaults.batchThreshold(), maxFrameSize, maxPending,
+                defaults.maxQueuedBytes(), defaults.maxOutboundPerConnection(), defaults.maxConnections());
+    }
+
+    // Sendet alle Nachrichten ohne auf Antworten zu warten und prüft jede Antwort anhand ihrer ID
+    private static void pipeline(DavoHashClient client, List<byte[]> messages) throws IOException {
+        Map<Integer, byte[]> expected = new HashMap<>();
+        for (byte[] message : messages) {
+            expected.put(client.sendHash(message), DavoHash512.hash(message));
+        }
+        while (!expected.isEmpty()) {
+            DavoHashClient.Response response = client.receive();
+            assertTrue(response.ok(), response.error());
+            assertArrayEquals(expected.remove(response.id()), response.digest(), "Hash weicht ab für Anfrage " + response.id());
+        }
+    }
+
+    private static List<byte[]> messages(int count, int maxSize, long seed) {
+        Random random = new Random(seed);
+        List<byte[]> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            byte[] message = new byte[random.nextInt(maxSize)];
+            random.nextBytes(message);
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    @Test
+    public void testPipelinedRequestsOverLoopback() throws Exception {
+        try (DavoHashServer server = DavoHashServer.start(LOOPBACK, limits(1 << 20, 256));
+             DavoHashClient client = DavoHashClient.connect(server.localAddress())) {
+            pipeline(client, messages(2000, 300, 1));
+            pipeline(client, messages(50, 100_000, 2));
+            assertArrayEquals(DavoHash512.hash(new byte[0]), client.hash(new byte[0]));
+        }
+    }
+
+    @Test
+    public void testUnixDomainSocketAndStreams() throws Exception {
+        Path socket = tempDir.resolve("davohash.sock");
+        byte[] large = new byte[5_000_000];
+        new Random(3).nextBytes(large);
+
+        try (DavoHashServer server = DavoHashServer.start(UnixDomainSocketAddress.of(socket), limits(64 * 1024, 256));
+             DavoHashClient client = DavoHashClient.connect(server.localAddress())) {
+            int stream = client.sendStream(Channels.newChannel(new ByteArrayInputStream(large)), 64 * 1024);
+            int empty = client.sendStream(Channels.newChannel(new ByteArrayInputStream(new byte[0])));
+            int small = client.sendHash(large, 0, 1000);
+
+            Map<Integer, byte[]> expected = Map.of(
+                    stream, new DavoHash512.Digest().update(large).digest(),
+                    empty, new DavoHash512.Digest().digest(),
+                    small, DavoHash512.hash(large, 0, 1000));
+            for (int i = 0; i < 3; i++) {
+                DavoHashClient.Response response = client.receive();
+                assertTrue(response.ok(), response.error());
+                assertArrayEquals(expected.get(response.id()), response.digest());
+            }
+        }
+        assertFalse(Files.exists(socket), "Socket-Datei sollte beim Schließen entfernt werden");
+    }
+
+    @Test
+    public void testBackpressureWithSmallLimits() throws Exception {
+        DavoHashServer.Limits tight = new DavoHashServer.Limits(2, 8, 4096, 1 << 20, 4, 64 * 1024, 512, 16);
+        try (DavoHashServer server = DavoHashServer.start(LOOPBACK, tight);
+             DavoHashClient client = DavoHashClient.connect(server.localAddress())) {
+            // Weit mehr Anfragen als erlaubt ausstehen dürfen; der Server liest erst nach Antworten weiter
+            pipeline(client, messages(3000, 200, 4));
+            pipeline(client, messages(20, 200_000, 5));
+        }
+    }
+
+    @Test
+    public void testConcurrentClients() throws Exception {
+        try (DavoHashServer server = DavoHashServer.start(LOOPBACK, limits(1 << 20, 64));
+             ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                long seed = t;
+                results.add(executor.submit(() -> {
+                    try (DavoHashClient client = DavoHashClient.connect(server.localAddress())) {
+                        pipeline(client, messages(500, 2000, 100 + seed));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+    }
+
+    @Test
+    public void testPartialFramesCountAgainstQueuedBytes() throws Exception {
+        DavoHashServer.Limits tight = new DavoHashServer.Limits(2, 8, 4096, 1 << 20, 256, 1 << 20, 1 << 20, 16);
+        try (DavoHashServer server = DavoHashServer.start(LOOPBACK, tight);
+             ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<byte[]> waiting;
+            try (SocketChannel raw = SocketChannel.open(server.localAddress())) {
+                // Kopf eines Rahmens mit maximaler Länge, aber nur wenige Bytes Nutzdaten
+                raw.write(ByteBuffer.allocate(9 + 10).put((byte) 1).putInt(1).putInt(1 << 20).flip());
+                Thread.sleep(200);
+                waiting = executor.submit(() -> {
+                    try (DavoHashClient client = DavoHashClient.connect(server.localAddress())) {
+                        return client.hash(new byte[]{1, 2, 3});
+                    }
+                });
+                assertThrows(TimeoutException.class, () -> waiting.get(500, TimeUnit.MILLISECONDS),
+                        "Der reservierte Rahmen sollte maxQueuedBytes ausschöpfen");
+            }
+            // Mit der Verbindung wird auch ihre Reservierung frei
+            assertArrayEquals(DavoHash512.hash(new byte[]{1, 2, 3}), waiting.get(30, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testOversizedAndUnknownFramesAreRejected() throws Exception {
+        try (DavoHashServer server = DavoHashServer.start(LOOPBACK, limits(1024, 256))) {
+            try (DavoHashClient client = DavoHashClient.connect(server.localAddress())) {
+                client.sendHash(new byte[2048]);
+                DavoHashClient.Response response = client.receive();
+                assertFalse(response.ok());
+                assertTrue(response.error().contains("Rahmen zu groß"), response.error());
+                assertThrows(EOFException.class, client::receive, "Verbindung sollte nach einem Protokollfehler geschlossen werden");
+            }
+
+            try (SocketChannel raw = SocketChannel.open(server.localAddress())) {
+                raw.write(ByteBuffer.allocate(9).put((byte) 42).putInt(7).putInt(0).flip());
+                ByteBuffer answer = ByteBuffer.allocate(256);
+                while (raw.read(answer) >= 0) {
+                    // bis der Server schließt
+                }
+                answer.flip();
+                assertEquals(1, answer.get(), "Status sollte ERROR sein");
+                assertEquals(7, answer.getInt());
+            }
+
+            try (DavoHashClient client = DavoHashClient.connect(server.localAddress())) {
+                assertArrayEquals(DavoHash512.hash(new byte[]{1, 2, 3}), client.hash(new byte[]{1, 2, 3}), "Server sollte weiter erreichbar sein");
+            }
+        }
+    }
+}
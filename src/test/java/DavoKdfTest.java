@@ -0,0 +1,117 @@
+import org.example.DavoHash512;
+import org.example.DavoKdf;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DavoKdfTest {
+    private static final DavoKdf.Params SMALL = new DavoKdf.Params(2, 256, 2);
+
+    @Test
+    public void testDeriveIsDeterministicAndSensitive() {
+        byte[] password = "geheim".getBytes(StandardCharsets.UTF_8);
+        byte[] salt = "salz-1234567890".getBytes(StandardCharsets.UTF_8);
+        byte[] key = DavoKdf.derive(password, salt, SMALL, 32);
+        assertEquals(32, key.length);
+        assertArrayEquals(key, DavoKdf.derive(password, salt, SMALL, 32));
+
+        assertFalse(Arrays.equals(key, DavoKdf.derive("geheiM".getBytes(StandardCharsets.UTF_8), salt, SMALL, 32)));
+        assertFalse(Arrays.equals(key, DavoKdf.derive(password, "salz-1234567891".getBytes(StandardCharsets.UTF_8), SMALL, 32)));
+        assertFalse(Arrays.equals(key, DavoKdf.derive(password, salt, new DavoKdf.Params(3, 256, 2), 32)));
+        assertFalse(Arrays.equals(key, DavoKdf.derive(password, salt, new DavoKdf.Params(2, 512, 2), 32)));
+        assertFalse(Arrays.equals(key, DavoKdf.derive(password, salt, new DavoKdf.Params(2, 256, 1), 32)));
+
+        byte[] longKey = DavoKdf.derive(password, salt, SMALL, 200);
+        assertEquals(200, longKey.length);
+        assertFalse(Arrays.equals(Arrays.copyOfRange(longKey, 0, 64), Arrays.copyOfRange(longKey, 64, 128)));
+        assertThrows(IllegalArgumentException.class, () -> DavoKdf.derive(password, salt, SMALL, 0));
+    }
+
+    @Test
+    public void testKnownAnswer() {
+        // Festes Ergebnis: jede Änderung am Verfahren macht gespeicherte Passwort-Hashes ungültig.
+        // Mehrfach, da die vier Bahnen auf fremde Bahnen verweisen und parallel laufen
+        for (int run = 0; run < 5; run++) {
+            byte[] key = DavoKdf.derive("password".getBytes(StandardCharsets.US_ASCII),
+                    "somesaltsomesalt".getBytes(StandardCharsets.US_ASCII), new DavoKdf.Params(3, 64, 4), 32);
+            assertEquals("e97840fa18067c9b26b8912cb8d557907cbd6d880d77a680de9324b773e2e2cf", DavoHash512.bytesToHex(key));
+        }
+    }
+
+    @Test
+    public void testIndependentReferencesIgnorePassword() {
+        byte[] salt = "salz-1234567890".getBytes(StandardCharsets.UTF_8);
+        DavoKdf.Params params = new DavoKdf.Params(1, 256, 2);
+        long[][] first = DavoKdf.firstPassReferences("geheim".getBytes(StandardCharsets.UTF_8), salt, params);
+        long[][] second = DavoKdf.firstPassReferences("anderes Passwort".getBytes(StandardCharsets.UTF_8), salt, params);
+
+        // Erste Hälfte des ersten Durchgangs: gleiche Zugriffe für jedes Passwort; danach hängen sie von den Daten ab
+        int half = first[0].length / 2;
+        for (int lane = 0; lane < first.length; lane++) {
+            assertArrayEquals(Arrays.copyOf(first[lane], half), Arrays.copyOf(second[lane], half), "Bahn " + lane);
+            assertFalse(Arrays.equals(first[lane], half, first[lane].length, second[lane], half, second[lane].length));
+        }
+        long[][] otherSalt = DavoKdf.firstPassReferences("geheim".getBytes(StandardCharsets.UTF_8),
+                "salz-1234567891".getBytes(StandardCharsets.UTF_8), params);
+        assertFalse(Arrays.equals(Arrays.copyOf(first[0], half), Arrays.copyOf(otherSalt[0], half)));
+    }
+
+    @Test
+    public void testEncodedHashRoundTrip() {
+        String encoded = DavoKdf.hash("Passwort123", SMALL);
+        assertTrue(encoded.matches("\\$davokdf\\$v=1\\$m=256,t=2,p=2\\$[A-Za-z0-9_-]{22}\\$[A-Za-z0-9_-]{43}"), encoded);
+        assertTrue(DavoKdf.verify("Passwort123", encoded));
+        assertFalse(DavoKdf.verify("Passwort124", encoded));
+        assertNotEquals(encoded, DavoKdf.hash("Passwort123", SMALL), "Salt sollte zufällig sein");
+        assertEquals(SMALL, DavoKdf.parameters(encoded));
+
+        // NFC: zusammengesetzte und zerlegte Umlaute sind dasselbe Passwort
+        String composed = DavoKdf.hash("K\u00e4se", SMALL);
+        assertTrue(DavoKdf.verify("Ka\u0308se", composed));
+    }
+
+    @Test
+    public void testNeedsRehashAndInvalidInput() {
+        String encoded = DavoKdf.hash("pw", SMALL);
+        assertFalse(DavoKdf.needsRehash(encoded, SMALL));
+        assertTrue(DavoKdf.needsRehash(encoded, new DavoKdf.Params(3, 256, 2)));
+
+        assertThrows(IllegalArgumentException.class, () -> DavoKdf.verify("pw", "$argon2id$v=19$m=65536,t=3,p=4$c2FsdA$aGFzaA"));
+        assertThrows(IllegalArgumentException.class, () -> DavoKdf.verify("pw", encoded.replace("v=1", "v=2")));
+        assertThrows(IllegalArgumentException.class, () -> DavoKdf.verify("pw", encoded.replace("t=2", "t=x")));
+        assertThrows(IllegalArgumentException.class, () -> DavoKdf.verify("pw", encoded.replace("m=256", "m=8")));
+        assertThrows(IllegalArgumentException.class, () -> new DavoKdf.Params(0, 1024, 1));
+        assertThrows(IllegalArgumentException.class, () -> new DavoKdf.Params(1, 8, 2));
+        assertThrows(IllegalArgumentException.class, () -> new DavoKdf.Params(1, 1024, 0));
+    }
+
+    @Test
+    public void testCalibrateApproachesTarget() {
+        Duration target = Duration.ofMillis(100);
+        DavoKdf.Params params = DavoKdf.calibrate(target, 1024, 1);
+        assertEquals(1024, params.memoryKiB());
+        assertTrue(params.iterations() >= 1);
+
+        long start = System.nanoTime();
+        DavoKdf.hash("kalibriert", params);
+        long elapsed = System.nanoTime() - start;
+        // Großzügige Grenzen, die Messung schwankt auf ausgelasteten Maschinen
+        assertTrue(elapsed < 5 * target.toNanos(), "Dauer " + elapsed / 1_000_000 + " ms bei " + params);
+        assertTrue(params.iterations() == 1 || elapsed > target.toNanos() / 5, "Dauer " + elapsed / 1_000_000 + " ms bei " + params);
+    }
+
+    @Test
+    public void testCalibrateWithNoisyMeasurements() {
+        // Bei 8 KiB dauert ein Durchgang nur Mikrosekunden, die Differenz von zwei Messungen ist fast nur Rauschen
+        Duration target = Duration.ofMillis(20);
+        for (int run = 0; run < 10; run++) {
+            DavoKdf.Params params = DavoKdf.calibrate(target, 8, 1);
+            long start = System.nanoTime();
+            DavoKdf.hash("verrauscht", params);
+            long elapsed = System.nanoTime() - start;
+            assertTrue(elapsed < 10 * target.toNanos(), "Dauer " + elapsed / 1_000_000 + " ms bei " + params);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+import org.example.DavoHash512;
+import org.example.DavoMac;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DavoMacTest {
+
+    // Direkt nach RFC 2104 über den Stream-Modus berechnet
+    private static byte[] reference(byte[] key, byte[] message) {
+        byte[] block = new byte[64];
+        byte[] k = key.length > 64 ? new DavoHash512.Digest().update(key).digest() : key;
+        System.arraycopy(k, 0, block, 0, k.length);
+        byte[] ipad = block.clone();
+        byte[] opad = block.clone();
+        for (int i = 0; i < 64; i++) {
+            ipad[i] ^= 0x36;
+            opad[i] ^= 0x5c;
+        }
+        byte[] inner = new DavoHash512.Digest().update(ipad).update(message).digest();
+        return new DavoHash512.Digest().update(opad).update(inner).digest();
+    }
+
+    @Test
+    public void testMatchesHmacConstruction() {
+        byte[] message = "GET /api/v1/konten?mandant=42".getBytes(StandardCharsets.UTF_8);
+        for (int keyLength : new int[]{0, 1, 20, 63, 64, 65, 200}) {
+            byte[] key = new byte[keyLength];
+            for (int i = 0; i < keyLength; i++) key[i] = (byte) (i * 7 + 1);
+            assertArrayEquals(reference(key, message), DavoMac.init(key).mac(message), "HMAC weicht ab bei Schlüssellänge " + keyLength);
+        }
+    }
+
+    @Test
+    public void testReuseAndIncrementalUpdates() {
+        byte[] key = "geheimer-schlüssel".getBytes(StandardCharsets.UTF_8);
+        byte[] message = new byte[300];
+        for (int i = 0; i < message.length; i++) message[i] = (byte) i;
+
+        DavoMac mac = DavoMac.init(key);
+        byte[] expected = reference(key, message);
+        assertArrayEquals(expected, mac.mac(message));
+        assertArrayEquals(expected, mac.mac(message), "Nach doFinal sollte der MAC zurückgesetzt sein");
+
+        mac.update(message[0]).update(message, 1, 99).update(ByteBuffer.wrap(message, 100, 200));
+        assertArrayEquals(expected, mac.doFinal());
+
+        mac.update(message, 0, 64);
+        DavoMac copy = mac.copy();
+        mac.update(message, 64, 236);
+        copy.update(message, 64, 236);
+        assertArrayEquals(expected, mac.doFinal());
+        assertArrayEquals(expected, copy.doFinal());
+
+        mac.update("verworfen".getBytes(StandardCharsets.UTF_8));
+        mac.reset();
+        assertArrayEquals(expected, mac.mac(message));
+    }
+
+    @Test
+    public void testVerify() {
+        DavoMac.KeyState keyState = DavoMac.KeyState.derive("k".getBytes(StandardCharsets.UTF_8));
+        byte[] message = "Nachricht".getBytes(StandardCharsets.UTF_8);
+        byte[] tag = keyState.newMac().mac(message);
+
+        DavoMac mac = keyState.newMac();
+        assertTrue(mac.update(message).verify(tag));
+
+        byte[] tampered = tag.clone();
+        tampered[63] ^= 1;
+        assertFalse(mac.update(message).verify(tampered));
+        assertFalse(mac.update(message).verify(Arrays.copyOf(tag, 32)), "Verkürzter MAC sollte abgelehnt werden");
+        assertTrue(mac.update(message).verify(tag), "Nach einer fehlgeschlagenen Prüfung sollte der MAC zurückgesetzt sein");
+
+        assertFalse(DavoMac.init("anderer".getBytes(StandardCharsets.UTF_8)).update(message).verify(tag));
+    }
+
+    @Test
+    public void testKeyCacheSharesStatesAcrossThreads() throws Exception {
+        DavoMac.KeyCache<Integer> cache = new DavoMac.KeyCache<>(100, tenant -> ("mandant-" + tenant).getBytes(StandardCharsets.UTF_8));
+        byte[] message = "payload".getBytes(StandardCharsets.UTF_8);
+
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    for (int tenant = 0; tenant < 150; tenant++) {
+                        byte[] expected = reference(("mandant-" + tenant).getBytes(StandardCharsets.UTF_8), message);
+                        if (!cache.newMac(tenant).update(message).verify(expected)) return false;
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        }
+
+        assertEquals(100, cache.size());
+        assertSame(cache.get(149), cache.get(149));
+        assertTrue(cache.hits() > 0);
+        cache.invalidate(149);
+        assertEquals(99, cache.size());
+    }
+}
@@ -0,0 +1,100 @@
+import org.example.DavoHash512;
+import org.example.DavoManifest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DavoManifestTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testCreateWritesSortedManifest() throws IOException {
+        Path root = createTree();
+        Path manifest = tempDir.resolve("manifest.txt");
+
+        DavoManifest.Report report = DavoManifest.create(root, manifest, 2);
+
+        List<String> lines = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+        assertEquals(List.of(
+                "a b.txt  " + hex(root.resolve("a b.txt")),
+                "a.txt  " + hex(root.resolve("a.txt")),
+                "a/x.txt  " + hex(root.resolve("a/x.txt")),
+                "a/z/tief.bin  " + hex(root.resolve("a/z/tief.bin")),
+                "b.txt  " + hex(root.resolve("b.txt"))), lines);
+        assertEquals(5, report.files());
+        assertTrue(report.ok());
+        assertTrue(report.filesPerSecond() > 0);
+    }
+
+    @Test
+    public void testVerifyAcceptsUnchangedTree() throws IOException {
+        Path root = createTree();
+        Path manifest = root.resolve("MANIFEST");
+        DavoManifest.create(root, manifest);
+
+        DavoManifest.Report report = DavoManifest.verify(root, manifest, false);
+        assertTrue(report.ok(), "Unveränderter Baum sollte bestehen: " + report.problems());
+        assertEquals(5, report.files());
+    }
+
+    @Test
+    public void testNamesWithLineBreaksAreEscaped() throws IOException {
+        Path root = Files.createDirectories(tempDir.resolve("baum"));
+        Files.writeString(root.resolve("zeile\numbruch.txt"), "eins");
+        Files.writeString(root.resolve("wagen\rruecklauf.txt"), "zwei");
+        Files.writeString(root.resolve("back\\slash.txt"), "drei");
+        Files.writeString(root.resolve("normal.txt"), "vier");
+        Path manifest = tempDir.resolve("manifest.txt");
+
+        DavoManifest.create(root, manifest);
+
+        List<String> lines = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+        assertEquals(List.of(
+                "\\back\\\\slash.txt  " + hex(root.resolve("back\\slash.txt")),
+                "normal.txt  " + hex(root.resolve("normal.txt")),
+                "\\wagen\\rruecklauf.txt  " + hex(root.resolve("wagen\rruecklauf.txt")),
+                "\\zeile\\numbruch.txt  " + hex(root.resolve("zeile\numbruch.txt"))), lines);
+        DavoManifest.Report report = DavoManifest.verify(root, manifest, false);
+        assertTrue(report.ok(), "Maskierte Namen sollten bestehen: " + report.problems());
+        assertEquals(4, report.files());
+    }
+
+    @Test
+    public void testVerifyReportsAllProblems() throws IOException {
+        Path root = createTree();
+        Path manifest = tempDir.resolve("manifest.txt");
+        DavoManifest.create(root, manifest);
+
+        Files.writeString(root.resolve("a/x.txt"), "verändert");
+        Files.delete(root.resolve("b.txt"));
+        Files.writeString(root.resolve("neu.txt"), "neu");
+
+        DavoManifest.Report report = DavoManifest.verify(root, manifest, false, 3);
+        assertEquals(List.of("Hash weicht ab: a/x.txt", "Fehlt: b.txt", "Nicht im Manifest: neu.txt"), report.problems());
+
+        DavoManifest.Report failFast = DavoManifest.verify(root, manifest, true, 3);
+        assertEquals(1, failFast.problems().size());
+    }
+
+    private Path createTree() throws IOException {
+        Path root = Files.createDirectories(tempDir.resolve("baum"));
+        Files.createDirectories(root.resolve("a/z"));
+        Files.writeString(root.resolve("a.txt"), "eins");
+        Files.writeString(root.resolve("a b.txt"), "zwei");
+        Files.writeString(root.resolve("a/x.txt"), "drei");
+        Files.write(root.resolve("a/z/tief.bin"), new byte[100_000]);
+        Files.writeString(root.resolve("b.txt"), "");
+        return root;
+    }
+
+    private static String hex(Path file) {
+        return DavoHash512.bytesToHex(DavoHash512.hashFile(file));
+    }
+}
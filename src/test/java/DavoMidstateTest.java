@@ -0,0 +1,89 @@
+import org.example.DavoHash512;
+import org.example.MidstateCache;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DavoMidstateTest {
+
+    private static byte[] streamHash(byte[] prefix, byte[] suffix) {
+        return new DavoHash512.Digest().update(prefix).update(suffix).digest();
+    }
+
+    @Test
+    public void testMidstateMatchesStreamMode() {
+        Random random = new Random(14);
+        for (int prefixLength : new int[]{0, 1, 63, 64, 65, 127, 128, 1000}) {
+            byte[] prefix = new byte[prefixLength];
+            random.nextBytes(prefix);
+            DavoHash512.Midstate midstate = DavoHash512.prefix(prefix);
+            assertEquals(prefixLength, midstate.length());
+
+            for (int suffixLength : new int[]{0, 1, 16, 63, 64, 200}) {
+                byte[] suffix = new byte[suffixLength];
+                random.nextBytes(suffix);
+                byte[] expected = streamHash(prefix, suffix);
+                assertArrayEquals(expected, midstate.hash(suffix), "Abweichung bei Präfix " + prefixLength + ", Suffix " + suffixLength);
+                assertArrayEquals(expected, midstate.hash(ByteBuffer.wrap(suffix)));
+                assertArrayEquals(expected, midstate.newDigest().update(suffix).digest());
+            }
+        }
+    }
+
+    @Test
+    public void testExtendAndOffsets() {
+        byte[] header = "tenant:42/bucket:logs/".getBytes(StandardCharsets.UTF_8);
+        byte[] more = "2026/10/".getBytes(StandardCharsets.UTF_8);
+        byte[] suffix = "16/objekt-0001".getBytes(StandardCharsets.UTF_8);
+
+        byte[] joined = new byte[header.length + more.length];
+        System.arraycopy(header, 0, joined, 0, header.length);
+        System.arraycopy(more, 0, joined, header.length, more.length);
+
+        assertArrayEquals(streamHash(joined, suffix), DavoHash512.prefix(header).extend(more).hash(suffix));
+        assertArrayEquals(streamHash(header, more), DavoHash512.prefix(joined, 0, header.length).hash(joined, header.length, more.length));
+
+        byte[] out = new byte[DavoHash512.DIGEST_LENGTH + 4];
+        DavoHash512.prefix(header).hashInto(suffix, 0, suffix.length, out, 4);
+        assertArrayEquals(streamHash(header, suffix), Arrays.copyOfRange(out, 4, out.length));
+    }
+
+    @Test
+    public void testCacheIsBoundedAndSharedAcrossThreads() throws Exception {
+        MidstateCache cache = new MidstateCache(8);
+        byte[] suffix = "schlüssel".getBytes(StandardCharsets.UTF_8);
+
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        byte[] prefix = ("namespace-" + i % 10 + "/").repeat(20).getBytes(StandardCharsets.UTF_8);
+                        if (!Arrays.equals(streamHash(prefix, suffix), cache.hash(prefix, suffix))) return false;
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        }
+
+        assertTrue(cache.size() <= 8);
+        assertEquals(800, cache.hits() + cache.misses());
+
+        byte[] prefix = "fest".getBytes(StandardCharsets.UTF_8);
+        DavoHash512.Midstate first = cache.get(prefix);
+        prefix[0] = 'F';
+        assertNotSame(first, cache.get(prefix), "Änderungen am Array des Aufrufers dürfen den Cache nicht verfälschen");
+        assertSame(first, cache.get("fest".getBytes(StandardCharsets.UTF_8)));
+    }
+}
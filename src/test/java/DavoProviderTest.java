@@ -0,0 +1,78 @@
+import org.example.DavoHash512;
+import org.example.DavoProvider;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.util.ServiceLoader;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DavoProviderTest {
+
+    private static final Provider PROVIDER = new DavoProvider();
+
+    @Test
+    public void testMessageDigestMatchesDigest() throws NoSuchAlgorithmException {
+        byte[] data = TestData.random(5000);
+        MessageDigest md = MessageDigest.getInstance(DavoProvider.ALGORITHM, PROVIDER);
+
+        assertEquals(DavoHash512.DIGEST_LENGTH, md.getDigestLength());
+        assertArrayEquals(new DavoHash512.Digest().update(data).digest(), md.digest(data));
+        assertArrayEquals(md.digest(data), MessageDigest.getInstance("DavoHash512", PROVIDER).digest(data));
+    }
+
+    @Test
+    public void testDirectByteBufferAndClone() throws Exception {
+        byte[] data = TestData.random(4096);
+        MessageDigest md = MessageDigest.getInstance(DavoProvider.ALGORITHM, PROVIDER);
+        md.update(ByteBuffer.allocateDirect(100).put(data, 0, 100).flip());
+
+        MessageDigest clone = (MessageDigest) md.clone();
+        md.update(ByteBuffer.allocateDirect(data.length - 100).put(data, 100, data.length - 100).flip());
+        clone.update(new byte[]{1, 2, 3});
+
+        assertArrayEquals(new DavoHash512.Digest().update(data).digest(), md.digest());
+        DavoHash512.Digest expected = new DavoHash512.Digest().update(data, 0, 100).update(new byte[]{1, 2, 3});
+        assertArrayEquals(expected.digest(), clone.digest());
+    }
+
+    @Test
+    public void testDigestStreams() throws Exception {
+        byte[] data = TestData.random(100_000);
+        byte[] expected = new DavoHash512.Digest().update(data).digest();
+
+        DigestInputStream in = new DigestInputStream(new ByteArrayInputStream(data), MessageDigest.getInstance(DavoProvider.ALGORITHM, PROVIDER));
+        drain(in);
+        assertArrayEquals(expected, in.getMessageDigest().digest());
+
+        DigestOutputStream out = new DigestOutputStream(new ByteArrayOutputStream(), MessageDigest.getInstance(DavoProvider.ALGORITHM, PROVIDER));
+        out.write(data, 0, 12_345);
+        out.write(data, 12_345, data.length - 12_345);
+        assertArrayEquals(expected, out.getMessageDigest().digest());
+    }
+
+    @Test
+    public void testServiceLoaderAndInstall() throws NoSuchAlgorithmException {
+        boolean found = ServiceLoader.load(Provider.class).stream()
+                .anyMatch(provider -> provider.type() == DavoProvider.class);
+        assertTrue(found, "DavoProvider sollte per ServiceLoader auffindbar sein.");
+
+        Provider installed = DavoProvider.install();
+        assertSame(installed, DavoProvider.install());
+        assertEquals(DavoProvider.NAME, MessageDigest.getInstance(DavoProvider.ALGORITHM).getProvider().getName());
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[777];
+        while (in.read(buffer) != -1) {
+            // nur lesen, der Hash entsteht im DigestInputStream
+        }
+    }
+}
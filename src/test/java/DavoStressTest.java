@@ -1,6 +1,6 @@
 import org.example.DavoHash512;
+import org.example.DavoQualityHarness;
 import org.junit.Test;
-import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.util.*;
 import java.util.concurrent.*;
@@ -56,17 +56,18 @@ public class DavoStressTest {
 
     @Test
     public void testExtremeEntropyRandomness() {
-        SecureRandom random = new SecureRandom();
-        Set<String> hashSet = new HashSet<>();
-
-        for (int i = 0; i < EXTREME_ENTROPY_SAMPLE_SIZE; i++) {
-            byte[] randomBytes = new byte[64];
-            random.nextBytes(randomBytes);
-            byte[] hashBytes = DavoHash512.hash(new String(randomBytes, StandardCharsets.UTF_8));
-            String hashHex = DavoHash512.bytesToHex(hashBytes);
-
-            assertTrue(hashSet.add(hashHex), "Kollision bei extremem Entropietest gefunden.");
-        }
+        // Kollisionen und Verteilung wie früher über hash(new String(randomBytes, UTF_8)), Avalanche über die Bytes,
+        // da gekippte ungültige Bytes denselben String ergeben können
+        DavoQualityHarness strings = DavoQualityHarness.forDavoHash512Strings();
+        DavoQualityHarness.Generator randomInputs = DavoQualityHarness.random(64, RANDOM.nextLong());
+        DavoQualityHarness.Report report = new DavoQualityHarness.Report(
+                strings.collisions(randomInputs, EXTREME_ENTROPY_SAMPLE_SIZE),
+                DavoQualityHarness.forDavoHash512().avalanche(randomInputs, 2_000),
+                strings.distribution(randomInputs, EXTREME_ENTROPY_SAMPLE_SIZE));
+        System.out.println(report);
+
+        assertEquals(0, report.collisions().collisions(), "Kollision bei extremem Entropietest gefunden.");
+        assertTrue(Math.abs(report.distribution().chiSquareZ()) < 6, "Bytewerte der Hashes sind nicht gleichverteilt.");
     }
 
     @Test
@@ -115,26 +116,12 @@ public class DavoStressTest {
     }
 
     @Test
-    public void testExtremeMultiThreadingStress() throws InterruptedException {
-        ExecutorService executor = Executors.newFixedThreadPool(128);
-
-        try {
-            for (int i = 0; i < EXTREME_TEST_CASES; i++) {
-                final int index = i;
-                executor.submit(() -> {
-                    String input = "extremeThreadingTest" + index;
-                    byte[] hashBytes = DavoHash512.hash(input);
-                    assertNotNull(hashBytes, "Hash sollte nicht null sein.");
-                });
-            }
-        } finally {
-            executor.shutdown();
-            if (!executor.awaitTermination(180, TimeUnit.MINUTES)) {
-                System.err.println("Executor konnte nicht rechtzeitig beendet werden.");
-            }
-        }
-
-        assertTrue(executor.isTerminated(), "Extreme Multi-Threading-Belastungstest nicht abgeschlossen.");
+    public void testExtremeMultiThreadingStress() {
+        DavoQualityHarness.Collisions result = DavoQualityHarness.forDavoHash512Strings()
+                .collisions(DavoQualityHarness.counter("extremeThreadingTest"), EXTREME_TEST_CASES);
+        System.out.println("Kollisionen: " + result);
+        assertEquals(EXTREME_TEST_CASES, result.samples());
+        assertEquals(0, result.collisions(), "Kollision im Multi-Threading-Belastungstest " + result.examples());
     }
 
     @Test
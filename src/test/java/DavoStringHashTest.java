@@ -0,0 +1,63 @@
+import org.example.DavoHash512;
+import org.junit.jupiter.api.Test;
+import java.lang.management.ManagementFactory;
+import java.text.Normalizer;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class DavoStringHashTest {
+
+    @Test
+    public void testDecomposedInputIsNormalized() {
+        String[][] pairs = {
+                {"e\u0301", "\u00e9"},
+                {"Cafe\u0301 und Ma\u0308dchen", "Caf\u00e9 und M\u00e4dchen"},
+                {"\u1100\u1161", "\uac00"},
+                {"x".repeat(100) + "a\u030a", "x".repeat(100) + "\u00e5"}
+        };
+        for (String[] pair : pairs) {
+            assertArrayEquals(DavoHash512.hash(pair[1]), DavoHash512.hash(pair[0]), "NFD und NFC sollten gleich hashen: " + pair[1]);
+        }
+    }
+
+    @Test
+    public void testNormalizedNonLatinInputMatchesNormalizedCopy() {
+        String input = "你好, мир, ελληνικά, 😊 ".repeat(20);
+        assertTrue(Normalizer.isNormalized(input, Normalizer.Form.NFC));
+        assertArrayEquals(DavoHash512.hash(new String(input.toCharArray())), DavoHash512.hash(input));
+        assertFalse(Arrays.equals(DavoHash512.hash(input), DavoHash512.hash(input.substring(1))));
+    }
+
+    @Test
+    public void testInputBelowCombiningMarksMatchesByteHash() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append((char) (i * 31 % 0x300));
+        }
+        String input = builder.toString();
+        byte[] lowBytes = new byte[input.length()];
+        for (int i = 0; i < lowBytes.length; i++) {
+            lowBytes[i] = (byte) input.charAt(i);
+        }
+        assertArrayEquals(DavoHash512.hash(lowBytes), DavoHash512.hash(input));
+    }
+
+    @Test
+    public void testShortInputAllocatesOnlyResult() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        String input = "Kurzer Schlüssel für den schnellen Pfad";
+        for (int i = 0; i < 20_000; i++) {
+            DavoHash512.hash(input);
+        }
+
+        long thread = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 1000; i++) {
+            DavoHash512.hash(input);
+        }
+        long perHash = (threads.getThreadAllocatedBytes(thread) - before) / 1000;
+        assertTrue(perHash <= 128, "Mehr als das Ergebnis allokiert: " + perHash + " Bytes pro Hash");
+    }
+}
@@ -0,0 +1,72 @@
+import org.example.DavoHash512;
+import org.example.DavoTreeHash;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DavoTreeHashTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testParallelismDoesNotChangeResult() {
+        byte[] data = TestData.random(1_000_003);
+        MemorySegment segment = MemorySegment.ofArray(data);
+
+        byte[] sequential = DavoTreeHash.hash(segment, 4096, 1);
+        for (int parallelism : new int[]{2, 3, 8}) {
+            assertArrayEquals(sequential, DavoTreeHash.hash(segment, 4096, parallelism), "Parallelität " + parallelism + " ändert das Ergebnis.");
+        }
+    }
+
+    @Test
+    public void testSingleThreadStaysOnCaller() {
+        byte[] data = TestData.random(100_000);
+        // Ein begrenztes Segment ist nur im anlegenden Thread lesbar; jeder fremde Thread würde scheitern
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment confined = arena.allocate(data.length).copyFrom(MemorySegment.ofArray(data));
+            assertArrayEquals(DavoTreeHash.hash(MemorySegment.ofArray(data), 4096, 4),
+                    DavoTreeHash.hash(confined, 4096, 1));
+        }
+    }
+
+    @Test
+    public void testPathMatchesSegment() throws IOException {
+        for (int length : new int[]{0, 1, 64, 4096, 4097, 3 * 4096 + 100}) {
+            byte[] data = TestData.random(length);
+            Path file = tempDir.resolve("tree-" + length + ".bin");
+            Files.write(file, data);
+
+            assertArrayEquals(DavoTreeHash.hash(MemorySegment.ofArray(data), 4096, 4), DavoTreeHash.hash(file, 4096, 4),
+                    "Datei und Segment liefern unterschiedliche Baum-Hashes: " + length);
+        }
+    }
+
+    @Test
+    public void testDomainSeparationAndSensitivity() {
+        byte[] data = TestData.random(10_000);
+        byte[] tree = DavoTreeHash.hash(MemorySegment.ofArray(data), 4096, 2);
+
+        assertFalse(Arrays.equals(tree, DavoHash512.hash(data)), "Baum-Modus sollte sich vom Text-Modus unterscheiden.");
+        assertFalse(Arrays.equals(tree, DavoTreeHash.hash(MemorySegment.ofArray(data), 8192, 2)), "Die Blattgröße sollte in den Hash eingehen.");
+        assertFalse(Arrays.equals(tree, DavoTreeHash.hash(MemorySegment.ofArray(Arrays.copyOf(data, 10_001)), 4096, 2)), "Eine angehängte Null sollte den Hash ändern.");
+
+        data[9_999] ^= 1;
+        assertFalse(Arrays.equals(tree, DavoTreeHash.hash(MemorySegment.ofArray(data), 4096, 2)), "Ein gekipptes Bit im letzten Blatt sollte den Hash ändern.");
+    }
+
+    @Test
+    public void testInvalidParameters() {
+        MemorySegment segment = MemorySegment.ofArray(new byte[10]);
+        assertThrows(IllegalArgumentException.class, () -> DavoTreeHash.hash(segment, 100, 1));
+        assertThrows(IllegalArgumentException.class, () -> DavoTreeHash.hash(segment, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> DavoTreeHash.hash(segment, 64, 0));
+    }
+}
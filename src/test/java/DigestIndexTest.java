@@ -0,0 +1,145 @@
+import org.example.DavoHash512;
+import org.example.DigestIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DigestIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testExternalSortWithDuplicates() throws IOException {
+        Path file = tempDir.resolve("blockliste.idx");
+        // Kleine Läufe erzwingen mehrere ausgelagerte Dateien; jeder Hash kommt zweimal vor
+        try (DigestIndex.Builder builder = DigestIndex.builder(file, 1000)) {
+            for (int i = 0; i < 20_000; i++) {
+                builder.add(digest(i % 10_000));
+            }
+            assertEquals(10_000, builder.build());
+        }
+        assertEquals(List.of(file), listDirectory());
+
+        try (DigestIndex index = DigestIndex.open(file)) {
+            assertEquals(10_000, index.size());
+            for (int i = 0; i < 10_000; i++) {
+                assertTrue(index.contains(digest(i)), "Hash " + i + " fehlt");
+            }
+            for (int i = 10_000; i < 20_000; i++) {
+                assertFalse(index.contains(digest(i)), "Hash " + i + " sollte fehlen");
+            }
+            // Gleiches erstes Wort, anderer Rest
+            byte[] nearMiss = digest(5);
+            nearMiss[63] ^= 1;
+            assertFalse(index.contains(nearMiss));
+            assertThrows(IllegalArgumentException.class, () -> index.contains(new byte[32]));
+        }
+    }
+
+    @Test
+    public void testBatchLookupMatchesSingleLookups() throws IOException {
+        Path file = tempDir.resolve("erlaubt.idx");
+        byte[] packed = new byte[5000 * DavoHash512.DIGEST_LENGTH];
+        for (int i = 0; i < 5000; i++) {
+            System.arraycopy(digest(2 * i), 0, packed, i * DavoHash512.DIGEST_LENGTH, DavoHash512.DIGEST_LENGTH);
+        }
+        try (DigestIndex.Builder builder = DigestIndex.builder(file)) {
+            for (int i = 0; i < 5000; i++) {
+                builder.add(packed, i * DavoHash512.DIGEST_LENGTH);
+            }
+            builder.build();
+        }
+
+        byte[][] queries = new byte[1001][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = digest(i);
+        }
+        boolean[] results = new boolean[queries.length];
+        try (DigestIndex index = DigestIndex.open(file)) {
+            assertEquals(501, index.contains(queries, results));
+            for (int i = 0; i < queries.length; i++) {
+                assertEquals(i % 2 == 0, results[i], "Anfrage " + i);
+                assertEquals(index.contains(queries[i]), results[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        Path file = tempDir.resolve("gross.idx");
+        try (DigestIndex.Builder builder = DigestIndex.builder(file)) {
+            for (int i = 0; i < 50_000; i++) {
+                builder.add(digest(i));
+            }
+            builder.build();
+        }
+        try (DigestIndex index = DigestIndex.open(file);
+             ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t * 25_000;
+                results.add(executor.submit(() -> {
+                    int found = 0;
+                    for (int i = offset; i < offset + 25_000; i++) {
+                        if (index.contains(digest(i))) found++;
+                    }
+                    return found;
+                }));
+            }
+            int found = 0;
+            for (Future<Integer> result : results) found += result.get();
+            assertEquals(50_000, found);
+        }
+    }
+
+    @Test
+    public void testEmptyAndDamagedFiles() throws IOException {
+        Path empty = tempDir.resolve("leer.idx");
+        try (DigestIndex.Builder builder = DigestIndex.builder(empty)) {
+            assertEquals(0, builder.build());
+        }
+        try (DigestIndex index = DigestIndex.open(empty)) {
+            assertEquals(0, index.size());
+            assertFalse(index.contains(digest(1)));
+        }
+
+        Path damaged = Files.write(tempDir.resolve("kaputt.idx"), Files.readAllBytes(empty), StandardOpenOption.CREATE_NEW);
+        Files.write(damaged, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+        assertThrows(IOException.class, () -> DigestIndex.open(damaged));
+        assertThrows(IOException.class, () -> DigestIndex.open(Files.writeString(tempDir.resolve("text.idx"), "kein Index")));
+    }
+
+    @Test
+    public void testFailedBuildLeavesNoTemporaryFiles() throws IOException {
+        // Ein nicht leeres Verzeichnis als Ziel lässt das abschließende Verschieben scheitern
+        Path blocked = Files.createDirectory(tempDir.resolve("belegt.idx"));
+        Files.write(blocked.resolve("inhalt"), new byte[]{1});
+        try (DigestIndex.Builder builder = DigestIndex.builder(blocked, 1000)) {
+            for (int i = 0; i < 5000; i++) {
+                builder.add(digest(i));
+            }
+            assertThrows(IOException.class, builder::build);
+        }
+        assertEquals(List.of(blocked), listDirectory(), "Zwischendatei und Läufe müssen gelöscht sein");
+    }
+
+    private List<Path> listDirectory() throws IOException {
+        try (var files = Files.list(tempDir)) {
+            return files.toList();
+        }
+    }
+
+    private static byte[] digest(int i) {
+        return DavoHash512.hash("eintrag-" + i);
+    }
+}
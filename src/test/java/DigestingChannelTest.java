@@ -0,0 +1,161 @@
+import org.example.DavoHash512;
+import org.example.DigestingReadableByteChannel;
+import org.example.DigestingWritableByteChannel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DigestingChannelTest {
+    private static final int[] SIZES = {0, 1, 63, 64, 65, 4096, (1 << 20) - 1, 1 << 20, (1 << 20) + 1, 3 * 1024 * 1024 + 17};
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testFileModeDigestMatchesHashFile() throws IOException {
+        Random random = new Random(25);
+        for (int size : SIZES) {
+            byte[] data = TestData.random(size, size);
+            Path file = Files.write(tempDir.resolve("datei-" + size), data);
+
+            DavoHash512.Digest digest = DavoHash512.Digest.forFile(size);
+            for (int offset = 0; offset < size; ) {
+                int length = Math.min(size - offset, random.nextInt(200_000));
+                digest.update(data, offset, length);
+                offset += length;
+            }
+            assertArrayEquals(DavoHash512.hashFile(file), digest.digest(), "Datei-Modus weicht ab bei " + size + " Bytes");
+        }
+
+        DavoHash512.Digest incomplete = DavoHash512.Digest.forFile(10).update(new byte[9]);
+        assertThrows(IllegalStateException.class, incomplete::digest);
+        assertThrows(IllegalStateException.class, incomplete::exportState);
+        assertThrows(IllegalArgumentException.class, () -> DavoHash512.Digest.forFile(-1));
+    }
+
+    @Test
+    public void testCopyAndHash() throws IOException {
+        for (int size : SIZES) {
+            byte[] data = TestData.random(size, size);
+            Path source = Files.write(tempDir.resolve("quelle-" + size), data);
+            Path target = tempDir.resolve("ziel-" + size);
+
+            byte[] hash = DavoHash512.copyAndHash(source, target);
+            assertArrayEquals(DavoHash512.hashFile(source), hash, "Hash der Kopie weicht ab bei " + size + " Bytes");
+            assertArrayEquals(data, Files.readAllBytes(target));
+        }
+
+        Path source = tempDir.resolve("quelle-4096");
+        Path existing = Files.write(tempDir.resolve("vorhanden"), new byte[]{1, 2, 3});
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> DavoHash512.copyAndHash(source, existing));
+        assertInstanceOf(FileAlreadyExistsException.class, e.getCause());
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(existing), "Vorhandenes Ziel darf nicht verändert werden");
+
+        DavoHash512.copyAndHash(source, existing, StandardCopyOption.REPLACE_EXISTING);
+        assertArrayEquals(Files.readAllBytes(source), Files.readAllBytes(existing));
+        assertThrows(UnsupportedOperationException.class,
+                () -> DavoHash512.copyAndHash(source, tempDir.resolve("atomar"), StandardCopyOption.ATOMIC_MOVE));
+    }
+
+    @Test
+    public void testCopyAndHashOntoItself() throws IOException {
+        // Kleiner und großer Pfad: Quelle und Ziel sind dieselbe Datei, auch über einen anderen Pfad
+        for (int size : new int[]{4096, 3 * 1024 * 1024 + 17}) {
+            byte[] data = TestData.random(size, size);
+            Path file = Files.write(tempDir.resolve("selbst-" + size), data);
+            byte[] expected = DavoHash512.hashFile(file);
+
+            assertArrayEquals(expected, DavoHash512.copyAndHash(file, file, StandardCopyOption.REPLACE_EXISTING));
+            assertArrayEquals(expected, DavoHash512.copyAndHash(file, tempDir.resolve(".").resolve(file.getFileName())));
+            assertArrayEquals(data, Files.readAllBytes(file), "Quelle darf nicht verändert werden");
+        }
+    }
+
+    @Test
+    public void testReadableChannel() throws IOException {
+        byte[] data = TestData.random(300_000, 7);
+        Path file = Files.write(tempDir.resolve("lesen"), data);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(10_007);
+        try (DigestingReadableByteChannel channel = DigestingReadableByteChannel.open(file)) {
+            assertThrows(IllegalStateException.class, channel::digest, "Hash vor vollständigem Lesen");
+            ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            // Versetzte Startposition: nur die neu gelesenen Bytes zählen
+            while (channel.read(buffer.clear().position(5)) >= 0) {
+                byte[] chunk = new byte[buffer.position() - 5];
+                buffer.get(5, chunk);
+                copy.write(chunk);
+            }
+            assertEquals(data.length, channel.length());
+            assertArrayEquals(data, copy.toByteArray());
+            assertArrayEquals(DavoHash512.hashFile(file), channel.digest());
+        }
+
+        try (DigestingReadableByteChannel channel = new DigestingReadableByteChannel(FileChannel.open(file))) {
+            while (channel.read(buffer.clear()) >= 0) {
+                // nur lesen
+            }
+            assertArrayEquals(new DavoHash512.Digest().update(data).digest(), channel.digest());
+        }
+    }
+
+    @Test
+    public void testWritableChannelHashesOnlyAcceptedBytes() throws IOException {
+        byte[] data = TestData.random(100_000, 8);
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        WritableByteChannel partial = new WritableByteChannel() {
+            private final WritableByteChannel target = Channels.newChannel(sink);
+
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                // Nimmt höchstens 1000 Bytes je Aufruf an
+                ByteBuffer slice = src.slice().limit(Math.min(src.remaining(), 1000));
+                int count = target.write(slice);
+                src.position(src.position() + count);
+                return count;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return target.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                target.close();
+            }
+        };
+        try (DigestingWritableByteChannel channel = new DigestingWritableByteChannel(partial)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            assertEquals(data.length, channel.length());
+            assertArrayEquals(new DavoHash512.Digest().update(data).digest(), channel.digest());
+        }
+        assertArrayEquals(data, sink.toByteArray());
+
+        Path file = tempDir.resolve("schreiben");
+        try (DigestingWritableByteChannel channel = new DigestingWritableByteChannel(
+                FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW), DavoHash512.Digest.forFile(data.length))) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(data.length).put(data).flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            assertArrayEquals(DavoHash512.hashFile(file), channel.digest());
+        }
+    }
+}
@@ -0,0 +1,175 @@
+import org.example.DavoHash512;
+import org.example.FileHashCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class FileHashCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testHitMissAndInvalidation() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("daten.txt"), "Inhalt");
+        try (FileHashCache cache = FileHashCache.open(tempDir.resolve("index.bin"), 100)) {
+            assertArrayEquals(DavoHash512.hashFile(file), cache.hash(file));
+            assertArrayEquals(DavoHash512.hashFile(file), cache.hash(file));
+            assertEquals(1, cache.misses());
+            assertEquals(1, cache.hits());
+
+            Files.writeString(file, "Anderer Inhalt");
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+            assertArrayEquals(DavoHash512.hashFile(file), cache.hash(file));
+            assertEquals(2, cache.misses());
+        }
+    }
+
+    @Test
+    public void testEntriesSurviveReopen() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("daten.txt"), "persistent");
+        Path index = tempDir.resolve("index.bin");
+        try (FileHashCache cache = FileHashCache.open(index, 100)) {
+            cache.hash(file);
+        }
+        try (FileHashCache cache = FileHashCache.open(index, 100)) {
+            assertArrayEquals(DavoHash512.hashFile(file), cache.hash(file));
+            assertEquals(1, cache.hits());
+            assertEquals(0, cache.misses());
+        }
+    }
+
+    @Test
+    public void testTornRecordIsDiscarded() throws IOException {
+        Path first = Files.writeString(tempDir.resolve("eins.txt"), "eins");
+        Path second = Files.writeString(tempDir.resolve("zwei.txt"), "zwei");
+        Path index = tempDir.resolve("index.bin");
+        try (FileHashCache cache = FileHashCache.open(index, 100)) {
+            cache.hash(first);
+            cache.hash(second);
+        }
+
+        // Absturz mitten im Schreiben des zweiten Eintrags simulieren
+        long size = Files.size(index);
+        try (var channel = java.nio.channels.FileChannel.open(index, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 10);
+        }
+        Files.write(index, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (FileHashCache cache = FileHashCache.open(index, 100)) {
+            assertEquals(1, cache.size());
+            cache.hash(first);
+            cache.hash(second);
+            assertEquals(1, cache.hits());
+            assertEquals(1, cache.misses());
+        }
+        try (FileHashCache cache = FileHashCache.open(index, 100)) {
+            assertEquals(2, cache.size(), "Nach dem Abschneiden sollte der neue Eintrag lesbar angehängt sein.");
+        }
+    }
+
+    @Test
+    public void testLruCapAndCompaction() throws IOException {
+        Path index = tempDir.resolve("index.bin");
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            files.add(Files.writeString(tempDir.resolve("f" + i + ".txt"), "Datei " + i));
+        }
+
+        try (FileHashCache cache = FileHashCache.open(index, 5)) {
+            for (Path file : files) {
+                cache.hash(file);
+            }
+            assertEquals(5, cache.size());
+            cache.hash(files.get(19));
+            assertEquals(1, cache.hits());
+            cache.hash(files.get(0));
+            assertEquals(21, cache.misses(), "Verdrängter Eintrag sollte neu gehasht werden.");
+
+            long before = Files.size(index);
+            cache.compact();
+            assertTrue(Files.size(index) < before, "Kompaktierung sollte die Indexdatei verkleinern.");
+            try (var entries = Files.list(tempDir)) {
+                assertEquals(files.size() + 1, entries.count(), "Keine Zwischendatei darf übrig bleiben.");
+            }
+            // Das Log bleibt nach der Kompaktierung offen
+            cache.hash(Files.writeString(tempDir.resolve("neu.txt"), "neu"));
+            cache.flush();
+        }
+        try (FileHashCache cache = FileHashCache.open(index, 5)) {
+            assertEquals(5, cache.size());
+            cache.hash(files.get(0));
+            assertEquals(1, cache.hits());
+        }
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            files.add(Files.write(tempDir.resolve("p" + i + ".bin"), new byte[10_000 + i]));
+        }
+
+        try (FileHashCache cache = FileHashCache.open(tempDir.resolve("index.bin"), 1000);
+             ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int round = 0; round < 20; round++) {
+                for (Path file : files) {
+                    results.add(executor.submit(() -> cache.hash(file)));
+                }
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertArrayEquals(DavoHash512.hashFile(files.get(i % files.size())), results.get(i).get());
+            }
+            assertEquals(200, cache.hits() + cache.misses());
+            assertEquals(10, cache.size());
+        }
+    }
+
+    @Test
+    public void testWaitingCallerGetsSameFailure() throws Exception {
+        // Eine FIFO blockiert das Öffnen zum Lesen, bis ein Schreiber kommt: so wartet der zweite Aufruf sicher
+        Path fifo = tempDir.resolve("fifo");
+        Process mkfifo;
+        try {
+            mkfifo = new ProcessBuilder("mkfifo", fifo.toString()).start();
+        } catch (IOException e) {
+            mkfifo = null;
+        }
+        assumeTrue(mkfifo != null && mkfifo.waitFor() == 0, "mkfifo nicht verfügbar");
+
+        try (FileHashCache cache = FileHashCache.open(tempDir.resolve("index.bin"), 10);
+             ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<byte[]> owner = executor.submit(() -> cache.hash(fifo));
+            while (cache.misses() == 0) Thread.sleep(1);
+            Future<byte[]> waiter = executor.submit(() -> cache.hash(fifo));
+            while (cache.hits() == 0) Thread.sleep(1);
+
+            // Nach dem Hashen fehlt die Datei: die zweite Attributabfrage des hashenden Threads scheitert
+            try (FileChannel writer = FileChannel.open(fifo, StandardOpenOption.WRITE)) {
+                Files.delete(fifo);
+            }
+            for (Future<byte[]> result : List.of(owner, waiter)) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+                assertInstanceOf(UncheckedIOException.class, e.getCause());
+                assertInstanceOf(NoSuchFileException.class, e.getCause().getCause());
+            }
+        }
+    }
+}
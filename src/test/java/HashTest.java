@@ -1,4 +1,5 @@
 import org.example.DavoHash512;
+import org.example.DavoQualityHarness;
 import org.junit.Test;
 import java.util.HashSet;
 import java.util.Random;
@@ -37,30 +38,11 @@ public class HashTest {
     }
 
     @Test
-    public void testEnhancedCollisionAvoidance() throws InterruptedException {
-        Set<String> hashSet = new HashSet<>();
-        ExecutorService executor = Executors.newFixedThreadPool(64);
-
-        try {
-            for (int i = 0; i < NUM_MAX_TEST_CASES; i++) {
-                final int index = i;
-                executor.submit(() -> {
-                    String randomInput = "complexInput" + index + Math.random();
-                    byte[] hashBytes = DavoHash512.hash(randomInput);
-                    String hashHex = DavoHash512.bytesToHex(hashBytes);
-                    synchronized (hashSet) {
-                        assertTrue(hashSet.add(hashHex), "Kollision erkannt: Zwei verschiedene Eingaben führten zum gleichen Hash.");
-                    }
-                });
-            }
-        } finally {
-            executor.shutdown();
-            if (!executor.awaitTermination(120, TimeUnit.MINUTES)) {
-                System.err.println("Executor wurde nicht rechtzeitig beendet.");
-            }
-        }
-
-        assertTrue(executor.isTerminated(), "Die erweiterten Kollisionstests wurden nicht innerhalb der maximalen Zeit abgeschlossen.");
+    public void testEnhancedCollisionAvoidance() {
+        DavoQualityHarness.Collisions result = DavoQualityHarness.forDavoHash512Strings()
+                .collisions(DavoQualityHarness.counter("complexInput"), NUM_MAX_TEST_CASES);
+        System.out.println("Kollisionen: " + result);
+        assertEquals(0, result.collisions(), "Kollision erkannt: Zwei verschiedene Eingaben führten zum gleichen Hash " + result.examples());
     }
 
     @Test
@@ -110,14 +92,9 @@ public class HashTest {
 
     @Test
     public void testExtremeBirthdayAttackResistance() {
-        Set<String> hashSet = new HashSet<>();
-
-        for (int i = 0; i < BIRTHDAY_ATTACK_SAMPLE_SIZE * 2; i++) {
-            String randomInput = "birthdayAttack" + i + Math.random();
-            byte[] hashBytes = DavoHash512.hash(randomInput);
-            String hashHex = DavoHash512.bytesToHex(hashBytes);
-            assertTrue(hashSet.add(hashHex), "Kollision erkannt: Zwei zufällige Eingaben erzeugten denselben Hash.");
-        }
+        DavoQualityHarness.Collisions result = DavoQualityHarness.forDavoHash512Strings()
+                .collisions(DavoQualityHarness.counter("birthdayAttack"), BIRTHDAY_ATTACK_SAMPLE_SIZE * 2L);
+        assertEquals(0, result.collisions(), "Kollision erkannt: Zwei zufällige Eingaben erzeugten denselben Hash " + result.examples());
     }
 
     @Test
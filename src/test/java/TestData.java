@@ -0,0 +1,20 @@
+import java.util.Random;
+
+/** Reproduzierbare Testdaten für mehrere Testklassen. */
+final class TestData {
+
+    private TestData() {
+    }
+
+    /** Pseudozufällige Bytes, bei gleicher Größe und gleichem Startwert immer dieselben. */
+    static byte[] random(int size, long seed) {
+        byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    /** Wie {@link #random(int, long)} mit der Größe als Startwert. */
+    static byte[] random(int size) {
+        return random(size, size);
+    }
+}